@@ -0,0 +1,34 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * runs the benchmarks with the allocation profiler - besides throughput every benchmark reports
+ * its allocation rate (gc.alloc.rate) and the bytes allocated per ray (gc.alloc.rate.norm).<br/>
+ * arguments are regular JMH command line options, e.g. a benchmark name pattern: {@code IntersectionBenchmark}
+ */
+public class BenchmarkRunner {
+    /**
+     * run the benchmarks
+     *
+     * @param args JMH command line options
+     * @throws RunnerException            if a benchmark fails
+     * @throws CommandLineOptionException if the options are invalid
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        if (commandLine.getIncludes().isEmpty())
+            builder.include(BenchmarkRunner.class.getPackageName() + "\\..*Benchmark");
+        Options options = builder.parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,110 @@
+package benchmarks;
+
+import geometries.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * throughput of ray - geometry intersection kernels, in rays per second.
+ * every invocation intersects the same fixed set of rays (about half of them hit the geometry)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntersectionBenchmark {
+
+    /**
+     * number of rays intersected by every invocation
+     */
+    static final int RAYS = 1024;
+
+    private final Ray[] rays = new Ray[RAYS];
+
+    private Sphere sphere;
+    private Triangle triangle;
+    private Polygon polygon;
+    private Cylinder cylinder;
+    private Tube tube;
+
+    /**
+     * build the geometries around the origin and a cone of rays towards them
+     */
+    @Setup
+    public void setup() {
+        sphere = new Sphere(new Point(0, 0, 0), 1);
+        triangle = new Triangle(new Point(-1, -1, 0), new Point(1, -1, 0), new Point(0, 1, 0));
+        polygon = new Polygon(new Point(-1, -1, 0), new Point(1, -1, 0), new Point(1, 1, 0), new Point(-1, 1, 0));
+        cylinder = new Cylinder(new Ray(new Point(0, -1, 0), new Vector(0, 1, 0)), 1, 2);
+        tube = new Tube(new Ray(new Point(0, 0, 0), new Vector(0, 1, 0)), 1);
+
+        // fixed seed - every run intersects the same rays
+        Random random = new Random(7943);
+        Point origin = new Point(0.1, 0.2, 5);
+        for (int k = 0; k < RAYS; ++k) {
+            Point target = new Point(random.nextDouble(-2, 2), random.nextDouble(-2, 2), 0);
+            rays[k] = new Ray(origin, target.subtract(origin));
+        }
+    }
+
+    /**
+     * intersect all the rays with a geometry
+     *
+     * @param geometry  geometry to intersect
+     * @param blackhole sink of the results
+     */
+    private void intersectAll(Intersectable geometry, Blackhole blackhole) {
+        for (Ray ray : rays)
+            blackhole.consume(geometry.findGeoIntersections(ray));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RAYS)
+    public void sphere(Blackhole blackhole) {
+        intersectAll(sphere, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RAYS)
+    public void triangle(Blackhole blackhole) {
+        intersectAll(triangle, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RAYS)
+    public void polygon(Blackhole blackhole) {
+        intersectAll(polygon, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RAYS)
+    public void cylinder(Blackhole blackhole) {
+        intersectAll(cylinder, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RAYS)
+    public void tube(Blackhole blackhole) {
+        intersectAll(tube, blackhole);
+    }
+
+    /**
+     * closest hit query used by camera, reflected and refracted rays
+     *
+     * @param blackhole sink of the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(RAYS)
+    public void sphereClosest(Blackhole blackhole) {
+        for (Ray ray : rays)
+            blackhole.consume(sphere.findClosestGeoIntersection(ray));
+    }
+}
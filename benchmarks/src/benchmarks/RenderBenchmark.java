@@ -0,0 +1,84 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import renderer.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * full renders of the room scene of {@link ProjectTest} at a fixed resolution, one benchmark per
+ * {@link AntiAliasing} mode. rendering runs in the benchmark thread, the score is in pixels per second
+ * and the ray counters of {@link RayTracerBasic} are reported by the "primaryRays" and "secondaryRays"
+ * secondary counters (rays per second)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class RenderBenchmark {
+
+    /**
+     * width and height of the rendered image in pixels
+     */
+    static final int RESOLUTION = 100;
+
+    /**
+     * Anti-Aliasing mode of the render
+     */
+    @Param({"NONE", "RANDOM", "CORNERS", "ADAPTIVE"})
+    public AntiAliasing antiAliasing;
+
+    private Camera camera;
+    private RayTracerBasic rayTracer;
+
+    /**
+     * secondary counters of the rays traced by the renders
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RayCounter {
+        /**
+         * primary rays which hit a geometry in the iteration
+         */
+        public long primaryRays;
+        /**
+         * reflected and refracted rays traced in the iteration
+         */
+        public long secondaryRays;
+
+        /**
+         * reset the counters before every iteration
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            primaryRays = 0;
+            secondaryRays = 0;
+        }
+    }
+
+    /**
+     * build the room scene and a camera with the Anti-Aliasing mode
+     */
+    @Setup
+    public void setup() {
+        rayTracer = new RayTracerBasic(ProjectTest.roomScene());
+        camera = ProjectTest.roomCamera()
+                .setImageWriter(new ImageWriter("RenderBenchmark", RESOLUTION, RESOLUTION))
+                .setRayTracer(rayTracer)
+                .setAntiAliasing(antiAliasing)
+                .setN(9).setM(9)
+                .setRecurseDepth(4)
+                .build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RESOLUTION * RESOLUTION)
+    public void render(RayCounter counter) {
+        rayTracer.resetCounters();
+        camera.renderImage();
+        counter.primaryRays += rayTracer.getPrimaryRays();
+        counter.secondaryRays += rayTracer.getSecondaryRays();
+    }
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import primitives.Ray;
+import renderer.Camera;
+import renderer.ProjectTest;
+import renderer.RayTracerBasic;
+import scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * throughput of {@link RayTracerBasic#traceRay(Ray)} on the room scene of {@link ProjectTest}, in rays per second.
+ * every invocation traces the primary rays of a fixed grid of pixels of the room camera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TraceRayBenchmark {
+
+    /**
+     * width and height of the grid of pixels
+     */
+    static final int GRID = 60;
+
+    private final Ray[] rays = new Ray[GRID * GRID];
+    private RayTracerBasic rayTracer;
+
+    /**
+     * build the room scene and the primary rays of the grid
+     */
+    @Setup
+    public void setup() {
+        Scene scene = ProjectTest.roomScene();
+        // same preparation of the geometries as Camera.renderImage
+        scene.getGeometries().buildBVH();
+        scene.getGeometries().getBoundingBox();
+        rayTracer = new RayTracerBasic(scene);
+
+        Camera camera = ProjectTest.roomCamera().build();
+        for (int i = 0; i < GRID; ++i)
+            for (int j = 0; j < GRID; ++j)
+                rays[i * GRID + j] = camera.constructRay(GRID, GRID, j, i);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GRID * GRID)
+    public void traceRay(Blackhole blackhole) {
+        for (Ray ray : rays)
+            blackhole.consume(rayTracer.traceRay(ray));
+    }
+}
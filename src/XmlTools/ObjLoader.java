@@ -0,0 +1,498 @@
+package XmlTools;
+
+import geometries.TriangleMesh;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * class responsible to load a Wavefront OBJ file (and its MTL material libraries) into a {@link TriangleMesh}.
+ * the file is streamed through a buffered channel and parsed byte by byte - the coordinates and indices go straight
+ * into the flat arrays of the mesh, without objects per vertex or per line.<br/>
+ * supported statements: {@code v} (vertex), {@code f} (face - polygons are split to a fan of triangles,
+ * negative indices are relative to the last vertex), {@code mtllib} and {@code usemtl}; other statements
+ * (texture coordinates, normals, groups, smoothing) are skipped.<br/>
+ * MTL materials: {@code Kd} → kD, {@code Ks} → kS, {@code Ns} → shininess, {@code d} (or {@code Tr}) → kT,
+ * {@code Ke} (on a 0-1 scale) → emission (on the 0-255 scale of {@link Color})
+ */
+public class ObjLoader {
+    /**
+     * size of the buffer of the channel reading the file
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     * powers of 10 represented exactly as doubles
+     */
+    private static final double[] POWERS_OF_10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    /**
+     * coordinates of the vertices read so far
+     */
+    private double[] vertices = new double[3 * 1024];
+    private int verticesSize = 0;
+    /**
+     * vertex indices of the triangles read so far
+     */
+    private int[] indices = new int[3 * 1024];
+    private int indicesSize = 0;
+    /**
+     * material id of each triangle read so far
+     */
+    private int[] materialIds = new int[1024];
+    /**
+     * material names by material id - id 0 is the default material of faces before any usemtl
+     */
+    private final List<String> materialNames = new ArrayList<>(List.of(""));
+    /**
+     * material ids by material name
+     */
+    private final Map<String, Integer> materialIdsByName = new HashMap<>();
+    /**
+     * materials read from the material libraries by name
+     */
+    private final Map<String, Material> materials = new HashMap<>();
+    /**
+     * emissions read from the material libraries by name
+     */
+    private final Map<String, Color> emissions = new HashMap<>();
+    /**
+     * material id of the faces being read
+     */
+    private int currentMaterial = 0;
+    /**
+     * whether any face has a material id other than 0
+     */
+    private boolean hasMaterials = false;
+
+    /**
+     * constructor - the loader is used once through {@link #load(Path)}
+     */
+    private ObjLoader() {
+    }
+
+    /**
+     * load an OBJ file into a mesh, material libraries are resolved relatively to the file's directory
+     *
+     * @param path path of the OBJ file
+     * @return mesh of the triangles of the file, with the materials of its material libraries
+     * @throws IOException if a file cannot be read or is malformed
+     */
+    public static TriangleMesh load(Path path) throws IOException {
+        ObjLoader loader = new ObjLoader();
+        loader.readObj(path);
+        return loader.buildMesh();
+    }
+
+    /**
+     * read the statements of an OBJ file
+     *
+     * @param path path of the OBJ file
+     * @throws IOException if a file cannot be read or is malformed
+     */
+    private void readObj(Path path) throws IOException {
+        int[] face = new int[16];
+        try (Tokenizer in = new Tokenizer(path)) {
+            while (in.hasMore()) {
+                int length = in.token();
+                if (in.is(length, "v")) {
+                    ensureVertices(verticesSize + 3);
+                    vertices[verticesSize++] = in.number();
+                    vertices[verticesSize++] = in.number();
+                    vertices[verticesSize++] = in.number();
+                } else if (in.is(length, "f")) {
+                    // vertex indices of the polygon
+                    int count = 0;
+                    for (length = in.token(); length > 0; length = in.token()) {
+                        if (count == face.length)
+                            face = Arrays.copyOf(face, 2 * count);
+                        face[count++] = in.vertexIndex(length, verticesSize / 3);
+                    }
+                    if (count < 3)
+                        throw in.error("face with less than 3 vertices");
+                    // fan of triangles from the first vertex
+                    for (int i = 2; i < count; ++i)
+                        addTriangle(face[0], face[i - 1], face[i]);
+                } else if (in.is(length, "usemtl")) {
+                    currentMaterial = materialId(in.restOfLine());
+                } else if (in.is(length, "mtllib")) {
+                    Path parent = path.toAbsolutePath().getParent();
+                    readMtl(parent.resolve(in.restOfLine()));
+                }
+                in.skipLine();
+            }
+        }
+    }
+
+    /**
+     * read the materials of an MTL file
+     *
+     * @param path path of the MTL file
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    private void readMtl(Path path) throws IOException {
+        try (Tokenizer in = new Tokenizer(path)) {
+            Material material = null;
+            String name = null;
+            while (in.hasMore()) {
+                int length = in.token();
+                if (in.is(length, "newmtl")) {
+                    name = in.restOfLine();
+                    material = new Material();
+                    materials.put(name, material);
+                } else if (material == null) {
+                    // statements before the first material are skipped
+                } else if (in.is(length, "Kd")) {
+                    material.setkD(new Double3(in.number(), in.number(), in.number()));
+                } else if (in.is(length, "Ks")) {
+                    material.setkS(new Double3(in.number(), in.number(), in.number()));
+                } else if (in.is(length, "Ns")) {
+                    material.setnShininess((int) Math.round(in.number()));
+                } else if (in.is(length, "d")) {
+                    material.setkT(1 - in.number());
+                } else if (in.is(length, "Tr")) {
+                    material.setkT(in.number());
+                } else if (in.is(length, "Ke")) {
+                    emissions.put(name, new Color(in.number(), in.number(), in.number()).scale(255));
+                }
+                in.skipLine();
+            }
+        }
+    }
+
+    /**
+     * get the material id of a material name, the first use of a name gets a new id
+     *
+     * @param name name of the material
+     * @return material id
+     */
+    private int materialId(String name) {
+        return materialIdsByName.computeIfAbsent(name, n -> {
+            materialNames.add(n);
+            return materialNames.size() - 1;
+        });
+    }
+
+    /**
+     * add a triangle of the current material
+     *
+     * @param a index of first vertex
+     * @param b index of second vertex
+     * @param c index of third vertex
+     */
+    private void addTriangle(int a, int b, int c) {
+        if (indicesSize + 3 > indices.length) {
+            indices = Arrays.copyOf(indices, 2 * indices.length);
+            materialIds = Arrays.copyOf(materialIds, indices.length / 3);
+        }
+        materialIds[indicesSize / 3] = currentMaterial;
+        hasMaterials |= currentMaterial != 0;
+        indices[indicesSize++] = a;
+        indices[indicesSize++] = b;
+        indices[indicesSize++] = c;
+    }
+
+    /**
+     * make room for vertices coordinates
+     *
+     * @param size number of coordinates to make room for
+     */
+    private void ensureVertices(int size) {
+        if (size > vertices.length)
+            vertices = Arrays.copyOf(vertices, 2 * vertices.length);
+    }
+
+    /**
+     * build the mesh of the triangles read
+     *
+     * @return mesh of the triangles
+     */
+    private TriangleMesh buildMesh() {
+        int trianglesCount = indicesSize / 3;
+        TriangleMesh mesh = new TriangleMesh(Arrays.copyOf(vertices, verticesSize), Arrays.copyOf(indices, indicesSize));
+        if (!hasMaterials)
+            return mesh;
+
+        // materials by id, faces of unknown materials get the default material
+        Material[] meshMaterials = new Material[materialNames.size()];
+        Color[] meshEmissions = new Color[materialNames.size()];
+        for (int id = 0; id < meshMaterials.length; ++id) {
+            String name = materialNames.get(id);
+            meshMaterials[id] = materials.getOrDefault(name, new Material());
+            meshEmissions[id] = emissions.getOrDefault(name, Color.BLACK);
+        }
+        return mesh.setMaterials(Arrays.copyOf(materialIds, trianglesCount), meshMaterials, meshEmissions);
+    }
+
+    /**
+     * parse a decimal number (with optional sign, fraction and exponent) from ASCII bytes.
+     * numbers of up to 15 significant digits with small exponents (the common case of model files) are converted
+     * exactly by one multiplication or division, other numbers are left to {@link Double#parseDouble(String)}
+     *
+     * @param bytes  bytes of the number
+     * @param offset index of the first byte
+     * @param length number of bytes
+     * @return value of the number
+     * @throws NumberFormatException if the bytes are not a number
+     */
+    static double parseDouble(byte[] bytes, int offset, int length) {
+        int i = offset, end = offset + length;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+'))
+            negative = bytes[i++] == '-';
+
+        long mantissa = 0;
+        int digits = 0, exponent = 0;
+        boolean any = false, exact = true;
+        // integer part
+        for (; i < end && bytes[i] >= '0' && bytes[i] <= '9'; ++i, any = true) {
+            if (digits < 15) {
+                mantissa = 10 * mantissa + bytes[i] - '0';
+                if (mantissa != 0) ++digits;
+            } else {
+                ++exponent;
+                exact = false;
+            }
+        }
+        // fraction
+        if (i < end && bytes[i] == '.')
+            for (++i; i < end && bytes[i] >= '0' && bytes[i] <= '9'; ++i, any = true) {
+                if (digits < 15) {
+                    mantissa = 10 * mantissa + bytes[i] - '0';
+                    if (mantissa != 0) ++digits;
+                    --exponent;
+                } else if (bytes[i] != '0')
+                    exact = false;
+            }
+        // exponent
+        if (any && i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            int j = i + 1;
+            boolean negativeExponent = false;
+            if (j < end && (bytes[j] == '-' || bytes[j] == '+'))
+                negativeExponent = bytes[j++] == '-';
+            int value = 0;
+            boolean anyExponent = false;
+            for (; j < end && bytes[j] >= '0' && bytes[j] <= '9'; ++j, anyExponent = true)
+                value = Math.min(10 * value + bytes[j] - '0', 10000);
+            if (anyExponent) {
+                exponent += negativeExponent ? -value : value;
+                i = j;
+            }
+        }
+
+        if (any && i == end && exact) {
+            double value = mantissa;
+            if (mantissa == 0 || exponent == 0)
+                return negative ? -value : value;
+            if (exponent > 0 && exponent < POWERS_OF_10.length)
+                value *= POWERS_OF_10[exponent];
+            else if (exponent < 0 && -exponent < POWERS_OF_10.length)
+                value /= POWERS_OF_10[-exponent];
+            else
+                return Double.parseDouble(new String(bytes, offset, length, StandardCharsets.US_ASCII));
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(bytes, offset, length, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * reader of the whitespace separated tokens of the lines of a file, through a buffered channel
+     */
+    private static class Tokenizer implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final byte[] bytes = buffer.array();
+        /**
+         * index of the next byte in the buffer and number of bytes in the buffer
+         */
+        private int position = 0, limit = 0;
+        /**
+         * bytes of the current token
+         */
+        private byte[] token = new byte[64];
+        /**
+         * path of the file and number of the current line for error messages
+         */
+        private final Path path;
+        private int line = 1;
+
+        /**
+         * constructor - open the file
+         *
+         * @param path path of the file
+         * @throws IOException if the file cannot be opened
+         */
+        Tokenizer(Path path) throws IOException {
+            this.path = path;
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+
+        /**
+         * get the next byte without consuming it, refill the buffer if it was consumed
+         *
+         * @return next byte (0-255), -1 at end of file
+         * @throws IOException if the file cannot be read
+         */
+        private int peek() throws IOException {
+            if (position == limit) {
+                buffer.clear();
+                int read;
+                do {
+                    read = channel.read(buffer);
+                } while (read == 0);
+                if (read < 0)
+                    return -1;
+                position = 0;
+                limit = read;
+            }
+            return bytes[position] & 0xff;
+        }
+
+        /**
+         * check if there are more lines
+         *
+         * @return true if the file was not read to its end
+         * @throws IOException if the file cannot be read
+         */
+        boolean hasMore() throws IOException {
+            return peek() >= 0;
+        }
+
+        /**
+         * read the next token of the current line
+         *
+         * @return length of the token, 0 at end of line
+         * @throws IOException if the file cannot be read
+         */
+        int token() throws IOException {
+            int b = peek();
+            while (b == ' ' || b == '\t' || b == '\r') {
+                ++position;
+                b = peek();
+            }
+            int length = 0;
+            while (b > ' ') {
+                if (length == token.length)
+                    token = Arrays.copyOf(token, 2 * length);
+                token[length++] = (byte) b;
+                ++position;
+                b = peek();
+            }
+            return length;
+        }
+
+        /**
+         * check whether the current token is a keyword
+         *
+         * @param length  length of the token
+         * @param keyword the keyword
+         * @return true if the token is the keyword
+         */
+        boolean is(int length, String keyword) {
+            if (length != keyword.length())
+                return false;
+            for (int i = 0; i < length; ++i)
+                if (token[i] != keyword.charAt(i))
+                    return false;
+            return true;
+        }
+
+        /**
+         * read the next token of the current line as a number
+         *
+         * @return value of the number
+         * @throws IOException if the file cannot be read or the token is not a number
+         */
+        double number() throws IOException {
+            int length = token();
+            if (length == 0)
+                throw error("missing number");
+            try {
+                return parseDouble(token, 0, length);
+            } catch (NumberFormatException e) {
+                throw error("bad number " + new String(token, 0, length, StandardCharsets.US_ASCII));
+            }
+        }
+
+        /**
+         * parse the vertex index of the current token - the part before the first '/' of v/vt/vn
+         *
+         * @param length        length of the token
+         * @param verticesCount number of vertices read so far
+         * @return 0 based index of the vertex
+         * @throws IOException if the token is not an index of a vertex read so far
+         */
+        int vertexIndex(int length, int verticesCount) throws IOException {
+            int i = 0;
+            boolean negative = token[0] == '-';
+            if (negative) ++i;
+            long value = 0;
+            int start = i;
+            for (; i < length && token[i] >= '0' && token[i] <= '9'; ++i)
+                value = Math.min(10 * value + token[i] - '0', Integer.MAX_VALUE);
+            if (i == start || i < length && token[i] != '/')
+                throw error("bad vertex index " + new String(token, 0, length, StandardCharsets.US_ASCII));
+            // positive indices count from 1, negative ones back from the last vertex
+            long index = negative ? verticesCount - value : value - 1;
+            if (index < 0 || index >= verticesCount)
+                throw error("vertex index out of range " + new String(token, 0, length, StandardCharsets.US_ASCII));
+            return (int) index;
+        }
+
+        /**
+         * read the rest of the current line (UTF-8), trimmed
+         *
+         * @return the rest of the line
+         * @throws IOException if the file cannot be read
+         */
+        String restOfLine() throws IOException {
+            int length = 0;
+            for (int b = peek(); b >= 0 && b != '\n'; b = peek()) {
+                if (length == token.length)
+                    token = Arrays.copyOf(token, 2 * length);
+                token[length++] = (byte) b;
+                ++position;
+            }
+            return new String(token, 0, length, StandardCharsets.UTF_8).trim();
+        }
+
+        /**
+         * skip to the start of the next line
+         *
+         * @throws IOException if the file cannot be read
+         */
+        void skipLine() throws IOException {
+            for (int b = peek(); b >= 0; b = peek()) {
+                ++position;
+                if (b == '\n') {
+                    ++line;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * create an exception of a malformed file at the current line
+         *
+         * @param message description of the error
+         * @return the exception
+         */
+        IOException error(String message) {
+            return new IOException(path + ":" + line + ": " + message);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
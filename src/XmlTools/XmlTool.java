@@ -1,190 +1,461 @@
 package XmlTools;
 
-import geometries.Geometries;
-import geometries.Sphere;
-import geometries.Triangle;
+import geometries.*;
 import lighting.AmbientLight;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-import primitives.Color;
-import primitives.Double3;
-import primitives.Point;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.*;
 import scene.Scene;
 
-import javax.swing.*;
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import java.io.File;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 /**
- * class responsible to pars details of a scene from an XML file and instantiate a new Scene object
+ * class responsible to parse details of a scene from an XML file and instantiate a new Scene object.
+ * the file is streamed (StAX) - every element is turned into its object as it is read and handed to the
+ * {@link Scene.SceneBuilder}, so no document tree is kept in memory.<br/>
+ * format of the file (colors and points are space separated numbers, every element besides scene is optional):
+ * <pre>{@code
+ * <scene background-color="r g b">
+ *     <ambient-light color="r g b" k="k | kr kg kb"/>
+ *     <geometries>
+ *         <sphere center="x y z" radius="r" emission="r g b">
+ *             <material kd="k | kr kg kb" ks="k | kr kg kb" kt="k" kr="k" shininess="n"/>
+ *         </sphere>
+ *         <triangle p0="x y z" p1="x y z" p2="x y z"/>
+ *         <polygon vertices="x y z x y z x y z ..."/>
+ *         <plane p0="x y z" p1="x y z" p2="x y z"/> or <plane point="x y z" normal="x y z"/>
+ *         <tube origin="x y z" direction="x y z" radius="r"/>
+ *         <cylinder origin="x y z" direction="x y z" radius="r" height="h"/>
+ *         <mesh file="model.obj"/>
+ *     </geometries>
+ *     <lights>
+ *         <directional-light intensity="r g b" direction="x y z"/>
+ *         <point-light intensity="r g b" position="x y z" kc="k" kl="k" kq="k" radius="r" samples="n"/>
+ *         <spot-light intensity="r g b" position="x y z" direction="x y z" kc="k" kl="k" kq="k" radius="r" samples="n"/>
+ *     </lights>
+ * </scene>
+ * }</pre>
+ * every geometry may have an emission and a material, mesh files are resolved relatively to the scene file
  */
 public class XmlTool {
-
     /**
-     * field holds username of pc to allow path to operate on different devices
+     * factory of the stream readers - secure processing, no DTDs and external entities
      */
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
 
-    String userName = System.getProperty("user.name");
     /**
-     * path to file location in device
+     * reader of the XML stream
+     */
+    private final XMLStreamReader reader;
+    /**
+     * directory to resolve mesh files relatively to
+     */
+    private final Path directory;
+    /**
+     * builder of the scene
      */
-    private  final String FILENAME = "C:/Users/"+userName+"/IdeaProjects/ISE5782_7943_9243/src/XmlTools/basicRenderTestTwoColors.xml";
+    private final Scene.SceneBuilder builder;
     /**
-     * {@link  Scene} object to be instantiated
+     * geometries of the scene
      */
-    Scene scene;
+    private final Geometries geometries = new Geometries();
     /**
-     * {@link  Document} object to interact with XML file
+     * light sources of the scene
      */
-    Document doc;
+    private final List<LightSource> lights = new LinkedList<>();
+
+    /**
+     * geometry being read, its emission and its material (null if not set)
+     */
+    private Intersectable geometry = null;
+    private Color emission = null;
+    private Material material = null;
 
     /**
      * constructor
+     *
+     * @param reader    reader of the XML stream
+     * @param directory directory to resolve mesh files relatively to
+     * @param name      name of scene
      */
-    public XmlTool() {
+    private XmlTool(XMLStreamReader reader, Path directory, String name) {
+        this.reader = reader;
+        this.directory = directory;
+        builder = new Scene.SceneBuilder(name).setGeometries(geometries).setLights(lights);
+    }
 
-        // Instantiate the Factory
-        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+    /**
+     * parse XML file and instantiate scene object
+     *
+     * @param path path of the XML file
+     * @param name name of scene
+     * @return instantiated {@link  Scene} object
+     * @throws IOException if the file (or a mesh file) cannot be read or is malformed
+     */
+    public static Scene createSceneFromXml(Path path, String name) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            return createScene(in, path.toAbsolutePath().getParent(), name);
+        }
+    }
 
-        try {
+    /**
+     * parse XML stream and instantiate scene object, mesh files are resolved relatively to the working directory
+     *
+     * @param in   stream of the XML document (not closed)
+     * @param name name of scene
+     * @return instantiated {@link  Scene} object
+     * @throws IOException if the stream (or a mesh file) cannot be read or is malformed
+     */
+    public static Scene createSceneFromXml(InputStream in, String name) throws IOException {
+        return createScene(in, Path.of(""), name);
+    }
 
-            // optional, but recommended
-            // process XML securely, avoid attacks like XML External Entities (XXE)
-            dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+    /**
+     * parse XML stream and instantiate scene object
+     *
+     * @param in        stream of the XML document
+     * @param directory directory to resolve mesh files relatively to
+     * @param name      name of scene
+     * @return instantiated {@link  Scene} object
+     * @throws IOException if the stream (or a mesh file) cannot be read or is malformed
+     */
+    private static Scene createScene(InputStream in, Path directory, String name) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = FACTORY.createXMLStreamReader(in);
+            return new XmlTool(reader, directory, name).read();
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            if (reader != null)
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // nothing to release
+                }
+        }
+    }
 
-            // parse XML file
-            DocumentBuilder db = dbf.newDocumentBuilder();
+    /**
+     * read the elements of the stream into the scene builder
+     *
+     * @return the scene
+     * @throws XMLStreamException if the stream is malformed
+     * @throws IOException        if an element is malformed or a mesh file cannot be read
+     */
+    private Scene read() throws XMLStreamException, IOException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT)
+                startElement(reader.getLocalName());
+            else if (event == XMLStreamConstants.END_ELEMENT && geometry != null && isGeometry(reader.getLocalName()))
+                endGeometry();
+        }
+        return builder.build();
+    }
 
-            doc = db.parse(new File(FILENAME));
+    /**
+     * check if an element is a geometry
+     *
+     * @param element name of the element
+     * @return true if the element is a geometry
+     */
+    private static boolean isGeometry(String element) {
+        return switch (element) {
+            case "sphere", "triangle", "polygon", "plane", "tube", "cylinder", "mesh" -> true;
+            default -> false;
+        };
+    }
 
-            // optional, but recommended
-            // http://stackoverflow.com/questions/13786607/normalization-in-dom-parsing-with-java-how-does-it-work
-            doc.getDocumentElement().normalize();
+    /**
+     * handle the start of an element - create its object
+     *
+     * @param element name of the element
+     * @throws IOException if the element is malformed or a mesh file cannot be read
+     */
+    private void startElement(String element) throws IOException {
+        switch (element) {
+            case "scene" -> {
+                if (has("background-color"))
+                    builder.setBackground(color("background-color"));
+            }
+            case "ambient-light" -> builder.setAmbientLight(
+                    new AmbientLight(color("color"), has("k") ? double3("k") : new Double3(1d, 1d, 1d)));
+            case "material" -> {
+                if (geometry == null)
+                    throw error("material outside of a geometry");
+                material = material();
+            }
+            case "directional-light" -> lights.add(new DirectionalLight(color("intensity"), vector("direction")));
+            case "point-light" -> lights.add(attenuation(new PointLight(color("intensity"), point("position"))));
+            case "spot-light" -> lights.add(attenuation(
+                    new SpotLight(color("intensity"), point("position"), vector("direction"))));
+            default -> {
+                if (isGeometry(element)) {
+                    geometry = geometry(element);
+                    emission = has("emission") ? color("emission") : null;
+                    material = null;
+                }
+            }
+        }
+    }
 
+    /**
+     * create a geometry from the attributes of its element
+     *
+     * @param element name of the element
+     * @return the geometry
+     * @throws IOException if the element is malformed or a mesh file cannot be read
+     */
+    private Intersectable geometry(String element) throws IOException {
+        try {
+            return switch (element) {
+                case "sphere" -> new Sphere(point("center"), number("radius"));
+                case "triangle" -> new Triangle(point("p0"), point("p1"), point("p2"));
+                case "polygon" -> {
+                    double[] coordinates = numbers("vertices");
+                    if (coordinates.length % 3 != 0)
+                        throw error("polygon vertices must be triples of coordinates");
+                    Point[] vertices = new Point[coordinates.length / 3];
+                    for (int i = 0; i < vertices.length; ++i)
+                        vertices[i] = new Point(coordinates[3 * i], coordinates[3 * i + 1], coordinates[3 * i + 2]);
+                    yield new Polygon(vertices);
+                }
+                case "plane" -> has("normal") ? new Plane(point("point"), vector("normal"))
+                        : new Plane(point("p0"), point("p1"), point("p2"));
+                case "tube" -> new Tube(new Ray(point("origin"), vector("direction")), number("radius"));
+                case "cylinder" -> new Cylinder(new Ray(point("origin"), vector("direction")),
+                        number("radius"), number("height"));
+                default -> ObjLoader.load(directory.resolve(required("file")));
+            };
+        } catch (IllegalArgumentException e) {
+            throw error("bad " + element + ": " + e.getMessage());
+        }
+    }
 
-        } catch (ParserConfigurationException e) {
-            e.printStackTrace();
-        } catch (IOException e) {
-            e.printStackTrace();
-        } catch (SAXException e) {
-            e.printStackTrace();
+    /**
+     * handle the end of a geometry element - set its emission and material and add it to the scene
+     *
+     * @throws IOException if the geometry cannot have an emission or a material
+     */
+    private void endGeometry() throws IOException {
+        if (geometry instanceof Geometry g) {
+            if (emission != null)
+                g.setEmission(emission);
+            if (material != null)
+                g.setMaterial(material);
+        } else if (geometry instanceof TriangleMesh mesh && (emission != null || material != null)) {
+            // one material for the whole mesh instead of the materials of its file
+            mesh.setMaterial(material == null ? new Material() : material, emission == null ? Color.BLACK : emission);
         }
+        geometries.add(geometry);
+        geometry = null;
     }
 
     /**
-     * pars XML file and instantiate scene object
-     * @param name name of scene
-     * @return instantiated {@link  Scene} object
+     * create a material from the attributes of the current element
+     *
+     * @return the material
+     * @throws IOException if an attribute is malformed
      */
-    public Scene createSceneFromXml(String name) {
-
-        // pars background color deatils from xml file
-
-        // get root element of XML file
-        var _scene = doc.getDocumentElement();
-        // get value of background color as a string (RGB)
-        String color = _scene.getAttribute("background-color");
-        // set the  three numeric values (as string) from long string into array
-        List<String> colors = Arrays.stream((color.split("\\s"))).collect(Collectors.toList());
-        // create background color by converting string numeric values to Double values
-        Color background = new Color(
-                Double.valueOf(colors.get(0)),
-                Double.valueOf(colors.get(1)),
-                Double.valueOf(colors.get(2)));
-
-        // pars ambient light details from xml file
-
-        // get ambient light node from xml file
-        var listAmbient = _scene.getElementsByTagName("ambient-light");
-        // extract first node from list
-        var ambient = listAmbient.item(0);
-        // get color attribute from node ( as string)
-        color = ((Element) ambient).getAttribute("color");
-        // set the  three numeric values (as string) from long string into array
-        colors = Arrays.stream((color.split("\\s"))).collect(Collectors.toList());
-
-        AmbientLight ambientColor = new AmbientLight(
-                new Color(Double.valueOf(colors.get(0)),
-                        Double.valueOf(colors.get(1)),
-                        Double.valueOf(colors.get(2))), new Double3(1d, 1d, 1d));
-
-
-        // pars  geometries details from xml file
-
-        Geometries geomeLst = new Geometries();
-        // get list of nodes matching tag geometries
-        var geometryNode = _scene.getElementsByTagName("geometries");
-        // extract first node from list and get its child nodes
-        var geometries = geometryNode.item(0).getChildNodes();
-        List<String> strLst;
-        // loop through child nodes and instantiate a geometry and add to geomeLst
-        for (int i = 0; i < geometries.getLength(); i++) {
-            var node = geometries.item(i);
-            if (node.hasAttributes()) {
-                String attribute = node.getNodeName(); // get node name to determine case in switch
-                var element1 = (Element) node;
-                // geometries are instantiated by parsing in identical method used to access nodes,
-                // we access the string values in the nodes and attribur=tes , and instantiate
-                // objects with the converted string values
-                switch (attribute) {
-                    case "triangle":
-                        String pointStr = element1.getAttribute("p0");
-                        strLst = Arrays.stream(pointStr.split("\\s")).collect(Collectors.toList());
-                        Point p0 = new Point(
-                                Double.valueOf(strLst.get(0)),
-                                Double.valueOf(strLst.get(1)),
-                                Double.valueOf(strLst.get(2))
-                        );
-                        pointStr = element1.getAttribute("p1");
-                        strLst = Arrays.stream(pointStr.split("\\s")).collect(Collectors.toList());
-                        Point p1 = new Point(
-                                Double.valueOf(strLst.get(0)),
-                                Double.valueOf(strLst.get(1)),
-                                Double.valueOf(strLst.get(2))
-                        );
-                        pointStr = element1.getAttribute("p2");
-                        strLst = Arrays.stream(pointStr.split("\\s")).collect(Collectors.toList());
-                        Point p2 = new Point(
-                                Double.valueOf(strLst.get(0)),
-                                Double.valueOf(strLst.get(1)),
-                                Double.valueOf(strLst.get(2))
-                        );
-                        Triangle triangle1 = new Triangle(p0, p1, p2);
-                        geomeLst.add(triangle1);
-                        break;
-                    case "sphere":
-                        String center1 = element1.getAttribute("center");
-                        strLst = Arrays.stream(center1.split("\\s")).collect(Collectors.toList());
-                        Point point1 = new Point(
-                                Double.valueOf(strLst.get(0)),
-                                Double.valueOf(strLst.get(1)),
-                                Double.valueOf(strLst.get(2))
-                        );
-                        String radius1 = element1.getAttribute("radius");
-                        Sphere mySphere1 = new Sphere(point1, Double.valueOf(radius1));
-                        geomeLst.add(mySphere1);
-                        break;
-                    default:
-                        break;
+    private Material material() throws IOException {
+        Material result = new Material();
+        if (has("kd"))
+            result.setkD(double3("kd"));
+        if (has("ks"))
+            result.setkS(double3("ks"));
+        if (has("kt"))
+            result.setkT(number("kt"));
+        if (has("kr"))
+            result.setkR(number("kr"));
+        if (has("shininess"))
+            result.setnShininess((int) number("shininess"));
+        return result;
+    }
 
-                }
+    /**
+     * set the optional attenuation factors and soft shadow attributes of the current element on a light
+     *
+     * @param light the light
+     * @return the light
+     * @throws IOException if an attribute is malformed
+     */
+    private PointLight attenuation(PointLight light) throws IOException {
+        if (has("kc"))
+            light.setkC(number("kc"));
+        if (has("kl"))
+            light.setkL(number("kl"));
+        if (has("kq"))
+            light.setkQ(number("kq"));
+        if (has("radius"))
+            light.setRadius(number("radius"));
+        if (has("samples"))
+            light.setSamples((int) number("samples"));
+        return light;
+    }
 
+    /**
+     * check if the current element has an attribute
+     *
+     * @param name name of the attribute
+     * @return true if the element has the attribute
+     */
+    private boolean has(String name) {
+        return reader.getAttributeValue(null, name) != null;
+    }
+
+    /**
+     * get a mandatory attribute of the current element
+     *
+     * @param name name of the attribute
+     * @return value of the attribute
+     * @throws IOException if the element does not have the attribute
+     */
+    private String required(String name) throws IOException {
+        String value = reader.getAttributeValue(null, name);
+        if (value == null)
+            throw error(reader.getLocalName() + " without " + name);
+        return value;
+    }
+
+    /**
+     * parse the space separated numbers of an attribute of the current element
+     *
+     * @param name name of the attribute
+     * @return the numbers
+     * @throws IOException if the element does not have the attribute or it is not made of numbers
+     */
+    private double[] numbers(String name) throws IOException {
+        String value = required(name);
+        double[] result = new double[3];
+        int count = 0;
+        int length = value.length();
+        for (int i = 0; i < length; ) {
+            // skip spaces and take the token up to the next space
+            while (i < length && Character.isWhitespace(value.charAt(i))) ++i;
+            int start = i;
+            while (i < length && !Character.isWhitespace(value.charAt(i))) ++i;
+            if (start == i)
+                break;
+            if (count == result.length)
+                result = Arrays.copyOf(result, 2 * count);
+            try {
+                result[count++] = Double.parseDouble(value.substring(start, i));
+            } catch (NumberFormatException e) {
+                throw error("bad number in " + name + ": " + value.substring(start, i));
             }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
 
+    /**
+     * parse an attribute of a given number of numbers
+     *
+     * @param name  name of the attribute
+     * @param count number of numbers
+     * @return the numbers
+     * @throws IOException if the attribute is missing or does not have the given number of numbers
+     */
+    private double[] numbers(String name, int count) throws IOException {
+        double[] result = numbers(name);
+        if (result.length != count)
+            throw error(name + " must have " + count + (count == 1 ? " number" : " numbers"));
+        return result;
+    }
+
+    /**
+     * parse an attribute of the current element as a number
+     *
+     * @param name name of the attribute
+     * @return the number
+     * @throws IOException if the attribute is missing or malformed
+     */
+    private double number(String name) throws IOException {
+        return numbers(name, 1)[0];
+    }
+
+    /**
+     * parse an attribute of the current element as a point
+     *
+     * @param name name of the attribute
+     * @return the point
+     * @throws IOException if the attribute is missing or malformed
+     */
+    private Point point(String name) throws IOException {
+        double[] xyz = numbers(name, 3);
+        return new Point(xyz[0], xyz[1], xyz[2]);
+    }
+
+    /**
+     * parse an attribute of the current element as a vector
+     *
+     * @param name name of the attribute
+     * @return the vector
+     * @throws IOException if the attribute is missing or malformed
+     */
+    private Vector vector(String name) throws IOException {
+        double[] xyz = numbers(name, 3);
+        try {
+            return new Vector(xyz[0], xyz[1], xyz[2]);
+        } catch (IllegalArgumentException e) {
+            throw error(name + " must not be the zero vector");
         }
-        // uses scene builder to instantiate the scene and returns it.
-        return new Scene.SceneBuilder(name).setAmbientLight(ambientColor).setBackground(background).setGeometries(geomeLst).build();
+    }
+
+    /**
+     * parse an attribute of the current element as a color
+     *
+     * @param name name of the attribute
+     * @return the color
+     * @throws IOException if the attribute is missing or malformed
+     */
+    private Color color(String name) throws IOException {
+        double[] rgb = numbers(name, 3);
+        return new Color(rgb[0], rgb[1], rgb[2]);
+    }
+
+    /**
+     * parse an attribute of one number (for all colors) or three numbers (for each color)
+     *
+     * @param name name of the attribute
+     * @return the numbers
+     * @throws IOException if the attribute is missing or does not have one or three numbers
+     */
+    private Double3 double3(String name) throws IOException {
+        double[] k = numbers(name);
+        if (k.length == 1)
+            return new Double3(k[0]);
+        if (k.length == 3)
+            return new Double3(k[0], k[1], k[2]);
+        throw error(name + " must have 1 or 3 numbers");
+    }
+
+    /**
+     * create an exception of a malformed element at the current line
+     *
+     * @param message description of the error
+     * @return the exception
+     */
+    private IOException error(String message) {
+        return new IOException("line " + reader.getLocation().getLineNumber() + ": " + message);
     }
 }
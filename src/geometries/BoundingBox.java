@@ -0,0 +1,236 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+
+/**
+ * Axis aligned bounding box (AABB) in 3D Cartesian coordinate system,
+ * used to cull geometries that a ray can not intersect
+ */
+public class BoundingBox {
+
+    /**
+     * margin added around the box in ray intersection tests
+     */
+    private static final double DELTA = 1e-7;
+
+    /**
+     * box of an infinite object - contains the whole space
+     */
+    public static final BoundingBox INFINITE = new BoundingBox(
+            Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    /**
+     * box of an object with no volume at all (e.g. an empty collection) - no ray intersects it
+     */
+    public static final BoundingBox EMPTY = new BoundingBox();
+
+    /**
+     * lower corner coordinates of the box
+     */
+    final double minX, minY, minZ;
+
+    /**
+     * upper corner coordinates of the box
+     */
+    final double maxX, maxY, maxZ;
+
+    /**
+     * constructor based on the six boundary values of the box
+     *
+     * @param minX lower boundary on X axis
+     * @param minY lower boundary on Y axis
+     * @param minZ lower boundary on Z axis
+     * @param maxX upper boundary on X axis
+     * @param maxY upper boundary on Y axis
+     * @param maxZ upper boundary on Z axis
+     * @throws IllegalArgumentException <p>if a lower boundary is larger than the matching upper boundary</p>
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        if (minX > maxX || minY > maxY || minZ > maxZ)
+            throw new IllegalArgumentException("lower boundary of bounding box must not exceed upper boundary");
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * constructor of the empty box - lower boundaries are larger than upper boundaries
+     * so that a union with any other box results in the other box
+     */
+    private BoundingBox() {
+        minX = minY = minZ = Double.POSITIVE_INFINITY;
+        maxX = maxY = maxZ = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * constructor based on two opposite corners of the box
+     *
+     * @param min lower corner of the box
+     * @param max upper corner of the box
+     */
+    public BoundingBox(Point min, Point max) {
+        this(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ());
+    }
+
+    /**
+     * construct the smallest box containing all the given points
+     *
+     * @param points points to wrap (at least one)
+     * @return bounding box of the points
+     */
+    public static BoundingBox of(Point... points) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            minZ = Math.min(minZ, p.getZ());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+            maxZ = Math.max(maxZ, p.getZ());
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * getter for lower corner of the box
+     * @return lower corner point
+     */
+    public Point getMin() {
+        return new Point(minX, minY, minZ);
+    }
+
+    /**
+     * getter for upper corner of the box
+     * @return upper corner point
+     */
+    public Point getMax() {
+        return new Point(maxX, maxY, maxZ);
+    }
+
+    /**
+     * check if the box is empty
+     * @return true if the box contains no point, otherwise false
+     */
+    public boolean isEmpty() {
+        return minX > maxX;
+    }
+
+    /**
+     * check if the box is finite on all three axis
+     * @return true if all boundaries of the box are finite, otherwise false
+     */
+    public boolean isBounded() {
+        return Double.isFinite(minX) && Double.isFinite(minY) && Double.isFinite(minZ)
+                && Double.isFinite(maxX) && Double.isFinite(maxY) && Double.isFinite(maxZ);
+    }
+
+    /**
+     * construct the smallest box containing both this box and another box
+     *
+     * @param other second box
+     * @return new box wrapping both boxes
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(
+                Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * get center of the box on a given axis
+     *
+     * @param axis 0 for X axis, 1 for Y axis, 2 for Z axis
+     * @return center coordinate on the axis
+     */
+    public double getCenter(int axis) {
+        return switch (axis) {
+            case 0 -> (minX + maxX) / 2;
+            case 1 -> (minY + maxY) / 2;
+            default -> (minZ + maxZ) / 2;
+        };
+    }
+
+    /**
+     * check if a ray passes through the box closer to its origin than a distance boundary
+     * (slab method - the ray is clipped against the pair of planes on each axis).
+     * the test uses the inverse direction cached by the ray, so it needs multiplications only.
+     * a ray parallel to an axis (infinite inverse direction) is checked by its origin on that axis,
+     * since the slab distances are NaN if the origin lies on a slab plane
+     *
+     * @param ray         ray to check
+     * @param maxDistance upper boundary for distance of the box from ray origin
+     * @return true if the ray passes through the box within the distance boundary, otherwise false
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        if (minX > maxX)
+            return false;
+
+        Point p0 = ray.getP0();
+        double t1, t2, near, far;
+
+        // the box is slightly enlarged by DELTA so that intersections on the
+        // boundary of flat geometries (e.g. polygons) are not culled by rounding errors
+        double tMin = 0;
+        double tMax = maxDistance + DELTA;
+
+        // X axis slab
+        double inv = ray.getInvDirX();
+        if (Double.isInfinite(inv)) {
+            if (p0.getX() < minX - DELTA || p0.getX() > maxX + DELTA)
+                return false;
+        } else {
+            t1 = (minX - DELTA - p0.getX()) * inv;
+            t2 = (maxX + DELTA - p0.getX()) * inv;
+            near = t1 < t2 ? t1 : t2;
+            far = t1 < t2 ? t2 : t1;
+            if (near > tMin) tMin = near;
+            if (far < tMax) tMax = far;
+        }
+        if (tMin > tMax)
+            return false;
+
+        // Y axis slab
+        inv = ray.getInvDirY();
+        if (Double.isInfinite(inv)) {
+            if (p0.getY() < minY - DELTA || p0.getY() > maxY + DELTA)
+                return false;
+        } else {
+            t1 = (minY - DELTA - p0.getY()) * inv;
+            t2 = (maxY + DELTA - p0.getY()) * inv;
+            near = t1 < t2 ? t1 : t2;
+            far = t1 < t2 ? t2 : t1;
+            if (near > tMin) tMin = near;
+            if (far < tMax) tMax = far;
+        }
+        if (tMin > tMax)
+            return false;
+
+        // Z axis slab
+        inv = ray.getInvDirZ();
+        if (Double.isInfinite(inv)) {
+            if (p0.getZ() < minZ - DELTA || p0.getZ() > maxZ + DELTA)
+                return false;
+        } else {
+            t1 = (minZ - DELTA - p0.getZ()) * inv;
+            t2 = (maxZ + DELTA - p0.getZ()) * inv;
+            near = t1 < t2 ? t1 : t2;
+            far = t1 < t2 ? t2 : t1;
+            if (near > tMin) tMin = near;
+            if (far < tMax) tMax = far;
+        }
+        return tMin <= tMax;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox: " +
+                "min = (" + minX + "," + minY + "," + minZ + ")" +
+                ", max = (" + maxX + "," + maxY + "," + maxZ + ")";
+    }
+}
@@ -73,6 +73,31 @@ public class Cylinder extends Tube{
         return super.getNormal(point);
     }
 
+    /**
+     * calculate bounding box of the cylinder - the box wrapping both of its bases.
+     * the extent of a base disc on each axis is radius * sqrt(1 - d²)
+     * where d is the coordinate of the (normalized) axis direction on that axis
+     * @return bounding box of the cylinder
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        Vector dir = _axisRay.getDir();
+        Point base = _axisRay.getP0();
+        Point top = _axisRay.getPoint(height);
+
+        double eX = _radius * Math.sqrt(Math.max(0, 1 - dir.getX() * dir.getX()));
+        double eY = _radius * Math.sqrt(Math.max(0, 1 - dir.getY() * dir.getY()));
+        double eZ = _radius * Math.sqrt(Math.max(0, 1 - dir.getZ() * dir.getZ()));
+
+        return new BoundingBox(
+                Math.min(base.getX(), top.getX()) - eX,
+                Math.min(base.getY(), top.getY()) - eY,
+                Math.min(base.getZ(), top.getZ()) - eZ,
+                Math.max(base.getX(), top.getX()) + eX,
+                Math.max(base.getY(), top.getY()) + eY,
+                Math.max(base.getZ(), top.getZ()) + eZ);
+    }
+
     /**
      * find intersection points between ray and 3D cylinder
      * @param ray ray towards the sphere
@@ -1,22 +1,53 @@
 package geometries;
 
+import primitives.Double3;
+import primitives.Point;
 import primitives.Ray;
 
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Collection of geometry objects implementing {@link Intersectable}
- * implements Composite pattern
+ * implements Composite pattern.
+ * a ray skips every item of the collection whose {@link BoundingBox} it misses,
+ * so a nested collection (e.g. all the parts of a piece of furniture) is rejected by a single box test.
+ * optionally the collection can be organized as a bounding volume hierarchy (BVH) -
+ * a tree of nested {@link Geometries}, so that a ray skips every subtree whose box it misses.<br/>
+ * adding to a nested collection drops the cached boxes of the collections containing it,
+ * but a nested collection flattened into a built hierarchy can not be added to
  */
 public class Geometries  extends Intersectable{
 
+    /**
+     * maximal number of intersectables held by a leaf node of the bounding volume hierarchy
+     */
+    private static final int BVH_LEAF_SIZE = 4;
+
     /**
      * list of geometries that implement {@link Intersectable} interface
      */
     private List<Intersectable> intersectables;
 
+    /**
+     * determine if to organize the collection as a bounding volume hierarchy
+     */
+    private boolean bvh = false;
+
+    /**
+     * true if the bounding volume hierarchy is built for the current content of the collection
+     */
+    private boolean bvhBuilt = false;
+
+    /**
+     * collections containing this collection, their boxes are dropped when this collection changes
+     */
+    private final List<Geometries> parents = new LinkedList<>();
+
+    /**
+     * true if the collection is flattened into the built bounding volume hierarchy of a containing collection
+     */
+    private boolean flattened = false;
+
     /**
      * constructor
      */
@@ -30,15 +61,152 @@ public class Geometries  extends Intersectable{
      */
     public Geometries(Intersectable... intersectables) {
         this.intersectables = new LinkedList<Intersectable>();
-         Collections.addAll(this.intersectables, intersectables);
+        addAll(intersectables);
     }
 
     /**
      * add collection of {@link  Geometries} geometry composite
      * @param intersectables collection of geometries passed as parameters
+     * @throws IllegalStateException if the collection is flattened into a built bounding volume hierarchy
      */
     public void  add( Intersectable... intersectables){
-        Collections.addAll(this.intersectables, intersectables);
+        if (flattened)
+            throw new IllegalStateException("geometries can not be added to a collection flattened into a built BVH");
+        addAll(intersectables);
+        bvhBuilt = false;
+        invalidate();
+    }
+
+    /**
+     * add geometries to the collection and link the nested collections to it
+     * @param intersectables geometries to add
+     */
+    private void addAll(Intersectable... intersectables) {
+        for (var item : intersectables) {
+            this.intersectables.add(item);
+            if (item instanceof Geometries nested)
+                nested.parents.add(this);
+        }
+    }
+
+    /**
+     * drop the cached bounding boxes of the collection and of the collections containing it
+     */
+    private void invalidate() {
+        resetBoundingBox();
+        for (var parent : parents)
+            parent.invalidate();
+    }
+
+    /**
+     * getter for bvh field
+     * @return true if the collection is organized as a bounding volume hierarchy, otherwise false
+     */
+    public boolean isBVH() {
+        return bvh;
+    }
+
+    /**
+     * setter for bvh field (builder pattern style)
+     * the hierarchy itself is built by {@link #buildBVH()}
+     * @param bvh true to organize the collection as a bounding volume hierarchy
+     * @return this instance of object
+     */
+    public Geometries setBVH(boolean bvh) {
+        this.bvh = bvh;
+        return this;
+    }
+
+    /**
+     * build the bounding volume hierarchy of the collection (if BVH mode is set and
+     * the hierarchy is not built yet). nested collections are flattened, unbounded geometries
+     * (e.g. planes) are kept at the top level and the bounded ones are recursively split
+     * into two halves on the longest axis of their boxes' centers.
+     * must be called before rendering starts - the method is not thread safe
+     */
+    public void buildBVH() {
+        if (!bvh || bvhBuilt)
+            return;
+
+        // flatten nested collections and separate the geometries that can not be wrapped by a box
+        List<Intersectable> bounded = new ArrayList<>();
+        List<Intersectable> unbounded = new LinkedList<>();
+        flatten(this, bounded, unbounded);
+
+        intersectables = unbounded;
+        if (!bounded.isEmpty())
+            intersectables.add(buildNode(bounded));
+        bvhBuilt = true;
+    }
+
+    /**
+     * collect all the geometries of a collection (and of its nested collections)
+     * @param geometries collection to flatten
+     * @param bounded    list to add geometries with a bounding box to
+     * @param unbounded  list to add unbounded geometries to
+     */
+    private static void flatten(Geometries geometries, List<Intersectable> bounded, List<Intersectable> unbounded) {
+        for (var item : geometries.intersectables) {
+            if (item instanceof Geometries nested) {
+                nested.flattened = true;
+                flatten(nested, bounded, unbounded);
+            }
+            else if (item.getBoundingBox().isBounded())
+                bounded.add(item);
+            else
+                unbounded.add(item);
+        }
+    }
+
+    /**
+     * recursively build a node of the bounding volume hierarchy
+     * @param items bounded geometries of the node (the list is reordered by the method)
+     * @return node wrapping all the geometries
+     */
+    private static Geometries buildNode(List<Intersectable> items) {
+        Geometries node = new Geometries();
+
+        // find the extent of the geometries' box centers
+        double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (var item : items) {
+            BoundingBox itemBox = item.getBoundingBox();
+            for (int axis = 0; axis < 3; ++axis) {
+                min[axis] = Math.min(min[axis], itemBox.getCenter(axis));
+                max[axis] = Math.max(max[axis], itemBox.getCenter(axis));
+            }
+        }
+
+        // few geometries - leaf node
+        if (items.size() <= BVH_LEAF_SIZE) {
+            node.intersectables.addAll(items);
+            return node;
+        }
+
+        // split the geometries to two halves by their centers on the longest axis
+        int axis = 0;
+        for (int i = 1; i < 3; ++i)
+            if (max[i] - min[i] > max[axis] - min[axis])
+                axis = i;
+        final int splitAxis = axis;
+        items.sort(Comparator.comparingDouble(item -> item.getBoundingBox().getCenter(splitAxis)));
+
+        int middle = items.size() / 2;
+        node.intersectables.add(buildNode(new ArrayList<>(items.subList(0, middle))));
+        node.intersectables.add(buildNode(new ArrayList<>(items.subList(middle, items.size()))));
+        return node;
+    }
+
+    /**
+     * calculate bounding box of the collection - the box wrapping the boxes of all its geometries
+     * @return bounding box of the collection, {@link BoundingBox#EMPTY} if the collection is empty
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox box = BoundingBox.EMPTY;
+        for (var item : intersectables)
+            box = box.union(item.getBoundingBox());
+        return box;
     }
 
     /**
@@ -53,6 +221,10 @@ public class Geometries  extends Intersectable{
         //for each geometry in intersect-able collection check intersection points
         for (var item: intersectables) {
 
+            // ray misses the box of the item - it can not intersect the item (or any of its nested geometries)
+            if (!item.getBoundingBox().intersects(ray, maxDistance))
+                continue;
+
             // get intersection point for each specific item, (item can be either geometry/nested composite of geometries)
             List<GeoPoint> itemList = item.findGeoIntersections(ray,maxDistance);
 
@@ -68,4 +240,57 @@ public class Geometries  extends Intersectable{
         return result;
 
     }
+
+    /**
+     * find the closest intersection between ray and the geometries in the collection.
+     * the distance of the closest point found so far is passed on as the distance boundary
+     * of the next geometries, so farther geometries are culled by their bounding box
+     * and farther intersections are rejected by the geometries themselves
+     * @param ray         ray towards the composite of geometries
+     * @param maxDistance upper boundary for distance of intersection point from ray origin
+     * @return closest intersection point, null if there are no intersections
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        GeoPoint closest = null;
+        Point p0 = ray.getP0();
+        for (var item : intersectables) {
+            if (!item.getBoundingBox().intersects(ray, maxDistance))
+                continue;
+            GeoPoint geoPoint = item.findClosestGeoIntersectionHelper(ray, maxDistance);
+            if (geoPoint == null)
+                continue;
+            // keep the first of equally distant points, as Ray.findClosestGeoPoint does
+            double distance = p0.distance(geoPoint.point);
+            if (closest == null || distance < maxDistance) {
+                closest = geoPoint;
+                maxDistance = distance;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * fold the transparency of all the geometries in the collection into the transparency accumulated along a ray,
+     * stop at the first geometry that blocks the ray
+     * @param ray         ray towards the composite of geometries
+     * @param maxDistance upper boundary for distance of intersection points from ray origin
+     * @param ktr         transparency accumulated so far along the ray
+     * @param minK        transparency lower than this value (on all colors) is considered opaque
+     * @param occluder    array to set the opaque geometry blocking the ray into, null if not needed
+     * @return accumulated transparency, {@link Double3#ZERO} if the ray is blocked
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK,
+                                             Surface[] occluder) {
+        for (var item : intersectables) {
+            if (!item.getBoundingBox().intersects(ray, maxDistance))
+                continue;
+            ktr = item.findTransparencyHelper(ray, maxDistance, ktr, minK, occluder);
+            // ray is blocked - no need to check the rest of the geometries
+            if (ktr == Double3.ZERO)
+                return ktr;
+        }
+        return ktr;
+    }
 }
@@ -1,14 +1,13 @@
 package geometries;
 
-import primitives.Color;
-import primitives.Material;
-import primitives.Point;
-import primitives.Vector;
+import primitives.*;
+
+import java.util.List;
 
 /**
  *  Interface for Geometric shapes in 3D  Space
  */
-public abstract class Geometry  extends  Intersectable{
+public abstract class Geometry  extends  Surface{
 
     /**
      * {@link Color} of the shape
@@ -24,6 +23,7 @@ public abstract class Geometry  extends  Intersectable{
      * getter for emission field
      * @return {@link  Color} of the shape
      */
+    @Override
     public Color getEmission() {
         return emission;
     }
@@ -43,12 +43,14 @@ public abstract class Geometry  extends  Intersectable{
      * @param point point to get normal vector at
      * @return Vector -  normal vector to geometry at specified point (vector is normalized)
      */
+    @Override
     public abstract Vector getNormal(Point point);
 
     /**
      * getter for material field
      * @return geometry's {@link Material} type
      */
+    @Override
     public Material getMaterial() {
         return material;
     }
@@ -62,4 +64,63 @@ public abstract class Geometry  extends  Intersectable{
         this.material = material;
         return this;
     }
+
+    /**
+     * find the closest intersection between ray and the geometry.
+     * the default implementation picks the closest point of the list of intersections,
+     * geometries override it to find the point without building the list
+     * @param ray         ray towards the geometry
+     * @param maxDistance upper boundary for distance of intersection point from ray origin
+     * @return closest intersection point, null if there are no intersections
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        return ray.findClosestGeoPoint(findGeoIntersectionsHelper(ray, maxDistance));
+    }
+
+    /**
+     * fold the transparency of the geometry into the transparency accumulated along a ray -
+     * multiply it by the geometry's kT for every intersection point
+     * @param ray         ray towards the geometry
+     * @param maxDistance upper boundary for distance of intersection points from ray origin
+     * @param ktr         transparency accumulated so far along the ray
+     * @param minK        transparency lower than this value (on all colors) is considered opaque
+     * @param occluder    array to set the geometry into if it is opaque and blocks the ray, null if not needed
+     * @return accumulated transparency, {@link Double3#ZERO} if the ray is blocked
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK,
+                                             Surface[] occluder) {
+        int count = countIntersections(ray, maxDistance);
+        if (count == 0)
+            return ktr;
+
+        // opaque geometry blocks the ray
+        Double3 kT = material.kT;
+        if (kT.equals(Double3.ZERO)) {
+            if (occluder != null)
+                occluder[0] = this;
+            return Double3.ZERO;
+        }
+
+        for (int i = 0; i < count; ++i) {
+            ktr = ktr.product(kT);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+
+    /**
+     * count the intersection points between a ray and the geometry, closer to ray origin than the distance boundary.
+     * the default implementation counts the list of intersections,
+     * geometries override it to count without building the list
+     * @param ray         ray towards the geometry
+     * @param maxDistance upper boundary for distance of intersection points from ray origin
+     * @return number of intersection points
+     */
+    protected int countIntersections(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        return intersections == null ? 0 : intersections.size();
+    }
 }
@@ -10,6 +10,11 @@ import java.util.Objects;
  */
 public abstract class Intersectable {
 
+    /**
+     * cached bounding box of the object, null until calculated
+     */
+    private BoundingBox boundingBox = null;
+
     /**
      * class representing a point on/in a geometric shape
      */
@@ -18,7 +23,7 @@ public abstract class Intersectable {
         /**
          * geometric shape
          */
-        public final Geometry geometry;
+        public final Surface geometry;
         /**
          * point in/on the geometric shape
          */
@@ -29,7 +34,7 @@ public abstract class Intersectable {
          * @param geometry geometric shape
          * @param point point on/in geometric shape
          */
-        public GeoPoint(Geometry geometry, Point point) {
+        public GeoPoint(Surface geometry, Point point) {
             this.geometry = geometry;
             this.point = point;
         }
@@ -103,4 +108,103 @@ public abstract class Intersectable {
      */
     protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance);
 
+    /**
+     * find the closest intersection {@link GeoPoint} between ray and a geometric object
+     * without building lists of all the intersections
+     * @param ray ray towards the object
+     * @return closest intersection point, null if there are no intersections
+     */
+    public GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersectionHelper(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * find the closest intersection {@link GeoPoint} between ray and a geometric object,
+     * closer to ray origin than the distance boundary
+     * @param ray         ray towards the object
+     * @param maxDistance upper boundary for distance of intersection point from ray origin
+     * @return closest intersection point, null if there are no intersections
+     */
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        return findClosestGeoIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * abstract helper method, finds the closest intersection between ray and the object.
+     * implemented by interface implementing classes
+     * @param ray         ray towards the object
+     * @param maxDistance upper boundary for distance of intersection point from ray origin
+     * @return closest intersection point, null if there are no intersections
+     */
+    protected abstract GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance);
+
+    /**
+     * find the transparency of the object along a ray - the product of transparency coefficients (kT)
+     * of all the geometries the ray intersects, closer to ray origin than the distance boundary.
+     * the query stops as soon as an opaque geometry blocks the ray and builds no lists of intersections,
+     * it is meant for shadow rays towards a light source
+     * @param ray         ray towards the object
+     * @param maxDistance upper boundary for distance of intersection points from ray origin
+     * @param minK        transparency lower than this value (on all colors) is considered opaque
+     * @return transparency along the ray, {@link Double3#ZERO} if the ray is blocked
+     */
+    public Double3 findTransparency(Ray ray, double maxDistance, double minK) {
+        return findTransparencyHelper(ray, maxDistance, Double3.ONE, minK, null);
+    }
+
+    /**
+     * find the transparency of the object along a ray, and the opaque geometry blocking the ray if there is one.
+     * the occluder is found in the same pass - when the ray is blocked only because the product of transparency
+     * coefficients dropped below the minimal value, no occluder is reported
+     * @param ray         ray towards the object
+     * @param maxDistance upper boundary for distance of intersection points from ray origin
+     * @param minK        transparency lower than this value (on all colors) is considered opaque
+     * @param occluder    array whose first cell is set to the opaque {@link Surface} blocking the ray
+     *                    (left unchanged if no opaque geometry blocks the ray)
+     * @return transparency along the ray, {@link Double3#ZERO} if the ray is blocked
+     */
+    public Double3 findTransparency(Ray ray, double maxDistance, double minK, Surface[] occluder) {
+        return findTransparencyHelper(ray, maxDistance, Double3.ONE, minK, occluder);
+    }
+
+    /**
+     * abstract helper method, folds the transparency coefficients of the intersected geometries
+     * into the transparency accumulated so far along the ray.
+     * implemented by interface implementing classes
+     * @param ray         ray towards the object
+     * @param maxDistance upper boundary for distance of intersection points from ray origin
+     * @param ktr         transparency accumulated so far along the ray
+     * @param minK        transparency lower than this value (on all colors) is considered opaque
+     * @param occluder    array to set the opaque geometry blocking the ray into, null if not needed
+     * @return accumulated transparency, {@link Double3#ZERO} (the constant itself) if the ray is blocked
+     */
+    protected abstract Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK,
+                                                      Surface[] occluder);
+
+    /**
+     * get the axis aligned {@link BoundingBox} wrapping the object.
+     * the box is calculated once, at the first call, and cached for the following calls
+     * @return bounding box of the object
+     */
+    public BoundingBox getBoundingBox() {
+        BoundingBox box = boundingBox;
+        if (box == null)
+            boundingBox = box = calcBoundingBox();
+        return box;
+    }
+
+    /**
+     * drop the cached bounding box of the object, to be recalculated on next {@link #getBoundingBox()} call
+     */
+    protected void resetBoundingBox() {
+        boundingBox = null;
+    }
+
+    /**
+     * calculate the axis aligned {@link BoundingBox} wrapping the object,
+     * implemented by each of the interface implementing classes
+     * @return bounding box of the object, infinite on the axes on which the object is not bounded
+     */
+    protected abstract BoundingBox calcBoundingBox();
+
 }
@@ -104,6 +104,24 @@ public class Plane extends Geometry {
         return _normal;
     }
 
+    /**
+     * calculate bounding box of the plane - the plane is infinite,
+     * unless it is orthogonal to one of the axes - then the box is flat on that axis
+     * @return bounding box of the plane
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        double inf = Double.POSITIVE_INFINITY;
+        boolean x = _normal.getX() != 0, y = _normal.getY() != 0, z = _normal.getZ() != 0;
+        if (x && !y && !z)
+            return new BoundingBox(_q0.getX(), -inf, -inf, _q0.getX(), inf, inf);
+        if (!x && y && !z)
+            return new BoundingBox(-inf, _q0.getY(), -inf, inf, _q0.getY(), inf);
+        if (!x && !y && z)
+            return new BoundingBox(-inf, -inf, _q0.getZ(), inf, inf, _q0.getZ());
+        return BoundingBox.INFINITE;
+    }
+
     /**
      * find intersection between ray and plane
      * @param ray ray towards the plane
@@ -111,13 +129,51 @@ public class Plane extends Geometry {
      */
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray,double maxDistance) {
+        double t = intersectionDistance(ray, maxDistance);
+        // no intersection point
+        if (t == 0)
+            return null;
+        //return immutable List
+        return List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
+
+    /**
+     * count intersection points between ray and plane without building a list
+     * @param ray         ray towards the plane
+     * @param maxDistance upper boundary for distance of intersection point from ray origin
+     * @return 1 if the ray intersects the plane, otherwise 0
+     */
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        return intersectionDistance(ray, maxDistance) == 0 ? 0 : 1;
+    }
+
+    /**
+     * find the intersection point between ray and plane without building a list
+     * @param ray         ray towards the plane
+     * @param maxDistance upper boundary for distance of intersection point from ray origin
+     * @return intersection point, null if there is no intersection
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = intersectionDistance(ray, maxDistance);
+        return t == 0 ? null : new GeoPoint(this, ray.getPoint(t));
+    }
+
+    /**
+     * calculate the distance from ray origin to the intersection point of the ray with the plane
+     * @param ray         ray towards the plane
+     * @param maxDistance upper boundary for distance of intersection point from ray origin
+     * @return scaling factor t of ray direction to the intersection point, 0 if there is no intersection
+     */
+    double intersectionDistance(Ray ray, double maxDistance) {
         Point P0 = ray.getP0();
         Vector v = ray.getDir();
         Vector n = _normal;
 
         // ray cannot start at plane's origin point
         if(_q0.equals(P0))
-            return null;
+            return 0;
 
         // ray points -> P = p0 + t*v_ (v_ = direction vector)
         // points on plane  if normal vector dot product with vector from
@@ -130,26 +186,26 @@ public class Plane extends Geometry {
 
         // ray direction cannot be parallel to plane orientation
         if (isZero(nv)){
-            return null;
+            return 0;
         }
 
-        // vector from origin to point
-        Vector Q_P0 = _q0.subtract(P0);
-
-        double nQMinusP0 = alignZero(n.dotProduct(Q_P0));
+        // dot product of normal with vector from ray origin to plane's origin point
+        // (raw coordinates - no allocation)
+        double nQMinusP0 = alignZero((_q0.getX() - P0.getX()) * n.getX()
+                + (_q0.getY() - P0.getY()) * n.getY()
+                + (_q0.getZ() - P0.getZ()) * n.getZ());
 
         //t should not be equal to 0
         if( isZero(nQMinusP0)){
-            return null;
+            return 0;
         }
         // scaling factor for ray , if value is positive
         // ray intersects plane
         double t = alignZero(nQMinusP0 / nv);
         if (t > 0 && alignZero(t-maxDistance) <= 0){
-            //return immutable List
-            return List.of(new GeoPoint(this, ray.getPoint(t)));
+            return t;
         }
         // no intersection point  - ray and plane in opposite  direction
-        return null;
+        return 0;
     }
 }
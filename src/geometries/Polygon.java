@@ -92,6 +92,15 @@ public class Polygon extends Geometry {
 	}
 
 
+	/**
+	 * calculate bounding box of the polygon - the box wrapping all of its vertices
+	 * @return bounding box of the polygon
+	 */
+	@Override
+	protected BoundingBox calcBoundingBox() {
+		return BoundingBox.of(vertices.toArray(new Point[0]));
+	}
+
 	/**
 	 * find intersection between ray and polygon
 	 * @param ray ray towards the plane
@@ -101,58 +110,100 @@ public class Polygon extends Geometry {
 	protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
 
 		// find intersection between ray and plane containing the polygon
-		List<GeoPoint> points=plane.findGeoIntersections(ray,maxDistance);
+		// (closer to ray origin than max distance parameter)
+		double t = plane.intersectionDistance(ray, maxDistance);
 		// no intersections with plane , ray does not intersect polygon
-		if (points==null)
+		if (t == 0)
 			return null;
 
-		//check that intersection point is closer to ray origin than
-		// max distance parameter
-		double distance = points.get(0).point.distance(ray.getP0());
-		if(alignZero(distance-maxDistance)>0)
+		// check that intersection point is within polygon boundary
+		if (!isInside(ray))
 			return null;
 
-		// check that intersection point is within polygon boundary
-		// by  creating vectors from ray origin to each pair of adjacent vertices in polygon
+		// intersection point is inside the polygon
+		return List.of(new GeoPoint(this, ray.getPoint(t)));
+	}
+
+	/**
+	 * count intersection points between ray and polygon without building a list
+	 * @param ray         ray towards the polygon
+	 * @param maxDistance upper boundary for distance of intersection point from ray origin
+	 * @return 1 if the ray intersects the polygon, otherwise 0
+	 */
+	@Override
+	protected int countIntersections(Ray ray, double maxDistance) {
+		return plane.intersectionDistance(ray, maxDistance) != 0 && isInside(ray) ? 1 : 0;
+	}
+
+	/**
+	 * find the intersection point between ray and polygon without building a list
+	 * @param ray         ray towards the polygon
+	 * @param maxDistance upper boundary for distance of intersection point from ray origin
+	 * @return intersection point, null if there is no intersection
+	 */
+	@Override
+	protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+		double t = plane.intersectionDistance(ray, maxDistance);
+		return t == 0 || !isInside(ray) ? null : new GeoPoint(this, ray.getPoint(t));
+	}
+
+	/**
+	 * check if a ray intersecting the plane of the polygon passes inside the polygon boundary
+	 * @param ray ray towards the polygon
+	 * @return true if the ray passes inside the polygon (not on its edges), otherwise false
+	 */
+	protected boolean isInside(Ray ray) {
+		// create vectors from ray origin to each pair of adjacent vertices in polygon
 		// if the sign of the dot product of the vertices for all pairs is matching. ray intersects polygon
 		Point p0 = ray.getP0();
 		Vector direction = ray.getDir();
 
-		// get vector from ray origin to first vertices of polygon
-		Vector v1 = vertices.get(0).subtract(p0);
-
-		// get vector from ray origin to adjacent vertices of previous vertices
-		Vector v2 = vertices.get(1).subtract(p0);
-
-		// get sign of dot product of the vectors
-		double sign = direction.dotProduct(v2.crossProduct(v1));
+		// get sign of dot product of ray direction with the cross product of the vectors
+		// from ray origin to first vertices of polygon and its adjacent vertices
+		double sign = tripleProduct(direction, p0, vertices.get(1), vertices.get(0));
 
 		// if dot product == 0 ray does not intersect polygon
 		if (isZero(sign))
-			return null;
+			return false;
 
 		// flag setting the sign of the dot product of the first pair of vertices
 		boolean checkSign = sign > 0;
 
 		// loop over all adjacent vertices in polygon and check sign of dot-product for constructed
 		// vectors
+		Point previous = vertices.get(0);
 		for (int i = vertices.size() - 1; i > 0; --i) {
-			v2 = v1;
-			v1 = vertices.get(i).subtract(p0);
-			sign = alignZero(direction.dotProduct(v2.crossProduct(v1)));
+			Point current = vertices.get(i);
+			sign = alignZero(tripleProduct(direction, p0, previous, current));
+			previous = current;
 
 			// vectors constructed are orthogonal , ray does not intersect polygon
 			if (isZero(sign))
-				return null;
+				return false;
 
 			//  sign is not matching
 			if (checkSign != (sign > 0))
-				return null;
+				return false;
 		}
 
-		// all signs were matching return the intersection point
-		return List.of(new GeoPoint(this,points.get(0).point));
+		// all signs were matching
+		return true;
 	}
 
+	/**
+	 * calculate dot product of a direction with the cross product of the vectors from an origin point
+	 * to two other points: dir.dotProduct((a - p0).crossProduct(b - p0)).
+	 * calculated on raw coordinates without allocating vectors
+	 * @param dir direction vector
+	 * @param p0  origin point
+	 * @param a   end point of first vector
+	 * @param b   end point of second vector
+	 * @return value of the triple product
+	 */
+	static double tripleProduct(Vector dir, Point p0, Point a, Point b) {
+		double u1 = a.getX() - p0.getX(), u2 = a.getY() - p0.getY(), u3 = a.getZ() - p0.getZ();
+		double v1 = b.getX() - p0.getX(), v2 = b.getY() - p0.getY(), v3 = b.getZ() - p0.getZ();
+		return (u2 * v3 - v2 * u3) * dir.getX() + -(u1 * v3 - v1 * u3) * dir.getY() + (u1 * v2 - v1 * u2) * dir.getZ();
+	}
 
 }
@@ -69,6 +69,17 @@ public class Sphere extends Geometry{
         return point.subtract(center).normalize();
     }
 
+    /**
+     * calculate bounding box of the sphere - a cube around the center with edges of length 2*radius
+     * @return bounding box of the sphere
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return new BoundingBox(
+                center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
+    }
+
     /**
      * find intersection points between ray and sphere
      * @param ray ray towards the object
@@ -85,13 +96,15 @@ public class Sphere extends Geometry{
             return List.of( new GeoPoint(this,ray.getPoint(radius)));
         }
 
-        // vector from ray origin to center point
-        Vector U = center.subtract(P0);
+        // vector U from ray origin to center point (raw coordinates - no allocation)
+        double uX = center.getX() - P0.getX();
+        double uY = center.getY() - P0.getY();
+        double uZ = center.getZ() - P0.getZ();
 
         // tm = U's projection on ray's vector
-        double tm = alignZero(v.dotProduct(U));
+        double tm = alignZero(v.getX() * uX + v.getY() * uY + v.getZ() * uZ);
         // d between u and ray (at center point)
-        double d = alignZero(Math.sqrt(U.lengthSquared() - tm * tm));
+        double d = alignZero(Math.sqrt(uX * uX + uY * uY + uZ * uZ - tm * tm));
 
         //distance from center to ray is larger than the radius
         // no intersections : the ray direction is above the sphere
@@ -136,4 +149,76 @@ public class Sphere extends Geometry{
         return null;
 
     }
+
+    /**
+     * count intersection points between ray and sphere without building a list
+     * @param ray         ray towards the sphere
+     * @param maxDistance upper boundary for distance of intersection points from ray origin
+     * @return number of intersection points (0, 1 or 2)
+     */
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        Point P0 = ray.getP0();
+
+        // ray starts at center point of sphere - one point on surface in direction of ray
+        if (P0.equals(center))
+            return 1;
+
+        // same calculation as in findGeoIntersectionsHelper
+        Vector v = ray.getDir();
+        double uX = center.getX() - P0.getX();
+        double uY = center.getY() - P0.getY();
+        double uZ = center.getZ() - P0.getZ();
+        double tm = alignZero(v.getX() * uX + v.getY() * uY + v.getZ() * uZ);
+        double d = alignZero(Math.sqrt(uX * uX + uY * uY + uZ * uZ - tm * tm));
+        if (d >= radius)
+            return 0;
+
+        double th = alignZero(Math.sqrt(radius * radius - d * d));
+        double t1 = alignZero(tm - th);
+        double t2 = alignZero(tm + th);
+        boolean distanceT1 = alignZero(t1 - maxDistance) <= 0;
+        boolean distanceT2 = alignZero(t2 - maxDistance) <= 0;
+
+        if (t1 > 0 && t2 > 0 && distanceT1 && distanceT2)
+            return 2;
+        if ((t1 > 0 && distanceT1) || (t2 > 0 && distanceT2))
+            return 1;
+        return 0;
+    }
+
+    /**
+     * find the closest intersection point between ray and sphere without building a list
+     * @param ray         ray towards the sphere
+     * @param maxDistance upper boundary for distance of intersection points from ray origin
+     * @return closest intersection point, null if there are no intersections
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        Point P0 = ray.getP0();
+
+        // ray starts at center point of sphere - point on surface in direction of ray
+        if (P0.equals(center))
+            return new GeoPoint(this, ray.getPoint(radius));
+
+        // same calculation as in findGeoIntersectionsHelper
+        Vector v = ray.getDir();
+        double uX = center.getX() - P0.getX();
+        double uY = center.getY() - P0.getY();
+        double uZ = center.getZ() - P0.getZ();
+        double tm = alignZero(v.getX() * uX + v.getY() * uY + v.getZ() * uZ);
+        double d = alignZero(Math.sqrt(uX * uX + uY * uY + uZ * uZ - tm * tm));
+        if (d >= radius)
+            return null;
+
+        double th = alignZero(Math.sqrt(radius * radius - d * d));
+        // t1 is never farther than t2
+        double t1 = alignZero(tm - th);
+        if (t1 > 0 && alignZero(t1 - maxDistance) <= 0)
+            return new GeoPoint(this, ray.getPoint(t1));
+        double t2 = alignZero(tm + th);
+        if (t2 > 0 && alignZero(t2 - maxDistance) <= 0)
+            return new GeoPoint(this, ray.getPoint(t2));
+        return null;
+    }
 }
@@ -0,0 +1,30 @@
+package geometries;
+
+import primitives.*;
+
+/**
+ * surface of a geometric shape as seen by an intersection point - its emission, material and normal.
+ * {@link Geometry} keeps them in its own fields, other surfaces (e.g. the triangles of a {@link TriangleMesh})
+ * take them from the object they belong to
+ */
+public abstract class Surface extends Intersectable {
+
+    /**
+     * getter for the emission of the surface
+     * @return {@link Color} of the surface
+     */
+    public abstract Color getEmission();
+
+    /**
+     * getter for the material of the surface
+     * @return surface's {@link Material} type
+     */
+    public abstract Material getMaterial();
+
+    /**
+     * calculate the normal vector to the surface
+     * @param point point to get normal vector at
+     * @return Vector -  normal vector to surface at specified point (vector is normalized)
+     */
+    public abstract Vector getNormal(Point point);
+}
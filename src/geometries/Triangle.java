@@ -2,7 +2,6 @@ package geometries;
 
 import primitives.*;
 import static primitives.Util.*;
-import java.util.List;
 
 /**
  * Two-dimensional Triangle in a 3D Cartesian coordinate system
@@ -21,25 +20,12 @@ public class Triangle extends Polygon {
     }
 
     /**
-     * find intersection between ray and  2D triangle
-     * @param ray ray towards object
-     * @return immutable list of one intersection point as  {@link GeoPoint} object
+     * check if a ray intersecting the plane of the triangle passes inside the triangle
+     * @param ray ray towards the triangle
+     * @return true if the ray passes inside the triangle (not on its edges), otherwise false
      */
     @Override
-    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray ,double maxDistance) {
-        // check if ray intersects plane containing the triangle
-        List<GeoPoint> result = plane.findGeoIntersections(ray);
-        // no intersections
-        if (result == null)
-            return null;
-
-        //check that intersection point is closer to ray origin than
-        // max distance parameter
-        double distance = result.get(0).point.distance(ray.getP0());
-        if(alignZero(distance-maxDistance)>0)
-            return null;
-
-        // check if intersection points are in Triangle
+    protected boolean isInside(Ray ray) {
         Vector v = ray.getDir();
         Point p0 = ray.getP0();
 
@@ -48,34 +34,28 @@ public class Triangle extends Polygon {
         Point p1 = vertices.get(0);
         Point p2 = vertices.get(1);
         Point p3 = vertices.get(2);
-        Vector v1 = p1.subtract(p0);
-        Vector v2 = p2.subtract(p0);
-        Vector v3 = p3.subtract(p0);
 
         // n1,n2 ,n3 = value of dot product between ray vector
         // and the result vector of cross product between pairs
         // of vectors from ray origin and triangle vertices
         // if n1 or n2 pr m3 == 0 - intersection on border -> no intersection
+        // (calculated on raw coordinates - no allocation)
 
-        double n1 = v.dotProduct(v1.crossProduct(v2));
+        double n1 = tripleProduct(v, p0, p1, p2);
         if (isZero(n1))
-            return null;
+            return false;
 
-        double n2 = v.dotProduct(v2.crossProduct(v3));
+        double n2 = tripleProduct(v, p0, p2, p3);
         if (isZero(n2))
-            return null;
+            return false;
 
-        double n3 = v.dotProduct(v3.crossProduct(v1));
+        double n3 = tripleProduct(v, p0, p3, p1);
         if (isZero(n3))
-            return null;
-
-        // if sign of all three values ,n1 ,n2 ,n3 is not equal
-        // intersection point is not on triangle
-        if (!((n1 < 0 && n2 < 0 && n3 < 0 )||( n1 > 0 && n2 > 0 && n3 > 0)))
-            return null;
+            return false;
 
-        // ray intersects triangle
-        return List.of(new GeoPoint(this, result.get(0).point));
+        // if sign of all three values ,n1 ,n2 ,n3 is equal
+        // intersection point is on triangle
+        return (n1 < 0 && n2 < 0 && n3 < 0) || (n1 > 0 && n2 > 0 && n3 > 0);
     }
 
     @Override
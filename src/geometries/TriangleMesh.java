@@ -0,0 +1,616 @@
+package geometries;
+
+import primitives.*;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+
+import static primitives.Util.*;
+
+/**
+ * Mesh of triangles stored as flat arrays - the coordinates of the vertices in a {@code double[]}
+ * (x, y, z of each vertex), the triangles in an {@code int[]} index buffer (3 vertex indices of each triangle)
+ * and a material id of each triangle. the triangles are organized in an internal bounding volume hierarchy
+ * kept in flat arrays as well, so a mesh of many triangles takes a few arrays instead of an object per triangle.<br/>
+ * an intersection point refers to a lightweight {@link Face} surface, created for the hit, which exposes
+ * the normal, material and emission of the intersected triangle.
+ * unlike {@link Triangle}, points on the edges of a triangle are intersections, so rays do not pass
+ * through the shared edges of adjacent triangles
+ */
+public class TriangleMesh extends Intersectable {
+    /**
+     * maximal number of triangles in a leaf node of the hierarchy
+     */
+    private static final int LEAF_SIZE = 4;
+    /**
+     * margin added around the boxes of the nodes in ray intersection tests
+     */
+    private static final double DELTA = 1e-7;
+    /**
+     * per thread stack of the nodes to visit, shared by the queries of all the meshes
+     */
+    private static final ThreadLocal<int[]> STACKS = ThreadLocal.withInitial(() -> new int[64]);
+
+    /**
+     * coordinates of the vertices - x, y, z of each vertex
+     */
+    private final double[] vertices;
+    /**
+     * indices of the vertices of the triangles - 3 of each triangle
+     */
+    private final int[] indices;
+    /**
+     * material id of each triangle - index in the materials and emissions arrays, null if all the ids are 0
+     */
+    private int[] materialIds = null;
+    /**
+     * materials of the triangles by material id
+     */
+    private Material[] materials = {new Material()};
+    /**
+     * emissions of the triangles by material id
+     */
+    private Color[] emissions = {Color.BLACK};
+
+    /**
+     * boxes of the nodes of the hierarchy - min x, y, z and max x, y, z of each node
+     */
+    private double[] nodeBounds;
+    /**
+     * index of the first triangle (in the order array) of a leaf node, index of the second child of an inner node
+     * (the first child of an inner node follows it)
+     */
+    private int[] nodeStart;
+    /**
+     * number of triangles of a leaf node, 0 for an inner node
+     */
+    private int[] nodeCount;
+    /**
+     * number of nodes of the hierarchy
+     */
+    private int nodesCount = 0;
+    /**
+     * maximal number of nodes on the traversal stack - the depth of the hierarchy and one more
+     */
+    private int stackSize = 1;
+    /**
+     * triangles ordered by the leaves of the hierarchy
+     */
+    private final int[] order;
+
+    /**
+     * constructor - builds the hierarchy of the triangles.
+     * the arrays are used by the mesh and must not be changed after it is built
+     *
+     * @param vertices coordinates of the vertices - x, y, z of each vertex
+     * @param indices  indices of the vertices of the triangles - 3 of each triangle
+     * @throws IllegalArgumentException <p>if the arrays are not made of triples or an index is out of range</p>
+     */
+    public TriangleMesh(double[] vertices, int[] indices) {
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("vertices must be triples of coordinates");
+        if (indices.length % 3 != 0)
+            throw new IllegalArgumentException("triangles must be triples of vertex indices");
+        int verticesCount = vertices.length / 3;
+        for (int index : indices)
+            if (index < 0 || index >= verticesCount)
+                throw new IllegalArgumentException("vertex index out of range: " + index);
+        this.vertices = vertices;
+        this.indices = indices;
+
+        int trianglesCount = indices.length / 3;
+        order = new int[trianglesCount];
+        for (int i = 0; i < trianglesCount; ++i)
+            order[i] = i;
+        // about 2 nodes for every leaf of at least LEAF_SIZE / 2 triangles, enlarged while building if needed
+        int capacity = Math.max(1, 4 * trianglesCount / LEAF_SIZE + 1);
+        nodeBounds = new double[6 * capacity];
+        nodeStart = new int[capacity];
+        nodeCount = new int[capacity];
+        if (trianglesCount > 0)
+            buildNode(calcCentroids(), 0, trianglesCount, 0);
+        // keep only the built nodes
+        nodeBounds = Arrays.copyOf(nodeBounds, 6 * nodesCount);
+        nodeStart = Arrays.copyOf(nodeStart, nodesCount);
+        nodeCount = Arrays.copyOf(nodeCount, nodesCount);
+    }
+
+    /**
+     * setter for one material and emission of all the triangles (builder pattern style)
+     *
+     * @param material {@link Material} of the triangles
+     * @param emission {@link Color} of the triangles
+     * @return this instance of object
+     */
+    public TriangleMesh setMaterial(Material material, Color emission) {
+        return setMaterials(null, new Material[]{material}, new Color[]{emission});
+    }
+
+    /**
+     * setter for the materials and emissions of the triangles by material ids (builder pattern style)
+     *
+     * @param materialIds material id of each triangle, null for material id 0 of all the triangles
+     * @param materials   {@link Material}s by material id
+     * @param emissions   emission {@link Color}s by material id
+     * @return this instance of object
+     * @throws IllegalArgumentException <p>if the arrays do not match the triangles or a material id is out of range</p>
+     */
+    public TriangleMesh setMaterials(int[] materialIds, Material[] materials, Color[] emissions) {
+        if (materials.length == 0 || materials.length != emissions.length)
+            throw new IllegalArgumentException("every material id must have a material and an emission");
+        if (materialIds != null) {
+            if (materialIds.length != order.length)
+                throw new IllegalArgumentException("every triangle must have a material id");
+            for (int id : materialIds)
+                if (id < 0 || id >= materials.length)
+                    throw new IllegalArgumentException("material id out of range: " + id);
+        }
+        this.materialIds = materialIds;
+        this.materials = materials;
+        this.emissions = emissions;
+        return this;
+    }
+
+    /**
+     * getter for the number of triangles of the mesh
+     *
+     * @return number of triangles
+     */
+    public int getTrianglesCount() {
+        return order.length;
+    }
+
+    /**
+     * getter for the number of vertices of the mesh
+     *
+     * @return number of vertices
+     */
+    public int getVerticesCount() {
+        return vertices.length / 3;
+    }
+
+    /**
+     * calculate the centroids of the triangles
+     *
+     * @return x, y, z of the centroid of each triangle
+     */
+    private double[] calcCentroids() {
+        double[] centroids = new double[indices.length];
+        for (int i = 0; i < indices.length; i += 3) {
+            int a = 3 * indices[i], b = 3 * indices[i + 1], c = 3 * indices[i + 2];
+            for (int axis = 0; axis < 3; ++axis)
+                centroids[i + axis] = (vertices[a + axis] + vertices[b + axis] + vertices[c + axis]) / 3;
+        }
+        return centroids;
+    }
+
+    /**
+     * recursively build a node of the hierarchy - split the triangles to two halves
+     * by their centroids on the longest axis of the centroids' extent
+     *
+     * @param centroids centroids of the triangles
+     * @param first     index of the first triangle of the node in the order array
+     * @param end       index after the last triangle of the node in the order array
+     * @param depth     depth of the node in the hierarchy
+     * @return index of the node
+     */
+    private int buildNode(double[] centroids, int first, int end, int depth) {
+        int node = nodesCount++;
+        // a pending sibling of every level above the node and the node itself
+        stackSize = Math.max(stackSize, depth + 2);
+        if (node == nodeStart.length) {
+            nodeBounds = Arrays.copyOf(nodeBounds, 12 * node);
+            nodeStart = Arrays.copyOf(nodeStart, 2 * node);
+            nodeCount = Arrays.copyOf(nodeCount, 2 * node);
+        }
+
+        // box of the node's triangles and extent of their centroids
+        double[] box = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        double[] extent = box.clone();
+        for (int i = first; i < end; ++i) {
+            int triangle = order[i];
+            for (int k = 0; k < 3; ++k) {
+                int vertex = 3 * indices[3 * triangle + k];
+                for (int axis = 0; axis < 3; ++axis) {
+                    box[axis] = Math.min(box[axis], vertices[vertex + axis]);
+                    box[axis + 3] = Math.max(box[axis + 3], vertices[vertex + axis]);
+                }
+            }
+            for (int axis = 0; axis < 3; ++axis) {
+                extent[axis] = Math.min(extent[axis], centroids[3 * triangle + axis]);
+                extent[axis + 3] = Math.max(extent[axis + 3], centroids[3 * triangle + axis]);
+            }
+        }
+        System.arraycopy(box, 0, nodeBounds, 6 * node, 6);
+
+        // few triangles - leaf node
+        if (end - first <= LEAF_SIZE) {
+            nodeStart[node] = first;
+            nodeCount[node] = end - first;
+            return node;
+        }
+
+        int axis = 0;
+        for (int i = 1; i < 3; ++i)
+            if (extent[i + 3] - extent[i] > extent[axis + 3] - extent[axis])
+                axis = i;
+        int middle = (first + end) >>> 1;
+        select(centroids, axis, first, end - 1, middle);
+
+        // the first child follows the node, the index of the second child is kept in the node
+        nodeCount[node] = 0;
+        buildNode(centroids, first, middle, depth + 1);
+        int second = buildNode(centroids, middle, end, depth + 1);
+        nodeStart[node] = second;
+        return node;
+    }
+
+    /**
+     * partially sort a range of the order array, so the triangle at the k-th place has the k-th smallest centroid
+     * on an axis, with smaller (or equal) centroids before it and larger (or equal) after it (quickselect)
+     *
+     * @param centroids centroids of the triangles
+     * @param axis      axis of the centroids to order by
+     * @param left      first index of the range
+     * @param right     last index of the range
+     * @param k         index of the place to fill
+     */
+    private void select(double[] centroids, int axis, int left, int right, int k) {
+        while (left < right) {
+            double pivot = centroids[3 * order[(left + right) >>> 1] + axis];
+            int i = left, j = right;
+            while (i <= j) {
+                while (centroids[3 * order[i] + axis] < pivot) ++i;
+                while (centroids[3 * order[j] + axis] > pivot) --j;
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i++] = order[j];
+                    order[j--] = swap;
+                }
+            }
+            if (k <= j)
+                right = j;
+            else if (k >= i)
+                left = i;
+            else
+                return;
+        }
+    }
+
+    /**
+     * check if a ray passes through the box of a node closer to its origin than a distance boundary (slab method)
+     *
+     * @param node        index of the node
+     * @param ray         the ray
+     * @param maxDistance upper boundary for distance of the box from ray origin
+     * @return true if the ray passes through the box within the distance boundary, otherwise false
+     */
+    private boolean intersectsNode(int node, Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        int b = 6 * node;
+        double tMin = 0, tMax = maxDistance + DELTA;
+        for (int axis = 0; axis < 3; ++axis) {
+            double origin = axis == 0 ? p0.getX() : axis == 1 ? p0.getY() : p0.getZ();
+            double inverse = axis == 0 ? ray.getInvDirX() : axis == 1 ? ray.getInvDirY() : ray.getInvDirZ();
+            double t1 = (nodeBounds[b + axis] - DELTA - origin) * inverse;
+            double t2 = (nodeBounds[b + axis + 3] + DELTA - origin) * inverse;
+            if (t1 > t2) {
+                double swap = t1;
+                t1 = t2;
+                t2 = swap;
+            }
+            if (t1 > tMin) tMin = t1;
+            if (t2 < tMax) tMax = t2;
+            if (tMin > tMax)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * calculate the distance from ray origin to the intersection point of the ray with a triangle
+     * (Möller–Trumbore algorithm, on raw coordinates)
+     *
+     * @param triangle    index of the triangle
+     * @param ray         ray towards the triangle
+     * @param maxDistance upper boundary for distance of intersection point from ray origin
+     * @return scaling factor t of ray direction to the intersection point, 0 if there is no intersection
+     */
+    private double intersectTriangle(int triangle, Ray ray, double maxDistance) {
+        int a = 3 * indices[3 * triangle], b = 3 * indices[3 * triangle + 1], c = 3 * indices[3 * triangle + 2];
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double dX = dir.getX(), dY = dir.getY(), dZ = dir.getZ();
+
+        // edges of the triangle from its first vertex
+        double e1X = vertices[b] - vertices[a], e1Y = vertices[b + 1] - vertices[a + 1], e1Z = vertices[b + 2] - vertices[a + 2];
+        double e2X = vertices[c] - vertices[a], e2Y = vertices[c + 1] - vertices[a + 1], e2Z = vertices[c + 2] - vertices[a + 2];
+
+        // p = dir x e2, ray parallel to the triangle's plane if e1 . p == 0
+        double pX = dY * e2Z - dZ * e2Y, pY = dZ * e2X - dX * e2Z, pZ = dX * e2Y - dY * e2X;
+        double det = e1X * pX + e1Y * pY + e1Z * pZ;
+        if (isZero(det))
+            return 0;
+        double inverse = 1 / det;
+
+        // barycentric coordinates u, v of the intersection point
+        double sX = p0.getX() - vertices[a], sY = p0.getY() - vertices[a + 1], sZ = p0.getZ() - vertices[a + 2];
+        double u = (sX * pX + sY * pY + sZ * pZ) * inverse;
+        if (u < 0 || u > 1)
+            return 0;
+        double qX = sY * e1Z - sZ * e1Y, qY = sZ * e1X - sX * e1Z, qZ = sX * e1Y - sY * e1X;
+        double v = (dX * qX + dY * qY + dZ * qZ) * inverse;
+        if (v < 0 || u + v > 1)
+            return 0;
+
+        double t = alignZero((e2X * qX + e2Y * qY + e2Z * qZ) * inverse);
+        return t > 0 && alignZero(t - maxDistance) <= 0 ? t : 0;
+    }
+
+    /**
+     * get the material id of a triangle
+     *
+     * @param triangle index of the triangle
+     * @return material id
+     */
+    private int materialId(int triangle) {
+        return materialIds == null ? 0 : materialIds[triangle];
+    }
+
+    /**
+     * find intersections between ray and all the triangles of the mesh
+     *
+     * @param ray         ray towards the mesh
+     * @param maxDistance upper boundary for distance of intersection points from ray origin
+     * @return list of intersection points as {@link GeoPoint} objects, null if there are no intersections
+     */
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> result = null;
+        int[] stack = stack();
+        int size = nodesCount == 0 ? 0 : 1;
+        while (size > 0) {
+            int node = stack[--size];
+            if (!intersectsNode(node, ray, maxDistance))
+                continue;
+            if (nodeCount[node] == 0) {
+                stack[size] = nodeStart[node];
+                stack[size + 1] = node + 1;
+                size += 2;
+                continue;
+            }
+            for (int i = nodeStart[node], end = i + nodeCount[node]; i < end; ++i) {
+                double t = intersectTriangle(order[i], ray, maxDistance);
+                if (t == 0)
+                    continue;
+                if (result == null)
+                    result = new LinkedList<>();
+                result.add(new GeoPoint(new Face(this, order[i]), ray.getPoint(t)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * find the closest intersection between ray and the triangles of the mesh - the distance of the closest
+     * triangle found so far bounds the search of the rest of the hierarchy
+     *
+     * @param ray         ray towards the mesh
+     * @param maxDistance upper boundary for distance of intersection point from ray origin
+     * @return closest intersection point, null if there are no intersections
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        int closest = -1;
+        double closestT = maxDistance;
+        int[] stack = stack();
+        int size = nodesCount == 0 ? 0 : 1;
+        while (size > 0) {
+            int node = stack[--size];
+            if (!intersectsNode(node, ray, closestT))
+                continue;
+            if (nodeCount[node] == 0) {
+                stack[size] = nodeStart[node];
+                stack[size + 1] = node + 1;
+                size += 2;
+                continue;
+            }
+            for (int i = nodeStart[node], end = i + nodeCount[node]; i < end; ++i) {
+                double t = intersectTriangle(order[i], ray, closestT);
+                // keep the first of equally distant triangles
+                if (t != 0 && (closest == -1 || t < closestT)) {
+                    closest = order[i];
+                    closestT = t;
+                }
+            }
+        }
+        return closest == -1 ? null : new GeoPoint(new Face(this, closest), ray.getPoint(closestT));
+    }
+
+    /**
+     * fold the transparency of the intersected triangles into the transparency accumulated along a ray -
+     * multiply it by the kT of the material of each intersected triangle, stop at the first opaque one
+     *
+     * @param ray         ray towards the mesh
+     * @param maxDistance upper boundary for distance of intersection points from ray origin
+     * @param ktr         transparency accumulated so far along the ray
+     * @param minK        transparency lower than this value (on all colors) is considered opaque
+     * @param occluder    array to set the {@link Face} of the opaque triangle blocking the ray into, null if not needed
+     * @return accumulated transparency, {@link Double3#ZERO} if the ray is blocked
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK,
+                                             Surface[] occluder) {
+        int[] stack = stack();
+        int size = nodesCount == 0 ? 0 : 1;
+        while (size > 0) {
+            int node = stack[--size];
+            if (!intersectsNode(node, ray, maxDistance))
+                continue;
+            if (nodeCount[node] == 0) {
+                stack[size] = nodeStart[node];
+                stack[size + 1] = node + 1;
+                size += 2;
+                continue;
+            }
+            for (int i = nodeStart[node], end = i + nodeCount[node]; i < end; ++i) {
+                if (intersectTriangle(order[i], ray, maxDistance) == 0)
+                    continue;
+                Double3 kT = materials[materialId(order[i])].kT;
+                if (kT.equals(Double3.ZERO)) {
+                    if (occluder != null)
+                        occluder[0] = new Face(this, order[i]);
+                    return Double3.ZERO;
+                }
+                ktr = ktr.product(kT);
+                if (ktr.lowerThan(minK))
+                    return Double3.ZERO;
+            }
+        }
+        return ktr;
+    }
+
+    /**
+     * get the traversal stack of the thread, large enough for the hierarchy of the mesh.
+     * the stack is reused by the queries of the thread (a query does not start another query of a mesh)
+     *
+     * @return stack of nodes, its first cell is the root
+     */
+    private int[] stack() {
+        int[] stack = STACKS.get();
+        if (stack.length < stackSize) {
+            stack = new int[stackSize];
+            STACKS.set(stack);
+        }
+        stack[0] = 0;
+        return stack;
+    }
+
+    /**
+     * calculate bounding box of the mesh - the box of the root of the hierarchy
+     *
+     * @return bounding box of the mesh, {@link BoundingBox#EMPTY} if the mesh has no triangles
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        if (nodesCount == 0)
+            return BoundingBox.EMPTY;
+        return new BoundingBox(nodeBounds[0], nodeBounds[1], nodeBounds[2], nodeBounds[3], nodeBounds[4], nodeBounds[5]);
+    }
+
+    @Override
+    public String toString() {
+        return "TriangleMesh: triangles = " + order.length + ", vertices = " + vertices.length / 3;
+    }
+
+    /**
+     * a triangle of a {@link TriangleMesh} as a surface - created for an intersection with the triangle
+     * and referring to the arrays of the mesh (the material and emission of the triangle are set on the mesh)
+     */
+    public static class Face extends Surface {
+        private final TriangleMesh mesh;
+        private final int index;
+
+        /**
+         * constructor
+         *
+         * @param mesh  mesh of the triangle
+         * @param index index of the triangle in the mesh
+         */
+        Face(TriangleMesh mesh, int index) {
+            this.mesh = mesh;
+            this.index = index;
+        }
+
+        /**
+         * getter for mesh field
+         *
+         * @return {@link TriangleMesh} of the triangle
+         */
+        public TriangleMesh getMesh() {
+            return mesh;
+        }
+
+        /**
+         * getter for index field
+         *
+         * @return index of the triangle in the mesh
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public Color getEmission() {
+            return mesh.emissions[mesh.materialId(index)];
+        }
+
+        @Override
+        public Material getMaterial() {
+            return mesh.materials[mesh.materialId(index)];
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            double[] v = mesh.vertices;
+            int a = 3 * mesh.indices[3 * index], b = 3 * mesh.indices[3 * index + 1], c = 3 * mesh.indices[3 * index + 2];
+            Vector e1 = new Vector(v[b] - v[a], v[b + 1] - v[a + 1], v[b + 2] - v[a + 2]);
+            Vector e2 = new Vector(v[c] - v[a], v[c + 1] - v[a + 1], v[c + 2] - v[a + 2]);
+            return e1.crossProduct(e2).normalize();
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+            double t = mesh.intersectTriangle(index, ray, maxDistance);
+            return t == 0 ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+        }
+
+        @Override
+        protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+            double t = mesh.intersectTriangle(index, ray, maxDistance);
+            return t == 0 ? null : new GeoPoint(this, ray.getPoint(t));
+        }
+
+        @Override
+        protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK,
+                                                 Surface[] occluder) {
+            if (mesh.intersectTriangle(index, ray, maxDistance) == 0)
+                return ktr;
+            Double3 kT = getMaterial().kT;
+            if (kT.equals(Double3.ZERO)) {
+                if (occluder != null)
+                    occluder[0] = this;
+                return Double3.ZERO;
+            }
+            ktr = ktr.product(kT);
+            return ktr.lowerThan(minK) ? Double3.ZERO : ktr;
+        }
+
+        @Override
+        protected BoundingBox calcBoundingBox() {
+            double[] v = mesh.vertices;
+            int a = 3 * mesh.indices[3 * index], b = 3 * mesh.indices[3 * index + 1], c = 3 * mesh.indices[3 * index + 2];
+            return BoundingBox.of(new Point(v[a], v[a + 1], v[a + 2]), new Point(v[b], v[b + 1], v[b + 2]),
+                    new Point(v[c], v[c + 1], v[c + 2]));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            return o instanceof Face face && mesh == face.mesh && index == face.index;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(mesh), index);
+        }
+
+        @Override
+        public String toString() {
+            return "Face: triangle = " + index + " of " + mesh;
+        }
+    }
+}
@@ -80,6 +80,29 @@ public class Tube extends Geometry {
             return point.subtract(O).normalize();
     }
 
+    /**
+     * calculate bounding box of the tube - the tube is infinite,
+     * unless its axis is parallel to one of the axes - then the box is bounded by the radius on the other two axes
+     * @return bounding box of the tube
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        double inf = Double.POSITIVE_INFINITY;
+        Vector dir = _axisRay.getDir();
+        Point p = _axisRay.getP0();
+        boolean x = dir.getX() != 0, y = dir.getY() != 0, z = dir.getZ() != 0;
+        if (x && !y && !z)
+            return new BoundingBox(-inf, p.getY() - _radius, p.getZ() - _radius,
+                    inf, p.getY() + _radius, p.getZ() + _radius);
+        if (!x && y && !z)
+            return new BoundingBox(p.getX() - _radius, -inf, p.getZ() - _radius,
+                    p.getX() + _radius, inf, p.getZ() + _radius);
+        if (!x && !y && z)
+            return new BoundingBox(p.getX() - _radius, p.getY() - _radius, -inf,
+                    p.getX() + _radius, p.getY() + _radius, inf);
+        return BoundingBox.INFINITE;
+    }
+
     /**
      * find intersection points between ray and 3D tube
      * @param ray ray towards the sphere
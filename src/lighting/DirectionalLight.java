@@ -47,9 +47,6 @@ public class DirectionalLight extends Light implements LightSource {
         return direction;
     }
 
-    public List<Vector> getListL(Point p){
-        return List.of(getL(p));
-    }
     /**
      * get distance of between directional light to a given point
      * @param p point to calculate distance to
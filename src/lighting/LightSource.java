@@ -1,10 +1,13 @@
 package lighting;
 
+import geometries.BoundingBox;
 import primitives.Color;
 import primitives.Point;
 import primitives.Vector;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * interface for objects representing a light source
@@ -24,6 +27,24 @@ public interface LightSource {
      */
     public Vector getL(Point p);
 
+    /**
+     * check if the light can contribute at a given point - a point out of the influence region of the light
+     * gets a negligible intensity of it (or none at all)
+     * @param p {@link Point} to check
+     * @return true if the light may light the point, false if its intensity at the point is negligible
+     */
+    default boolean influences(Point p) {
+        return true;
+    }
+
+    /**
+     * get the axis aligned box wrapping the influence region of the light
+     * @return {@link BoundingBox} of the points the light influences, infinite for an unbounded light
+     */
+    default BoundingBox getInfluenceBox() {
+        return BoundingBox.INFINITE;
+    }
+
     /**
      * get a beam of rays from a point on a geometry towards a light,
      * all the rays are constructed within the soft shadow radius boundary
@@ -32,7 +53,38 @@ public interface LightSource {
      * @return {@link List}of rys from the geometry to the soft shadow radius
      * @author Yona Shmerla
      */
-    public List<Vector> getListL(Point p);
+    default List<Vector> getListL(Point p) {
+        List<Vector> vectors = new ArrayList<>();
+        forEachL(p, vectors::add);
+        return vectors;
+    }
+
+    /**
+     * pass the directions from samples on the light (on a disk of the soft shadow radius, facing the point)
+     * to a given point, without building a list of the directions.
+     * a light without area passes the single direction of {@link #getL(Point)}
+     *
+     * @param p      {@link Point} to get the directions to
+     * @param action consumer of the directions
+     * @return number of the directions
+     */
+    default int forEachL(Point p, Consumer<Vector> action) {
+        action.accept(getL(p));
+        return 1;
+    }
+
+    /**
+     * pass the directions from a few samples on the boundary (and the center) of the light to a given point - a cheap probe
+     * of the shadow before sampling the whole light with {@link #forEachL(Point, Consumer)}.
+     * a light without area passes the single direction of {@link #getL(Point)}
+     *
+     * @param p      {@link Point} to get the directions to
+     * @param action consumer of the directions
+     * @return number of the directions
+     */
+    default int forEachBoundaryL(Point p, Consumer<Vector> action) {
+        return forEachL(p, action);
+    }
     /**
      * get the distance between a light source to a given point
      * @param p {@link Point} to calculate distance to
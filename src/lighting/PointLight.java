@@ -1,32 +1,45 @@
 package lighting;
 
-import geometries.Sphere;
+import geometries.BoundingBox;
 import primitives.Color;
 import primitives.Double3;
 import primitives.Point;
+import primitives.SampleSequence;
 import primitives.Vector;
 
-import java.awt.image.DataBufferUShort;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 /**
  * light source object
  */
 public class PointLight extends Light implements LightSource {
+    /**
+     * number of samples on the rim of the light's disk probing the shadow
+     */
+    private static final int BOUNDARY_SAMPLES = 8;
+    /**
+     * intensity (of the strongest color component) below which the light is negligible
+     */
+    private static final double MIN_INTENSITY = 0.1;
 
     /**
      * attenuation coefficient
      */
-    private Double3 kC = Double3.ONE;
+    private double kC = 1;
     /**
      * attenuation coefficient depending on distance
      */
-    private Double3 kL = Double3.ZERO;
+    private double kL = 0;
     /**
      * attenuation coefficient depending on distance²
      */
-    private Double3 kQ = Double3.ZERO;
+    private double kQ = 0;
+
+    /**
+     * distance from the light beyond which the attenuated intensity is negligible
+     */
+    private double influenceRadius;
 
     /**
      * position {@link Point} of light source in 3D space
@@ -38,6 +51,16 @@ public class PointLight extends Light implements LightSource {
      */
     private Double radius;
 
+    /**
+     * source of the sample positions on the light for soft shadows, null for stratified random positions
+     */
+    private SampleSequence sampleSequence = null;
+
+    /**
+     * number of samples on the light for soft shadows - about the samples of the former 20x20 grid on the disk
+     */
+    private int samples = 289;
+
     /**
      * constructor
      *
@@ -47,6 +70,7 @@ public class PointLight extends Light implements LightSource {
     public PointLight(Color intensity, Point position) {
         super(intensity);
         this.position = position;
+        updateInfluenceRadius();
     }
 
     /**
@@ -60,6 +84,16 @@ public class PointLight extends Light implements LightSource {
         super(intensity);
         this.position = position;
         this.radius = radius;
+        updateInfluenceRadius();
+    }
+
+    /**
+     * getter for position field
+     *
+     * @return position {@link Point} of the light
+     */
+    public Point getPosition() {
+        return position;
     }
 
     /**
@@ -73,6 +107,31 @@ public class PointLight extends Light implements LightSource {
         return this;
     }
 
+    /**
+     * set sample sequence for soft shadows - the samples on the light's disk are the samples of the sequence
+     * (scrambled per shaded point) instead of stratified random positions
+     *
+     * @param sampleSequence source of the sample positions, null for stratified random positions
+     * @return this instance of object
+     */
+    public PointLight setSampleSequence(SampleSequence sampleSequence) {
+        this.sampleSequence = sampleSequence;
+        return this;
+    }
+
+    /**
+     * set number of samples on the light's disk for soft shadows (289 by default) - the cost of the soft shadows
+     *
+     * @param samples number of samples
+     * @return this instance of object
+     */
+    public PointLight setSamples(int samples) {
+        if (samples <= 0)
+            throw new IllegalArgumentException("number of samples must be positive");
+        this.samples = samples;
+        return this;
+    }
+
     /**
      * setter for kC field (Builder pattern style)
      *
@@ -80,7 +139,8 @@ public class PointLight extends Light implements LightSource {
      * @return this instance of object
      */
     public PointLight setkC(double kC) {
-        this.kC = new Double3(kC);
+        this.kC = kC;
+        updateInfluenceRadius();
         return this;
     }
 
@@ -91,7 +151,8 @@ public class PointLight extends Light implements LightSource {
      * @return this instance of object
      */
     public PointLight setkL(double kL) {
-        this.kL = new Double3(kL);
+        this.kL = kL;
+        updateInfluenceRadius();
         return this;
     }
 
@@ -102,7 +163,8 @@ public class PointLight extends Light implements LightSource {
      * @return this instance of object
      */
     public PointLight setkQ(double kQ) {
-        this.kQ = new Double3(kQ);
+        this.kQ = kQ;
+        updateInfluenceRadius();
         return this;
     }
 
@@ -119,7 +181,7 @@ public class PointLight extends Light implements LightSource {
         // calculate distance from light to point
         double distance = p.distance(position);
         // calculate denominator
-        Double3 factor = kC.add(kL.scale(distance)).add(kQ.scale(distance * distance));
+        Double3 factor = new Double3(kC + kL * distance + kQ * (distance * distance));
         // scale color by 1/denominator
         Color color = getIntensity().reduce(factor);
         return color;
@@ -144,41 +206,157 @@ public class PointLight extends Light implements LightSource {
     }
 
     /**
-     * get a beam of rays from a point on a geometry towards the light,
-     * all the rays are within the radius boundary
+     * get the distance from the light beyond which its attenuated intensity is negligible -
+     * the distance where I0 / (kC + kL*distance + kQ*distance²) drops below a minimal intensity
      *
-     * @param p point on the geometry
-     * @return {@link List}of rys from the geometry to the soft shadow radius
-     * @author Yona Shmerla
+     * @return influence radius, {@link Double#POSITIVE_INFINITY} if the light is not attenuated by distance
+     */
+    public double getInfluenceRadius() {
+        return influenceRadius;
+    }
+
+    /**
+     * calculate the influence radius from the intensity and the attenuation coefficients
      */
-    public List<Vector> getListL(Point p) {
+    private void updateInfluenceRadius() {
+        Color intensity = getIntensity();
+        double maxIntensity = Math.max(intensity.getRed(), Math.max(intensity.getGreen(), intensity.getBlue()));
+        // kQ*d² + kL*d + kC = I0 / MIN_INTENSITY
+        double c = kC - maxIntensity / MIN_INTENSITY;
+        if (c >= 0)
+            influenceRadius = 0;
+        else if (kQ > 0)
+            influenceRadius = (-kL + Math.sqrt(kL * kL - 4 * kQ * c)) / (2 * kQ);
+        else if (kL > 0)
+            influenceRadius = -c / kL;
+        else
+            influenceRadius = Double.POSITIVE_INFINITY;
+    }
 
-        double distance = p.subtract(position).length();
-        Sphere sphere = new Sphere(position, distance / 10);
+    @Override
+    public boolean influences(Point p) {
+        double dx = p.getX() - position.getX(), dy = p.getY() - position.getY(), dz = p.getZ() - position.getZ();
+        return dx * dx + dy * dy + dz * dz <= influenceRadius * influenceRadius;
+    }
 
-        List<Vector> vectors = new LinkedList();
-        for (double i = -radius; i < radius; i += radius / 10) {
-            for (double j = -radius; j < radius; j += radius / 10) {
-                if (i != 0 && j != 0) {
-                    Point point = position.add(new Vector(i, 0.1d, j));
-                    if (point.equals(position)) {
-                        vectors.add(p.subtract(point).normalize());
-                    } else {
-                        try {
-                            if (point.subtract(position).dotProduct(point.subtract(position)) <= radius * radius) {
-                                vectors.add(p.subtract(point).normalize());
-                            }
-                        } catch (Exception e) {
-                            vectors.add(p.subtract(point).normalize());
-                        }
+    @Override
+    public BoundingBox getInfluenceBox() {
+        if (influenceRadius == Double.POSITIVE_INFINITY)
+            return BoundingBox.INFINITE;
+        return new BoundingBox(position.getX() - influenceRadius, position.getY() - influenceRadius,
+                position.getZ() - influenceRadius, position.getX() + influenceRadius,
+                position.getY() + influenceRadius, position.getZ() + influenceRadius);
+    }
 
-                    }
-                }
+    @Override
+    public int forEachL(Point p, Consumer<Vector> action) {
+        Vector l = getL(p);
+        if (radius == null || radius == 0 || l == null) {
+            action.accept(l);
+            return 1;
+        }
 
+        // orthonormal axes of the light's disk, facing the point
+        Vector u = diskAxis(l);
+        Vector v = l.crossProduct(u);
+
+        long scramble = sampleSequence == null ? 0 : SampleSequence.scramble(p);
+        // stratification of the samples (when no sample sequence is set) - the unit square is divided to
+        // samples x samples cells, and sample k is jittered in row k and column k * step (mod samples).
+        // the step is coprime to the number of samples, so every row and every column takes one sample
+        // (for any number of samples), and about sqrt(samples) apart, so the samples are spread as in a grid
+        int step = (int) Math.round(Math.sqrt(samples));
+        while (gcd(step, samples) != 1)
+            ++step;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int k = 0; k < samples; k++) {
+            // sample in the unit square - of the sequence, or jittered in the cell k of the grid
+            double su, sv;
+            if (sampleSequence != null) {
+                su = sampleSequence.sample(scramble, k, 0);
+                sv = sampleSequence.sample(scramble, k, 1);
+            } else {
+                su = ((long) k * step % samples + random.nextDouble()) / samples;
+                sv = (k + random.nextDouble()) / samples;
+            }
+
+            // concentric mapping of the square to the disk (keeps the stratification)
+            double a = 2 * su - 1, b = 2 * sv - 1;
+            double r, angle;
+            if (a * a > b * b) {
+                r = a;
+                angle = Math.PI / 4 * (b / a);
+            } else if (b != 0) {
+                r = b;
+                angle = Math.PI / 2 - Math.PI / 4 * (a / b);
+            } else {
+                r = 0;
+                angle = 0;
             }
+            action.accept(directionFrom(p, u, v, radius * r * Math.cos(angle), radius * r * Math.sin(angle)));
+        }
+        return samples;
+    }
+
+    /**
+     * greatest common divisor of two positive numbers
+     *
+     * @param a first number
+     * @param b second number
+     * @return greatest common divisor
+     */
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    @Override
+    public int forEachBoundaryL(Point p, Consumer<Vector> action) {
+        Vector l = getL(p);
+        if (radius == null || radius == 0 || l == null) {
+            action.accept(l);
+            return 1;
         }
-        vectors.add(getL(p));
-        return vectors;
+
+        // the center and 8 samples on the rim of the light's disk, facing the point
+        Vector u = diskAxis(l);
+        Vector v = l.crossProduct(u);
+        action.accept(l);
+        for (int k = 0; k < BOUNDARY_SAMPLES; k++) {
+            double angle = 2 * Math.PI * k / BOUNDARY_SAMPLES;
+            action.accept(directionFrom(p, u, v, radius * Math.cos(angle), radius * Math.sin(angle)));
+        }
+        return BOUNDARY_SAMPLES + 1;
+    }
+
+    /**
+     * get an axis of the light's disk facing a point - perpendicular to the direction from the light to the point
+     *
+     * @param l direction from the light to the point
+     * @return unit {@link Vector} perpendicular to the direction
+     */
+    private static Vector diskAxis(Vector l) {
+        return l.crossProduct(Math.abs(l.getX()) > 0.9 ? Vector.Y_AXIS : Vector.X_AXIS).normalize();
+    }
+
+    /**
+     * get the direction from a sample on the light's disk to a point, calculated on raw coordinates
+     *
+     * @param p  {@link Point} to get the direction to
+     * @param u  first axis of the disk
+     * @param v  second axis of the disk
+     * @param du offset of the sample from the light's position along the first axis
+     * @param dv offset of the sample from the light's position along the second axis
+     * @return {@link Vector} from the sample to the point
+     */
+    private Vector directionFrom(Point p, Vector u, Vector v, double du, double dv) {
+        return new Vector(p.getX() - (position.getX() + u.getX() * du + v.getX() * dv),
+                p.getY() - (position.getY() + u.getY() * du + v.getY() * dv),
+                p.getZ() - (position.getZ() + u.getZ() * du + v.getZ() * dv)).normalize();
     }
 
     /**
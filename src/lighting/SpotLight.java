@@ -46,5 +46,18 @@ public class SpotLight extends PointLight  {
         return color.scale(factor);
     }
 
+    /**
+     * check if the spotlight can contribute at a given point - the point must be within the influence radius
+     * and in front of the light (the intensity of the points behind the light is zero)
+     * @param p {@link Point} to check
+     * @return true if the light may light the point, otherwise false
+     */
+    @Override
+    public boolean influences(Point p) {
+        Point position = getPosition();
+        return super.influences(p) && direction.getX() * (p.getX() - position.getX())
+                + direction.getY() * (p.getY() - position.getY()) + direction.getZ() * (p.getZ() - position.getZ()) > 0;
+    }
+
 
 }
@@ -15,7 +15,7 @@ public class Color {
 	 * The internal fields tx`o maintain RGB components as double numbers from 0 to
 	 * whatever...
 	 */
-	private final Double3 rgb;
+	final Double3 rgb;
 
 	/**
 	 * Black color = (0,0,0)
@@ -89,6 +89,33 @@ public class Color {
 		return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
 	}
 
+	/**
+	 * Red component getter (without upper limit)
+	 *
+	 * @return red component
+	 */
+	public double getRed() {
+		return rgb.d1;
+	}
+
+	/**
+	 * Green component getter (without upper limit)
+	 *
+	 * @return green component
+	 */
+	public double getGreen() {
+		return rgb.d2;
+	}
+
+	/**
+	 * Blue component getter (without upper limit)
+	 *
+	 * @return blue component
+	 */
+	public double getBlue() {
+		return rgb.d3;
+	}
+
 	/**
 	 * Operation of adding this and one or more other colors (by component)
 	 *
@@ -164,4 +164,12 @@ public class Double3 {
 		return d1 > k && d2 > k && d3 > k;
 	}
 
+	/**
+	 * Get the largest of the numbers
+	 * @return the maximal number
+	 */
+	public double max() {
+		return Math.max(d1, Math.max(d2, d3));
+	}
+
 }
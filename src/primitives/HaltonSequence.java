@@ -0,0 +1,43 @@
+package primitives;
+
+/**
+ * Halton low discrepancy sequence - the component d of sample k is the radical inverse of k in the
+ * d-th prime base. The sequence is scrambled by a Cranley-Patterson rotation (a shift modulo 1)
+ * computed from the seed and the dimension
+ */
+public class HaltonSequence implements SampleSequence {
+	/**
+	 * bases of the dimensions
+	 */
+	private static final int[] PRIMES = {2, 3, 5, 7, 11, 13, 17, 19};
+
+	@Override
+	public double sample(long scramble, int index, int dimension) {
+		if (dimension >= PRIMES.length)
+			throw new IllegalArgumentException("Halton sequence supports up to " + PRIMES.length + " dimensions");
+		double value = radicalInverse(index, PRIMES[dimension]);
+		// rotation in [0,1) from the upper 53 bits of the mixed seed
+		double shift = (SampleSequence.mix(scramble + dimension) >>> 11) * 0x1.0p-53;
+		value += shift;
+		return value >= 1 ? value - 1 : value;
+	}
+
+	/**
+	 * radical inverse of an index - its digits in the base mirrored around the fraction point
+	 *
+	 * @param index index of the sample
+	 * @param base  base of the digits
+	 * @return the radical inverse, in the range [0,1)
+	 */
+	static double radicalInverse(int index, int base) {
+		double inverse = 1d / base;
+		double factor = inverse;
+		double result = 0;
+		while (index > 0) {
+			result += (index % base) * factor;
+			index /= base;
+			factor *= inverse;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,19 @@
+package primitives;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * sample sequence of independent random numbers of the current thread's generator
+ * (no lock and no allocation per sample)
+ */
+public class RandomSequence implements SampleSequence {
+	@Override
+	public double sample(long scramble, int index, int dimension) {
+		return ThreadLocalRandom.current().nextDouble();
+	}
+
+	@Override
+	public boolean isLowDiscrepancy() {
+		return false;
+	}
+}
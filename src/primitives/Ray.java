@@ -22,6 +22,12 @@ public class Ray {
      */
     final private Vector dir;
 
+    /**
+     * inverse (1/d) of each of the direction's coordinates, used by ray - box intersection tests.
+     * infinite for a coordinate that equals zero
+     */
+    final private double invDirX, invDirY, invDirZ;
+
     /**
      * delta used to move a ray origin point by a small margin
      */
@@ -40,6 +46,9 @@ public class Ray {
         if (dir.xyz.equals(Double3.ZERO))
             throw new IllegalArgumentException("Vector (0,0,0) not valid");
         this.dir = dir.normalize();
+        invDirX = 1 / this.dir.xyz.d1;
+        invDirY = 1 / this.dir.xyz.d2;
+        invDirZ = 1 / this.dir.xyz.d3;
     }
 
     /**
@@ -55,6 +64,9 @@ public class Ray {
         Vector epsVector = normal.scale(normal.dotProduct(dir) >0 ? EPS : - EPS);
         this.p0=p.add(epsVector);
         this.dir = dir.normalize();
+        invDirX = 1 / this.dir.xyz.d1;
+        invDirY = 1 / this.dir.xyz.d2;
+        invDirZ = 1 / this.dir.xyz.d3;
     }
     @Override
     public boolean equals(Object o) {
@@ -90,6 +102,33 @@ public class Ray {
         return dir;
     }
 
+    /**
+     * getter for inverse of direction's X coordinate
+     *
+     * @return 1 / (X coordinate of ray direction), infinite if the coordinate is zero
+     */
+    public double getInvDirX() {
+        return invDirX;
+    }
+
+    /**
+     * getter for inverse of direction's Y coordinate
+     *
+     * @return 1 / (Y coordinate of ray direction), infinite if the coordinate is zero
+     */
+    public double getInvDirY() {
+        return invDirY;
+    }
+
+    /**
+     * getter for inverse of direction's Z coordinate
+     *
+     * @return 1 / (Z coordinate of ray direction), infinite if the coordinate is zero
+     */
+    public double getInvDirZ() {
+        return invDirZ;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(p0, dir);
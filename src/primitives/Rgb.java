@@ -0,0 +1,113 @@
+package primitives;
+
+/**
+ * Mutable accumulator of RGB components, allocation free counterpart of {@link Color} for hot loops
+ * summing many light contributions. The operations keep the order of the arithmetic operations
+ * of the matching {@link Color} operations, so the results are identical
+ */
+public class Rgb {
+	/**
+	 * red component
+	 */
+	private double r;
+	/**
+	 * green component
+	 */
+	private double g;
+	/**
+	 * blue component
+	 */
+	private double b;
+
+	/**
+	 * Constructor of black accumulator
+	 */
+	public Rgb() {
+		r = g = b = 0;
+	}
+
+	/**
+	 * set the accumulator to black
+	 *
+	 * @return the accumulator itself
+	 */
+	public Rgb reset() {
+		r = g = b = 0;
+		return this;
+	}
+
+	/**
+	 * add a color to the accumulator (as {@link Color#add(Color...)})
+	 *
+	 * @param color color to add
+	 * @return the accumulator itself
+	 */
+	public Rgb add(Color color) {
+		Double3 rgb = color.rgb;
+		r += rgb.d1;
+		g += rgb.d2;
+		b += rgb.d3;
+		return this;
+	}
+
+	/**
+	 * add another accumulator reduced by a number (as {@code add(other.reduce(k))})
+	 *
+	 * @param other accumulator to add
+	 * @param k     reduction factor
+	 * @return the accumulator itself
+	 */
+	public Rgb addReduced(Rgb other, double k) {
+		r += other.r / k;
+		g += other.g / k;
+		b += other.b / k;
+		return this;
+	}
+
+	/**
+	 * add a color scaled by an attenuation triad (as {@code add(color.scale(k))})
+	 *
+	 * @param color color to add
+	 * @param k     attenuation triad of the color
+	 * @return the accumulator itself
+	 */
+	public Rgb addScaled(Color color, Double3 k) {
+		Double3 rgb = color.rgb;
+		r += rgb.d1 * k.d1;
+		g += rgb.d2 * k.d2;
+		b += rgb.d3 * k.d3;
+		return this;
+	}
+
+	/**
+	 * add a color scaled by an attenuation triad and by a factor scaled by a number
+	 * (as {@code add(color.scale(k).scale(factor.scale(s)))})
+	 *
+	 * @param color  color to add
+	 * @param k      attenuation triad of the color
+	 * @param factor second attenuation triad of the color
+	 * @param s      scale of the second attenuation triad
+	 * @return the accumulator itself
+	 */
+	public Rgb addScaled(Color color, Double3 k, Double3 factor, double s) {
+		Double3 rgb = color.rgb;
+		r += rgb.d1 * k.d1 * (factor.d1 * s);
+		g += rgb.d2 * k.d2 * (factor.d2 * s);
+		b += rgb.d3 * k.d3 * (factor.d3 * s);
+		return this;
+	}
+
+	/**
+	 * create an immutable color with the accumulated components
+	 *
+	 * @return new {@link Color}
+	 */
+	public Color toColor() {
+		return new Color(r, g, b);
+	}
+
+	@Override
+	public String toString() {
+		return "rgb:(" + r + "," + g + "," + b + ")";
+	}
+}
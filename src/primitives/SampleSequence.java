@@ -0,0 +1,63 @@
+package primitives;
+
+/**
+ * Source of sample positions in the unit square (or cube) for the ray beams of the renderer.
+ * A sequence is scrambled by a seed (e.g. of the pixel or of the shaded point), so neighbouring
+ * pixels do not share the same pattern
+ */
+public interface SampleSequence {
+	/**
+	 * independent random samples (of the current thread's random generator)
+	 */
+	SampleSequence RANDOM = new RandomSequence();
+	/**
+	 * Halton sequence scrambled by a random rotation of the seed
+	 */
+	SampleSequence HALTON = new HaltonSequence();
+
+	/**
+	 * get a component of a sample of the sequence
+	 *
+	 * @param scramble  seed scrambling the sequence
+	 * @param index     index of the sample in the sequence
+	 * @param dimension component of the sample
+	 * @return the component, in the range [0,1)
+	 */
+	double sample(long scramble, int index, int dimension);
+
+	/**
+	 * check whether the samples of the sequence are spread evenly (every prefix of the sequence
+	 * covers the unit square), so they are used instead of a jittered grid
+	 *
+	 * @return true for a low discrepancy sequence
+	 */
+	default boolean isLowDiscrepancy() {
+		return true;
+	}
+
+	/**
+	 * seed of a point - scrambles the sequence used for the pixel or shaded point
+	 *
+	 * @param point the point
+	 * @return seed of the point
+	 */
+	static long scramble(Point point) {
+		Double3 xyz = point.xyz;
+		long seed = Double.doubleToLongBits(xyz.d1);
+		seed = mix(seed) ^ Double.doubleToLongBits(xyz.d2);
+		seed = mix(seed) ^ Double.doubleToLongBits(xyz.d3);
+		return mix(seed);
+	}
+
+	/**
+	 * mix bits of a number (SplitMix64 finalizer)
+	 *
+	 * @param value number to mix
+	 * @return mixed number
+	 */
+	static long mix(long value) {
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+		return value ^ (value >>> 31);
+	}
+}
@@ -0,0 +1,243 @@
+package renderer;
+
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static primitives.Util.alignZero;
+
+/**
+ * pixel sampler with Adaptive Anti-Aliasing - cast rays to the center and the four corners of the pixel,
+ * if a corner color does not match the center color, recursively calculate the color of the sub pixel.<br/>
+ * The centers and corners of the pixels and sub pixels are points of a lattice over the view plane.
+ * The color of every lattice point is cached (per thread and per tile), so a corner shared by
+ * neighbouring pixels or sub pixels is traced once
+ */
+public class AdaptiveSampler implements PixelSampler {
+    /**
+     * directions of the four corners (and sub pixels) in lattice units, in the order of
+     * {@link Camera#constructRayCorners(int, int, Ray, int)}
+     */
+    private static final int[] DX = {1, 1, -1, -1};
+    private static final int[] DY = {-1, 1, 1, -1};
+    /**
+     * maximal number of cached colors - the cache is cleared when it is exceeded
+     * (if the sampler is used without tiles)
+     */
+    private static final int MAX_CACHED = 1 << 16;
+
+    /**
+     * depth of division to end recursive call
+     */
+    private final int depth;
+    /**
+     * number of lattice points along a side of a pixel - the sub pixel centers of the deepest division
+     * are lattice points
+     */
+    private final int resolution;
+
+    /**
+     * colors of lattice points traced by the thread in the current tile
+     */
+    private final ThreadLocal<CornerCache> cache = ThreadLocal.withInitial(CornerCache::new);
+
+    /**
+     * colors of lattice points of a view plane, keyed by the lattice coordinates
+     */
+    private static class CornerCache {
+        private final Map<Long, Color> colors = new HashMap<>();
+        private Camera camera = null;
+        private int Nx, Ny;
+
+        /**
+         * get the colors of the view plane's lattice points, cleared if the view plane is not the cached one
+         *
+         * @param camera camera casting the rays
+         * @param Nx     number of rows in view plane
+         * @param Ny     number of columns in view plane
+         * @return cached colors
+         */
+        Map<Long, Color> colors(Camera camera, int Nx, int Ny) {
+            if (this.camera != camera || this.Nx != Nx || this.Ny != Ny || colors.size() > MAX_CACHED) {
+                colors.clear();
+                this.camera = camera;
+                this.Nx = Nx;
+                this.Ny = Ny;
+            }
+            return colors;
+        }
+    }
+
+    /**
+     * constructor
+     *
+     * @param depth depth of division to end recursive call
+     */
+    public AdaptiveSampler(int depth) {
+        this.depth = depth;
+        resolution = 2 * Integer.highestOneBit(Math.max(depth, 2));
+    }
+
+    @Override
+    public void startTile() {
+        cache.get().colors.clear();
+    }
+
+    /**
+     * get the color of a lattice point - trace the ray if the point is not cached
+     *
+     * @param colors cached colors
+     * @param x      column of the lattice point
+     * @param y      row of the lattice point
+     * @param ray    ray through the lattice point
+     * @param tracer color of a ray cast from the camera
+     * @return color of the lattice point
+     */
+    private Color trace(Map<Long, Color> colors, int x, int y, Ray ray, Function<Ray, Color> tracer) {
+        Long key = (long) y << 32 | (x & 0xFFFFFFFFL);
+        Color color = colors.get(key);
+        if (color == null) {
+            color = tracer.apply(ray);
+            colors.put(key, color);
+        }
+        return color;
+    }
+
+    @Override
+    public Color samplePixel(Camera camera, int Nx, int Ny, int j, int i, Function<Ray, Color> tracer) {
+        Map<Long, Color> colors = cache.get().colors(camera, Nx, Ny);
+        int size = 2;
+        // lattice coordinates of the center of the pixel, and offset of its corners
+        int x = j * resolution + resolution / 2, y = i * resolution + resolution / 2;
+        int offset = resolution / size;
+        // construct ray through pixel
+        Ray ray = camera.constructRay(Nx, Ny, j, i);
+        Point center = ray.getPoint(camera.getDistance());
+        //construct four rays to the corners of the pixel
+        //function returns list with rays sorted from top left corner to bottom left, clockwise.
+        var rayBeam = camera.constructRayCorners(Nx, Ny, ray, size);
+
+        // calculate  color of pixel , if the corner color matches the center , add the color,
+        // else recursively  calculate the subpixel which corner color does not match
+        // ray towards center color
+        Color color = trace(colors, x, y, ray, tracer);
+        Color matchColor = color;
+        int k = 0; //index of ray in the list
+        for (var r : rayBeam) {
+            int cornerX = x + DX[k] * offset, cornerY = y + DY[k] * offset;
+            Color cornerColor = trace(colors, cornerX, cornerY, r, tracer);
+            if (color.equals(matchColor))
+                color = color.add(cornerColor);
+            // corner color does not match
+            else {
+                // get the center point of the subpixel
+                Point subPixelCenter = getSubPixelCenter(camera, k, Nx, Ny, size * 2, center);
+                //call recursive function to calculate color of subpixel
+                color = color.add(sampleSubPixel(camera, Nx, Ny, subPixelCenter, r, size * 2, tracer, colors,
+                        x + DX[k] * offset / 2, y + DY[k] * offset / 2, cornerX, cornerY));
+            }
+            k++;
+        }
+        //get avg color of pixel between all the samples
+        return color.reduce(rayBeam.size() + 1);
+    }
+
+    /**
+     * recursive function to calculate color of a subpixel
+     *
+     * @param camera      camera casting the rays
+     * @param Nx          number of rows in view plane
+     * @param Ny          number of columns in view plane
+     * @param center      center point of subpixel
+     * @param rayToCorner ray constructed from camera to one of corners of the pixel (depending on location of subpixel)
+     * @param size        size of division of pixel at current level of recursion
+     * @param tracer      color of a ray cast from the camera
+     * @param colors      cached colors of lattice points
+     * @param x           lattice column of the center of the subpixel
+     * @param y           lattice row of the center of the subpixel
+     * @param cornerX     lattice column of the corner of the pixel
+     * @param cornerY     lattice row of the corner of the pixel
+     * @return color of the subpixel
+     */
+    private Color sampleSubPixel(Camera camera, int Nx, int Ny, Point center, Ray rayToCorner, int size,
+                                 Function<Ray, Color> tracer, Map<Long, Color> colors,
+                                 int x, int y, int cornerX, int cornerY) {
+
+        //if division size is smaller or equal to recursion depth limit , continue to calculate subpixel color
+        if (size <= depth) {
+            //ray from camera to center of subpixel
+            Point p0 = camera.getP0();
+            Vector camToSubPixel = center.subtract(p0);
+            Ray ray = new Ray(p0, camToSubPixel);
+            Color color = trace(colors, x, y, ray, tracer);
+            Color matchColor = color;
+            int offset = resolution / size;
+            //construct four rays to the four corners of the subpixel
+            var cornersBeam = camera.constructRayCorners(Nx, Ny, ray, size);
+
+            //if color of the corners matches , ad rhe color, otherwise ,recursively calculate
+            //the color of the mismatching corner subpixel
+
+            int k = 0;
+            for (var r : cornersBeam) {
+                int subCornerX = x + DX[k] * offset, subCornerY = y + DY[k] * offset;
+                Color cornerColor = trace(colors, subCornerX, subCornerY, r, tracer);
+                if (color.equals(matchColor))
+                    color = color.add(cornerColor);
+                else {
+                    // get the center point of the sub pixel
+                    Point subPixelCenter = getSubPixelCenter(camera, k, Nx, Ny, size * 2, center);
+                    // recursively calculate color , doubling division of pixel by two for every level of recursive call
+                    color = color.add(sampleSubPixel(camera, Nx, Ny, subPixelCenter, r, size * 2, tracer, colors,
+                            x + DX[k] * offset / 2, y + DY[k] * offset / 2, subCornerX, subCornerY));
+                }
+                k++;
+            }
+            //return the color of the subpixel
+            return color.reduce(cornersBeam.size() + 1);
+
+            // recursion depth is reached , return the color of the corner of the subpixel
+        } else {
+            return trace(colors, cornerX, cornerY, rayToCorner, tracer);
+        }
+    }
+
+    /**
+     * given a pixel and an index get the center point of  subpixel
+     * indexes run from top left corner to bottom left, clockwise
+     *
+     * @param camera camera casting the rays
+     * @param k      index of subpixel
+     * @param Nx     number of rows in view plane
+     * @param Ny     number of columns in view plane
+     * @param size   size of division of pixel
+     * @param center center point of current pixel/subpixel
+     * @return center point of the subpixel
+     */
+    private Point getSubPixelCenter(Camera camera, int k, int Nx, int Ny, int size, Point center) {
+
+        //calculate scaling factors with division size parameter
+        double Rx = alignZero(((double) camera.getWidth() / Nx) / size);
+        double Ry = alignZero(((double) camera.getHeight() / Ny) / size);
+        Vector vUp = camera.getvUp();
+        Vector vRight = camera.getvRight();
+        Point p = center;
+
+        switch (k) {
+            case 0: // top left corner subpixel
+                return p.add(vUp.scale(Ry)).add(vRight.scale(Rx));
+            case 1: //top right corner subpixel
+                return p.add(vUp.scale(-Ry)).add(vRight.scale(Rx));
+            case 2: // bottom right corner subpixel
+                return p.add(vUp.scale(-Ry)).add(vRight.scale(-Rx));
+            case 3: // bottom left corner subpixel
+                return p.add(vUp.scale(Ry)).add(vRight.scale(-Rx));
+        }
+        return null;
+    }
+}
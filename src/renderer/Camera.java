@@ -2,11 +2,14 @@ package renderer;
 
 import primitives.*;
 
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.MissingResourceException;
-import java.util.Random;
-import java.util.stream.IntStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
@@ -66,6 +69,15 @@ public class Camera {
      * first parameter for number of random ray to cast for random beam anti aliasing
      */
     private int m;
+    /**
+     * maximal half width of the confidence interval of the pixel colors for random beam anti aliasing,
+     * 0 to cast the whole beam
+     */
+    private double varianceThreshold;
+    /**
+     * source of the sample positions of the random beams and of the aperture beams
+     */
+    private SampleSequence sampleSequence;
 
     /**
      * depth of recursion for adaptive anti-aliasing
@@ -93,10 +105,25 @@ public class Camera {
      */
     private double apertureRadius;
 
+    /**
+     * number of rows in the grid of the aperture, 0 if DOF replaces the anti aliasing method
+     */
+    private int apertureN;
+
+    /**
+     * number of columns in the grid of the aperture, 0 if DOF replaces the anti aliasing method
+     */
+    private int apertureM;
+
     /**
      * determine if DOF functionality is used in image rendering
      */
     boolean useDOF;
+
+    /**
+     * calculates the color of each pixel from the rays cast through it
+     */
+    private PixelSampler pixelSampler;
     //endregion
 
     //region threads functionality
@@ -112,6 +139,26 @@ public class Camera {
      *  print interval in seconds
      */
     private double printInterval ;
+    /**
+     * width and height in pixels of the tiles handed out to rendering threads
+     */
+    private int tileSize;
+    /**
+     * order in which the tiles are rendered
+     */
+    private TileOrder tileOrder;
+    /**
+     * fork join pool rendering the image, null if threads count setting is used
+     */
+    private ForkJoinPool forkJoinPool;
+    /**
+     * wall-clock time budget in seconds for progressive rendering, 0 for no budget
+     */
+    private double timeBudget;
+    /**
+     * checkpoint file of the render, null if the render is not checkpointed
+     */
+    private Path checkpoint;
     //endregion
 
     /**
@@ -131,14 +178,47 @@ public class Camera {
         antiAliasing = camBuilder.antiAliasing;
         n = camBuilder.n;
         m = camBuilder.m;
+        varianceThreshold = camBuilder.varianceThreshold;
+        sampleSequence = camBuilder.sampleSequence;
         recurseDepth = camBuilder.recurseDepth;
         imageWriter = camBuilder.imageWriter;
         rayTracer = camBuilder.rayTracer;
         dof = camBuilder.dof;
         apertureRadius = camBuilder.apertureRadius;
+        apertureN = camBuilder.apertureN;
+        apertureM = camBuilder.apertureM;
         useDOF = camBuilder.useDOF;
         threadsCount = camBuilder.threadsCount;
         printInterval = camBuilder.printInterval;
+        tileSize = camBuilder.tileSize;
+        tileOrder = camBuilder.tileOrder;
+        forkJoinPool = camBuilder.forkJoinPool;
+        timeBudget = camBuilder.timeBudget;
+        checkpoint = camBuilder.checkpoint;
+        pixelSampler = camBuilder.pixelSampler != null ? camBuilder.pixelSampler : createPixelSampler();
+    }
+
+    /**
+     * create the pixel sampler matching the Anti-Aliasing method and DOF settings of the camera
+     *
+     * @return new {@link PixelSampler}
+     */
+    private PixelSampler createPixelSampler() {
+        // without aperture samples of its own, DOF replaces the Anti-Aliasing method
+        if (useDOF && apertureN == 0)
+            return new DepthOfFieldSampler(new CenterSampler(), n, m);
+        PixelSampler sampler = switch (antiAliasing) {
+            // no method used - cast single ray to center of pixel
+            case NONE -> new CenterSampler();
+            // bean of random rays cast for each pixel besides the ray towards the center
+            // (stopping when the pixel color converged, if a variance threshold is set)
+            case RANDOM -> varianceThreshold > 0 ? new VarianceSampler(n, m, varianceThreshold) : new RandomSampler(n, m);
+            // four rays cast to four corners of pixel besides the ray towards the center
+            case CORNERS -> new CornersSampler();
+            case ADAPTIVE -> new AdaptiveSampler(recurseDepth);
+        };
+        // every ray of the Anti-Aliasing method is cast through the aperture
+        return useDOF ? new DepthOfFieldSampler(sampler, apertureN, apertureM) : sampler;
     }
 
 
@@ -209,6 +289,17 @@ public class Camera {
          */
         private int m;
 
+        /**
+         * maximal half width of the confidence interval of the pixel colors for random beam anti aliasing,
+         * 0 to cast the whole beam
+         */
+        private double varianceThreshold = 0;
+
+        /**
+         * source of the sample positions of the random beams and of the aperture beams
+         */
+        private SampleSequence sampleSequence = SampleSequence.RANDOM;
+
         /**
          * depth of recursion for adaptive anti-aliasing
          */
@@ -226,6 +317,16 @@ public class Camera {
          */
         private double apertureRadius;
 
+        /**
+         * number of rows in the grid of the aperture, 0 if DOF replaces the anti aliasing method
+         */
+        private int apertureN = 0;
+
+        /**
+         * number of columns in the grid of the aperture, 0 if DOF replaces the anti aliasing method
+         */
+        private int apertureM = 0;
+
         /**
          * determine if DOF functionality is used in image rendering
          */
@@ -243,6 +344,30 @@ public class Camera {
          *  print interval in seconds
          */
         private double printInterval =0l ;
+        /**
+         * width and height in pixels of the tiles handed out to rendering threads
+         */
+        private int tileSize = 16;
+        /**
+         * order in which the tiles are rendered
+         */
+        private TileOrder tileOrder = TileOrder.SCANLINE;
+        /**
+         * fork join pool rendering the image, null if threads count setting is used
+         */
+        private ForkJoinPool forkJoinPool = null;
+        /**
+         * calculates the color of each pixel, null to use the Anti-Aliasing method and DOF settings
+         */
+        private PixelSampler pixelSampler = null;
+        /**
+         * wall-clock time budget in seconds for progressive rendering, 0 for no budget
+         */
+        private double timeBudget = 0;
+        /**
+         * checkpoint file of the render, null if the render is not checkpointed
+         */
+        private Path checkpoint = null;
 
 
 
@@ -333,6 +458,35 @@ public class Camera {
             return this;
         }
 
+        /**
+         * setter for the variance threshold of random beam anti aliasing - the rays of the beam are cast until
+         * the 95% confidence interval of every color component of the pixel is narrower than the threshold
+         * (or the whole n*m beam is cast)
+         *
+         * @param threshold maximal half width of the confidence interval (in color units), 0 to cast the whole beam
+         * @return this {@link CameraBuilder} instance
+         */
+        public CameraBuilder setVarianceThreshold(double threshold) {
+            if (threshold < 0)
+                throw new IllegalArgumentException("variance threshold must not be negative");
+            this.varianceThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * setter for the source of the sample positions of the random beams and of the aperture beams -
+         * {@link SampleSequence#RANDOM} (the default) jitters the rays in the cells of the grids, a low discrepancy
+         * sequence (e.g. {@link SampleSequence#HALTON}, scrambled per pixel) spreads the rays over the pixel and
+         * over the aperture disk
+         *
+         * @param sampleSequence source of the sample positions
+         * @return this {@link CameraBuilder} instance
+         */
+        public CameraBuilder setSampleSequence(SampleSequence sampleSequence) {
+            this.sampleSequence = sampleSequence;
+            return this;
+        }
+
         /**
          * setter for recursive depth field
          *
@@ -388,6 +542,23 @@ public class Camera {
             return this;
         }
 
+        /**
+         * setter for the grid of rays cast through the aperture for every ray of the anti aliasing method -
+         * without it, DOF replaces the anti aliasing method and n*m rays are cast through the aperture
+         * for the ray to the center of the pixel
+         *
+         * @param n number of rows in the grid of the aperture
+         * @param m number of columns in the grid of the aperture
+         * @return this {@link CameraBuilder} instance
+         */
+        public CameraBuilder setApertureSamples(int n, int m) {
+            if (n <= 0 || m <= 0)
+                throw new IllegalArgumentException("aperture grid must have at least one row and one column");
+            this.apertureN = n;
+            this.apertureM = m;
+            return this;
+        }
+
         /**
          * setter for use DOF field
          *
@@ -429,6 +600,82 @@ public class Camera {
             return this;
         }
 
+        /**
+         * set size of the tiles the view plane is split into for rendering
+         *
+         * @param tileSize width and height of a tile in pixels
+         * @return this {@link CameraBuilder} instance
+         */
+        public CameraBuilder setTileSize(int tileSize) {
+            if (tileSize <= 0)
+                throw new IllegalArgumentException("tile size must be positive");
+            this.tileSize = tileSize;
+            return this;
+        }
+
+        /**
+         * set order in which the tiles of the view plane are rendered
+         *
+         * @param tileOrder {@link TileOrder} of the tiles
+         * @return this {@link CameraBuilder} instance
+         */
+        public CameraBuilder setTileOrder(TileOrder tileOrder) {
+            this.tileOrder = tileOrder;
+            return this;
+        }
+
+        /**
+         * set a fork join pool to render the image - the view plane is recursively split into regions
+         * and idle workers of the pool steal the expensive ones. the pool may be shared between renders,
+         * when it is set the multithreading setting is not used
+         *
+         * @param pool fork join pool, null to render according to the multithreading setting
+         * @return this {@link CameraBuilder} instance
+         */
+        public CameraBuilder setForkJoinPool(ForkJoinPool pool) {
+            this.forkJoinPool = pool;
+            return this;
+        }
+
+        /**
+         * set the pixel sampler calculating the color of each pixel - overrides the Anti-Aliasing method
+         * and DOF settings, allows to compose samplers (e.g. adaptive Anti-Aliasing with DOF)
+         *
+         * @param pixelSampler {@link PixelSampler} to use, null to use the Anti-Aliasing method and DOF settings
+         * @return this {@link CameraBuilder} instance
+         */
+        public CameraBuilder setPixelSampler(PixelSampler pixelSampler) {
+            this.pixelSampler = pixelSampler;
+            return this;
+        }
+
+        /**
+         * set wall-clock time budget of progressive rendering - no pass is started after the budget is over,
+         * and a pass in progress stops sampling (the first pass is always completed)
+         *
+         * @param seconds time budget in seconds, 0 for no budget
+         * @return this {@link CameraBuilder} instance
+         */
+        public CameraBuilder setTimeBudget(double seconds) {
+            if (seconds < 0)
+                throw new IllegalArgumentException("time budget must not be negative");
+            this.timeBudget = seconds;
+            return this;
+        }
+
+        /**
+         * set checkpoint file of the render - finished regions are appended to it while rendering,
+         * and a render with an existing checkpoint file of the same image size resumes from it.
+         * the file is deleted when the render completes
+         *
+         * @param checkpoint checkpoint file, null if the render is not checkpointed
+         * @return this {@link CameraBuilder} instance
+         */
+        public CameraBuilder setCheckpoint(Path checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
         /**
          * Builder pattern - build function - creates new camera
          * using this instance of {@link CameraBuilder}
@@ -554,6 +801,15 @@ public class Camera {
         return useDOF;
     }
 
+    /**
+     * getter for pixelSampler field
+     *
+     * @return pixel sampler calculating the color of each pixel
+     */
+    public PixelSampler getPixelSampler() {
+        return pixelSampler;
+    }
+
     //endregion
 
     //region Image Writing functionalities
@@ -589,6 +845,40 @@ public class Camera {
 
 
 
+    /**
+     * organize scene geometries as a bounding volume hierarchy (if BVH mode is set),
+     * calculate their bounding boxes and index the lights before any of the rendering threads starts to intersect them
+     */
+    void prepareScene() {
+        if (rayTracer == null)
+            throw new MissingResourceException("ray tracer is not initialized", RayTracer.class.getName(), "");
+        rayTracer.scene.getGeometries().buildBVH();
+        rayTracer.scene.getGeometries().getBoundingBox();
+        rayTracer.scene.buildLightIndex();
+    }
+
+    /**
+     * notify the pixel sampler of the camera that the pixels of a new tile are going to be rendered
+     * by the calling thread
+     */
+    void startTile() {
+        pixelSampler.startTile();
+    }
+
+    /**
+     * calculate color of a single pixel of the view plane with the pixel sampler of the camera
+     * (the scene must be prepared by {@link #prepareScene()})
+     *
+     * @param nX number of rows in the view Plane
+     * @param nY number of columns in the view plane
+     * @param j  column index of pixel
+     * @param i  row index of pixel
+     * @return color of the pixel
+     */
+    Color renderPixel(int nX, int nY, int j, int i) {
+        return pixelSampler.samplePixel(this, nX, nY, j, i, rayTracer::traceRay);
+    }
+
     /**
      * render image "captured" through view plane
      */
@@ -603,218 +893,130 @@ public class Camera {
         int nX = imageWriter.getNx();
         int nY = imageWriter.getNy();
 
-        //initialize thread progress reporter
-        Pixel.initialize(nY, nX, printInterval);
-
-        // for each pixel (i,j) , construct  ray/rays from camera through pixel,
-        // functions use rayTracer object to get correct color, then use imageWriter to write pixel to the file
+        prepareScene();
 
-        if (isUseDOF()) {
-           renderImageDOF(nX,nY);
-        }
-        //cast ray according to Anti-Aliasing method set to Camera
-        else {
-            switch (getAntiAliasing()) {
-                // no method used - cast single ray to center of pixel
-                case NONE -> {
-                    renderImageAntiAliasingNone(nX,nY);
-                }
-                // bean of random rays cast for each pixel besides the ray towards the center
-                case RANDOM -> {
-                    renderImageAntiAliasingRandom(nX,nY);
-                }
-                // four rays cast to four corners of pixel besides the ray towards the center
-                case CORNERS -> {
-                    renderImageAntiAliasingCorners(nX,nY);
-                }
-                case ADAPTIVE -> {
-                    renderImageAntiAliasingAdaptive(nX,nY);
-                }
-            }
+        // for each pixel (i,j) , the pixel sampler constructs ray/rays from camera through pixel,
+        // and uses rayTracer object to get correct color, then imageWriter writes pixel to the file
+        Function<Ray, Color> tracer = rayTracer::traceRay;
+        TileScheduler.PixelTask task = TileScheduler.PixelTask.of(
+                (j, i) -> imageWriter.writePixel(j, i, pixelSampler.samplePixel(this, nX, nY, j, i, tracer)),
+                pixelSampler::startTile);
+        if (checkpoint == null) {
+            renderTiles(nX, nY, task, null);
+            return;
         }
-    }
 
-    /**
-     * render image using DOF improvement with support of multi threading
-     * @param nX number of rows in the view Plane
-     * @param nY number of columns in the view plane
-     */
-    private void renderImageDOF(int nX,int nY)
-    {
-        if (threadsCount == 0) {
-            for (int i = 0; i < nY; ++i)
-                for (int j = 0; j < nX; ++j) {
-                    castRayDOF(nX, nY, i, j, n, m);
-                    Pixel.pixelDone();
-                    Pixel.printPixel();
-                }
-        } else if (threadsCount == -1) {
-            IntStream.range(0, nY).parallel().forEach(i -> IntStream.range(0, nX).parallel().forEach(j -> {
-                castRayDOF(nX, nY, i, j, n, m);
-                Pixel.pixelDone();
-                Pixel.printPixel();
-            }));
-        } else {
-            while (threadsCount-- > 0) {
-                new Thread(() -> {
-                    for (Pixel pixel = new Pixel(); pixel.nextPixel(); Pixel.pixelDone())
-                        castRayDOF(nX, nY, pixel.col, pixel.row, n, m);
-                }).start();
-            }
-            Pixel.waitToFinish();
+        // resume from the checkpoint file, and keep it only if the render does not complete
+        Checkpoint regions = new Checkpoint(checkpoint, imageWriter, fingerprint());
+        boolean completed = false;
+        try {
+            // the checkpoint is deleted only if every tile was rendered
+            completed = renderTiles(nX, nY, task, regions);
+            if (!completed)
+                throw new IllegalStateException("render did not complete - checkpoint " + checkpoint + " kept");
+        } finally {
+            if (completed)
+                regions.complete();
+            else
+                regions.close();
         }
     }
+
     /**
-     * render image using No improvement with support of multi threading
-     * (the fastest runtime - image has the lowest resolution)
-     * @param nX number of rows in the view Plane
-     * @param nY number of columns in the view plane
+     * calculate a fingerprint of the render settings - position and orientation of the camera, view plane,
+     * sampling settings, recursion depth and scene name - to match a checkpoint file with its render.
+     * a custom pixel sampler counts by its class, unless it is a lambda (whose class differs between runs)
+     *
+     * @return 64 bit hash of the render settings
      */
-    private void renderImageAntiAliasingNone(int nX, int nY)
-    {
-        if (threadsCount == 0) {
-            for (int i = 0; i < nY; ++i)
-                for (int j = 0; j < nX; ++j) {
-                    castRay(nX, nY, j, i);
-                    Pixel.pixelDone();
-                    Pixel.printPixel();
-                }
-        } else if (threadsCount == -1) {
-            IntStream.range(0, nY).parallel().forEach(i -> IntStream.range(0, nX).parallel().forEach(j -> {
-                castRay(nX, nY, j, i);
-                Pixel.pixelDone();
-                Pixel.printPixel();
-            }));
-        } else {
-            while (threadsCount-- > 0) {
-                new Thread(() -> {
-                    for (Pixel pixel = new Pixel(); pixel.nextPixel(); Pixel.pixelDone())
-                        castRay(nX, nY, pixel.col, pixel.row);
-                }).start();
-            }
-            Pixel.waitToFinish();
-        }
+    private long fingerprint() {
+        Class<?> sampler = pixelSampler.getClass();
+        String settings = Arrays.asList(p0, vTo, vUp, distance, width, height, antiAliasing, n, m, varianceThreshold,
+                sampleSequence == null ? null : sampleSequence.getClass().getName(), recurseDepth, useDOF, dof,
+                apertureRadius, apertureN, apertureM, sampler.isHidden() ? null : sampler.getName(),
+                rayTracer.scene.getName()).toString();
+        long hash = 1125899906842597L;
+        for (int k = 0; k < settings.length(); ++k)
+            hash = 31 * hash + settings.charAt(k);
+        return hash;
     }
 
     /**
-     * render image using Random method Anti aliasing improvement with support of multi threading
-     * (the slowest runtime - image has high resolution)
-     * @param nX number of rows in the view Plane
-     * @param nY number of columns in the view plane
+     * render image "captured" through view plane progressively - passes of growing grids of random rays
+     * (a single ray to the center of the pixel, then 2x2, 4x4 ... up to the n*m grid of
+     * {@link #constructRayBeam(int, int, int, int, Ray)}) are accumulated in the image writer,
+     * and the image is written after every pass. rendering stops after the n*m pass or when the
+     * time budget is over, so the image is the best one reached within the budget.
+     * with DOF, every ray is cast through the aperture grid of {@link CameraBuilder#setApertureSamples(int, int)},
+     * or DOF replaces the passes by a single pass of n*m rays through the aperture if it is not set
      */
-    private void renderImageAntiAliasingRandom(int nX,int nY)
-    {
-        if (threadsCount == 0) {
-            for (int i = 0; i < nY; ++i)
-                for (int j = 0; j < nX; ++j) {
-                    castRayBeamRandom(nX, nY, i, j, n, m);
-                    Pixel.pixelDone();
-                    Pixel.printPixel();
-                }
-        } else if (threadsCount == -1) {
-            IntStream.range(0, nY).parallel().forEach(i -> IntStream.range(0, nX).parallel().forEach(j -> {
-                castRayBeamRandom(nX, nY, i, j, n, m);
-                Pixel.pixelDone();
-                Pixel.printPixel();
-            }));
-        } else {
-            while (threadsCount-- > 0) {
-                new Thread(() -> {
-                    for (Pixel pixel = new Pixel(); pixel.nextPixel(); Pixel.pixelDone())
-                        castRayBeamRandom(nX, nY, pixel.col, pixel.row, n, m);
-                }).start();
-            }
-            Pixel.waitToFinish();
-        }
+    public void renderProgressive() {
+        // check that image, writing and rendering objects are instantiated
+        if (imageWriter == null)
+            throw new MissingResourceException("image writer is not initialized", ImageWriter.class.getName(), "");
 
-    }
+        if (rayTracer == null)
+            throw new MissingResourceException("ray tracer is not initialized", RayTracer.class.getName(), "");
 
-    /**
-     * render image using Corner method Anti aliasing improvement with support of multi threading
-     * (medium runtime - image has medium resolution)
-     * @param nX number of rows in the view Plane
-     * @param nY number of columns in the view plane
-     */
-    private void renderImageAntiAliasingCorners(int nX, int nY)
-    {
-        if (threadsCount == 0) {
-            for (int i = 0; i < nY; ++i)
-                for (int j = 0; j < nX; ++j) {
-                    castRayBeamCorners(nX, nY, i, j);
-                    Pixel.pixelDone();
-                    Pixel.printPixel();
-                }
-        } else if (threadsCount == -1) {
-            IntStream.range(0, nY).parallel().forEach(i -> IntStream.range(0, nX).parallel().forEach(j -> {
-                castRayBeamCorners(nX, nY, i, j);
-                Pixel.pixelDone();
-                Pixel.printPixel();
-            }));
-        } else {
-            while (threadsCount-- > 0) {
-                new Thread(() -> {
-                    for (Pixel pixel = new Pixel(); pixel.nextPixel(); Pixel.pixelDone())
-                        castRayBeamCorners(nX, nY,pixel.col, pixel.row);
-                }).start();
-            }
-            Pixel.waitToFinish();
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        long deadline = timeBudget == 0 ? Long.MAX_VALUE : System.nanoTime() + (long) (timeBudget * 1e9);
+
+        prepareScene();
+
+        Function<Ray, Color> tracer = rayTracer::traceRay;
+        // without aperture samples of its own, DOF replaces the passes
+        boolean dofOnly = useDOF && apertureN == 0;
+        int rows = dofOnly ? 1 : Math.max(n, 1), columns = dofOnly ? 1 : Math.max(m, 1);
+        for (int size = 1; ; size *= 2) {
+            // grid of the pass, limited by the n*m grid
+            int passRows = Math.min(size, rows), passColumns = Math.min(size, columns);
+            PixelSampler sampler = passRows * passColumns == 1 ? new CenterSampler() : new RandomSampler(passRows, passColumns);
+            PixelSampler passSampler = dofOnly ? new DepthOfFieldSampler(sampler, n, m)
+                    : useDOF ? new DepthOfFieldSampler(sampler, apertureN, apertureM) : sampler;
+            boolean firstPass = size == 1;
+
+            // every pixel accumulates the sum of its rays' colors, weighted by the number of traced rays
+            renderTiles(nX, nY, TileScheduler.PixelTask.of((j, i) -> {
+                if (!firstPass && System.nanoTime() > deadline)
+                    return;
+                int[] count = {0};
+                Color color = passSampler.samplePixel(this, nX, nY, j, i, ray -> {
+                    ++count[0];
+                    return tracer.apply(ray);
+                });
+                imageWriter.accumulatePixel(j, i, color.scale(count[0]), count[0]);
+            }, passSampler::startTile), null);
+            // intermediate image of the pass
+            imageWriter.writeToImage();
+
+            if ((passRows == rows && passColumns == columns) || System.nanoTime() > deadline)
+                return;
         }
     }
 
     /**
-     * render image using Adaptive Anti-Aliasing method improvement with support of multi threading
-     * ( most optimal runtime for high resolution - image has high resolution)
+     * render all pixels of the view plane tile by tile, according to the threads (or fork join pool),
+     * tile size and tile order settings of the camera
      * @param nX number of rows in the view Plane
      * @param nY number of columns in the view plane
+     * @param task rendering of a single pixel (column, row)
+     * @param checkpoint checkpoint of the render, null if it is not used
+     * @return true if every tile was rendered
      */
-    private void renderImageAntiAliasingAdaptive(int nX, int nY)
-    {
-        int depth = getRecurseDepth();
-        if (threadsCount == 0) {
-            for (int i = 0; i < nY; ++i)
-                for (int j = 0; j < nX; ++j) {
-                    castRayAdaptive(nX, nY, i, j, 2, depth);
-                    Pixel.pixelDone();
-                    Pixel.printPixel();
-                }
-        } else if (threadsCount == -1) {
-            IntStream.range(0, nY).parallel().forEach(i -> IntStream.range(0, nX).parallel().forEach(j -> {
-                castRayAdaptive(nX, nY, i, j, 2, depth);
-                Pixel.pixelDone();
-                Pixel.printPixel();
-            }));
-        } else {
-            while (threadsCount-- > 0) {
-                new Thread(() -> {
-                    for (Pixel pixel = new Pixel(); pixel.nextPixel(); Pixel.pixelDone())
-                        castRayAdaptive(nX, nY, pixel.col, pixel.row, 2, depth);
-                }).start();
-            }
-            Pixel.waitToFinish();
-        }
+    private boolean renderTiles(int nX, int nY, TileScheduler.PixelTask task, Checkpoint checkpoint) {
+        TileScheduler scheduler = new TileScheduler(nX, nY, tileSize, tileOrder, printInterval).setCheckpoint(checkpoint);
+        if (forkJoinPool != null)
+            scheduler.render(forkJoinPool, task);
+        else
+            scheduler.render(threadsCount, task);
+        return scheduler.isFinished();
     }
 
     //endregion
 
     //region default ray casting
 
-    /**
-     * cast a ray from camera through pixel (i,j) in view plane and get color of pixel
-     *
-     * @param Nx number of rows in view plane
-     * @param Ny number of columns in view plane
-     * @param j  column index of pixel
-     * @param i  row index of pixel
-     */
-    private void castRay(int Nx, int Ny, int j, int i) {
-        // construct ray through pixel
-        Ray ray = constructRay(Nx, Ny, j, i);
-        // return the color using ray tracer
-        Color color = rayTracer.traceRay(ray);
-        imageWriter.writePixel(j, i, color);
-    }
-
-
     /**
      * construct ray from a {@link Camera} towards center of a pixel in a view plane
      *
@@ -864,36 +1066,6 @@ public class Camera {
 
     //region ray casting with Anti-Aliasing using grid
 
-    /**
-     * cast a beam of n*m random beams within a grid of a pixel (i,j)
-     *
-     * @param Nx number of rows in view plane
-     * @param Ny number of columns in view plane
-     * @param j  column index of pixel
-     * @param i  row index of pixel
-     * @param n  first parameter to set number of random rays to cast
-     * @param m  second parameter to set number of rays to cast
-     */
-    private void castRayBeamRandom(int Nx, int Ny, int j, int i, int n, int m) {
-        // construct ray through pixel
-        Ray ray = constructRay(Nx, Ny, j, i);
-
-        // construct n*m random rays towards the pixel
-        var rayBeam = constructRayBeam(Nx, Ny, n, m, ray);
-
-
-        // calculate color of the pixel using the average from all the rays in beam
-        Color color = Color.BLACK;
-        for (var r : rayBeam) {
-            color = color.add(rayTracer.traceRay(r));
-        }
-        // reduce final color by total number of rays to get mean value of pixel color
-        color = color.reduce(rayBeam.size());
-
-        //write pixel
-        imageWriter.writePixel(j, i, color);
-    }
-
     /**
      * given a pixel construct a beam of random rays within the grid of the pixel
      *
@@ -909,12 +1081,21 @@ public class Camera {
         Point Pij = ray.getPoint(distance);
         List<Ray> temp = new LinkedList<>();
 
-        // create a grid of n rows * m columns in each pixel
-        // construct a ray from camera to every cell in grid
-        // each ray is constructed randomly precisely within the grid borders
-        for (int i = -n / 2; i < n / 2; i++)
-            for (int j = -m / 2; j < m / 2; j++)
-                temp.add(constructRandomRay(Nx, Ny, Pij, i, j, n, m));
+        if (sampleSequence.isLowDiscrepancy()) {
+            // construct a ray through every sample of the sequence, scrambled for the pixel
+            long scramble = SampleSequence.scramble(Pij);
+            int count = (n / 2 * 2) * (m / 2 * 2);
+            for (int k = 0; k < count; k++)
+                temp.add(constructSampleRay(Nx, Ny, Pij,
+                        sampleSequence.sample(scramble, k, 0), sampleSequence.sample(scramble, k, 1)));
+        } else {
+            // create a grid of n rows * m columns in each pixel
+            // construct a ray from camera to every cell in grid
+            // each ray is constructed randomly precisely within the grid borders
+            for (int i = -n / 2; i < n / 2; i++)
+                for (int j = -m / 2; j < m / 2; j++)
+                    temp.add(constructRandomRay(Nx, Ny, Pij, i, j, n, m));
+        }
 
         // remove from the list if a  ray was randomly constructed identical to ray to center
         temp.removeIf((item) -> {
@@ -950,7 +1131,7 @@ public class Camera {
         double gridHeight = (double) Ry / n;
         double gridWidth = (double) Rx / m;
 
-        Random r = new Random();
+        ThreadLocalRandom r = ThreadLocalRandom.current();
         // set a random value to scale vector on Y axis
         // value range is from -(gridHeight/2) to (gridHeight/2)
         double yI = r.nextDouble(gridHeight) - gridHeight / 2;
@@ -977,160 +1158,35 @@ public class Camera {
         return new Ray(p0, Pij.subtract(p0));
 
     }
-    //endregion
-
-    //region  ray casting with Anti-Aliasing using Adaptive Ray Casting
-
-    /**
-     * cast ray through pixel in the view plane, using adaptive Anti-Aliasing
-     * @param Nx number of rows in view plane
-     * @param Ny number of columns in view plane
-     * @param j  column index of pixel
-     * @param i  row index of pixel
-     * @param size size of division of pixel
-     * @param depth depth of division to end recursive call
-     */
-    private void castRayAdaptive(int Nx, int Ny, int j, int i, int size, int depth) {
-
-        // construct ray through pixel
-        Ray ray = constructRay(Nx, Ny, j, i);
-        Point center = ray.getPoint(distance);
-        //construct four rays to the corners of the pixel
-        //function returns list with rays sorted from top left corner to bottom left, clockwise.
-        var rayBeam = constructRayCorners(Nx, Ny, ray, size);
-
-        // calculate  color of pixel , if the corner color matches the center , add the color,
-        // else recursively  calculate the subpixel which corner color does not match
-        // ray towards center color
-        Color color = rayTracer.traceRay(ray);
-        Color matchColor = color;
-        int k = 0; //index of ray in the list
-        for (var r : rayBeam) {
-            Color cornerColor = rayTracer.traceRay(r);
-            if (color.equals(matchColor))
-                color = color.add(cornerColor);
-            // corner color does not match
-            else {
-                // get the center point of the subpixel
-                Point subPixelCenter = getSubPixelCenter(k, Nx, Ny, size * 2, center);
-                //call recursive function to calculate color of subpixel
-                color = color.add(constructRayAdaptiveRec(Nx, Ny, subPixelCenter, r, size * 2, depth));
-            }
-            k++;
-        }
-        //get avg color of pixel between all the samples
-        color = color.reduce(rayBeam.size() + 1);
-
-        //write pixel
-        imageWriter.writePixel(j, i, color);
-    }
-
-    /**
-     * recursive function to calculate color of a subpixel
-     * @param Nx number of rows in view plane
-     * @param Ny number of columns in view plane
-     * @param center center point of subpixel
-     * @param rayToCorner ray constructed from camera to one of corners of the pixel (depending on location of subpixel)
-     * @param size size of division of pixel at current level of recursion
-     * @param depth depth of division to end recursive call
-     * @return color of the subpixel
-     */
-    private Color constructRayAdaptiveRec(int Nx, int Ny, Point center, Ray rayToCorner, int size, int depth) {
-
-        //if division size is smaller or equal to recursion depth limit , continue to calculate subpixel color
-        if (size <= depth) {
-            //ray from camera to center of subpixel
-            Vector camToSubPixel = center.subtract(p0);
-            Ray ray = new Ray(p0, camToSubPixel);
-            Color color = rayTracer.traceRay(ray);
-            Color matchColor = color;
-            //construct four rays to the four corners of the subpixel
-            var cornersBeam = constructRayCorners(Nx, Ny, ray, size);
-
-            //if color of the corners matches , ad rhe color, otherwise ,recursively calculate
-            //the color of the mismatching corner subpixel
-
-            int k = 0;
-            for (var r : cornersBeam) {
-                Color cornerColor = rayTracer.traceRay(r);
-                if (color.equals(matchColor))
-                    color = color.add(cornerColor);
-                else {
-                    // get the center point of the sub pixel
-                    Point subPixelCenter = getSubPixelCenter(k, Nx, Ny, size * 2, center);
-                    // recursively calculate color , doubling division of pixel by two for every level of recursive call
-                    color = color.add(constructRayAdaptiveRec(Nx, Ny, subPixelCenter, r, size * 2, depth));
-                }
-                k++;
-            }
-            //return the color of the subpixel
-            color = color.reduce(cornersBeam.size() + 1);
-            return color;
-
-        // recursion depth is reached , return the color of the corner of the subpixel
-        } else {
-            return rayTracer.traceRay(rayToCorner);
-        }
-    }
-
-    /**
-     * given a pixel and an index get the center point of  subpixel
-     * indexes run from top left corner to bottom left, clockwise
-     * @param k index of subpixel
-     * @param Nx number of rows in view plane
-     * @param Ny number of columns in view plane
-     * @param size size of division of pixel
-     * @param center center point of current pixel/subpixel
-     * @return center point of the subpixel
-     */
-    private Point getSubPixelCenter(int k, int Nx, int Ny, int size, Point center) {
-
-        //calculate scaling factors with division size parameter
-        double Rx = alignZero(((double) width / Nx) / size);
-        double Ry = alignZero(((double) height / Ny) / size);
-        Point p = center;
-
-        switch (k) {
-            case 0: // top left corner subpixel
-                return p.add(vUp.scale(Ry)).add(vRight.scale(Rx));
-            case 1: //top right corner subpixel
-                return p.add(vUp.scale(-Ry)).add(vRight.scale(Rx));
-            case 2: // bottom right corner subpixel
-                return p.add(vUp.scale(-Ry)).add(vRight.scale(-Rx));
-            case 3: // bottom left corner subpixel
-                return p.add(vUp.scale(Ry)).add(vRight.scale(-Rx));
-        }
-        return null;
-    }
 
     /**
-     * cast four rays to the four corners of a pixel(i,j)
+     * given a pixel, cast a ray to a sample position within the pixel
      *
-     * @param Nx number of rows in view plane
-     * @param Ny number of columns in view plane
-     * @param j  column index of pixel
-     * @param i  row index of pixel
+     * @param Nx  number of rows in view plane
+     * @param Ny  number of columns in view plane
+     * @param Pij center point of pixel (i,j)
+     * @param u   horizontal sample position in the range [0,1) (from left to right)
+     * @param v   vertical sample position in the range [0,1) (from top to bottom)
+     * @return {@link Ray} from camera to the sample position
      */
-    private void castRayBeamCorners(int Nx, int Ny, int j, int i) {
-        // construct ray through pixel
-        Ray ray = constructRay(Nx, Ny, j, i);
-        Point center = ray.getPoint(distance);
-        // construct the four rays to the corners
-        var rayBeam = constructRayCorners(Nx, Ny, ray, 2);
-
-        // calculate  color of pixel - add all the rays colors
-        // ray towards center color
-        Color color = rayTracer.traceRay(ray);
-        // corner colors
-        for (var r : rayBeam) {
-            color = color.add(rayTracer.traceRay(r));
-        }
-        // reduce the final result by five to get mean value of pixel's color
-        color = color.reduce(5);
+    public Ray constructSampleRay(int Nx, int Ny, Point Pij, double u, double v) {
+        // calculate "size" of each pixel
+        double Ry = (double) height / Ny;
+        double Rx = (double) width / Nx;
 
-        //write pixel
-        imageWriter.writePixel(j, i, color);
+        // move from the center of the pixel to the sample position
+        double xJ = (u - 0.5) * Rx;
+        double yI = (0.5 - v) * Ry;
+        if (!isZero(xJ))
+            Pij = Pij.add(vRight.scale(xJ));
+        if (!isZero(yI))
+            Pij = Pij.add(vUp.scale(yI));
+
+        return new Ray(p0, Pij.subtract(p0));
     }
+    //endregion
+
+    //region  ray casting with Anti-Aliasing using Adaptive Ray Casting
 
     /**
      * given a pixel , construct four rays to the four corners of the pixel , or a subpixel
@@ -1177,35 +1233,6 @@ public class Camera {
     //endregion
 
     //region ray casting with DOF
-    /**
-     * cast ray from camera through pixels on view plane using DOF
-     * @param Nx number of rows in view plane
-     * @param Ny number of columns in view plane
-     * @param j  column index of pixel
-     * @param i  row index of pixel
-     * @param n  first parameter to set number of  rays to cast from aperture
-     * @param m  second parameter to set number of rays to cast from aperture
-     */
-    private void castRayDOF(int Nx, int Ny, int j, int i, int n, int m) {
-        // construct ray through pixel
-        Ray ray = constructRay(Nx, Ny, j, i);
-
-        // construct n*m random rays towards the pixel
-        var apertureBeam = constructGridRaysFromAperture(n, m, ray);
-        apertureBeam.add(ray);
-
-        // calculate color of the pixel using the average from all the rays in beam
-        Color color = Color.BLACK;
-        for (var r : apertureBeam) {
-            color = color.add(rayTracer.traceRay(r));
-        }
-        // reduce final color by total number of rays to get mean value of pixel color
-        color = color.reduce(apertureBeam.size());
-
-        //write pixel
-        imageWriter.writePixel(j, i, color);
-    }
-
     /**
      * construct n*m rays from a camera through a grid within an aperture around a pixel
      * @param n  first parameter to set number of  rays to cast from aperture
@@ -1215,6 +1242,8 @@ public class Camera {
      */
     public List<Ray> constructGridRaysFromAperture(int n, int m, Ray ray) {
         List<Ray> result = new LinkedList<>();
+        if (sampleSequence.isLowDiscrepancy())
+            return constructSampleRaysFromAperture(n * m, ray, result);
 
         //reach top left corner if aperture
         Point topCorner = p0.add(vRight.scale(-apertureRadius)).add(vUp.scale(apertureRadius));
@@ -1242,6 +1271,36 @@ public class Camera {
         return result;
     }
 
+    /**
+     * construct rays from the camera's aperture disk through the samples of the sequence (scrambled for the pixel),
+     * all focused on the point of a ray at the focal distance
+     *
+     * @param count  number of rays
+     * @param ray    ray from camera towards center of pixel
+     * @param result list to add the rays to
+     * @return the list of rays
+     */
+    private List<Ray> constructSampleRaysFromAperture(int count, Ray ray, List<Ray> result) {
+        //get the focal point
+        Point focal = ray.getPoint(dof);
+        long scramble = SampleSequence.scramble(ray.getPoint(distance));
+        for (int k = 0; k < count; k++) {
+            // uniform position on the disk - radius by square root of the first component, angle by the second
+            double r = apertureRadius * Math.sqrt(sampleSequence.sample(scramble, k, 0));
+            double angle = 2 * Math.PI * sampleSequence.sample(scramble, k, 1);
+            double x = alignZero(r * Math.cos(angle));
+            double y = alignZero(r * Math.sin(angle));
+            Point p = p0;
+            if (x != 0)
+                p = p.add(vRight.scale(x));
+            if (y != 0)
+                p = p.add(vUp.scale(y));
+            if (!p.equals(focal))
+                result.add(new Ray(p, focal.subtract(p)));
+        }
+        return result;
+    }
+
     /**
      * construct a ray from  camera through a cell in the subgrid within an aperture around a pixel
      *
@@ -0,0 +1,16 @@
+package renderer;
+
+/**
+ * factory of a camera with its scene, pixel sampler and ray tracer - lets a {@link RenderWorker}
+ * process build the same camera as the process coordinating the render.<br/>
+ * implementations must have a no-arguments constructor
+ */
+@FunctionalInterface
+public interface CameraFactory {
+    /**
+     * create the camera (an image writer is not required)
+     *
+     * @return new {@link Camera}
+     */
+    Camera create();
+}
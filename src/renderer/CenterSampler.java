@@ -0,0 +1,18 @@
+package renderer;
+
+import primitives.Color;
+import primitives.Ray;
+
+import java.util.function.Function;
+
+/**
+ * pixel sampler with no Anti-Aliasing - cast single ray to center of pixel
+ */
+public class CenterSampler implements PixelSampler {
+
+    @Override
+    public Color samplePixel(Camera camera, int Nx, int Ny, int j, int i, Function<Ray, Color> tracer) {
+        // construct ray through pixel and return the color using ray tracer
+        return tracer.apply(camera.constructRay(Nx, Ny, j, i));
+    }
+}
@@ -0,0 +1,245 @@
+package renderer;
+
+import primitives.Color;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Checkpoint of a render - a binary file of the finished regions of the view plane, so a render
+ * of a JVM which died can be resumed by a new render skipping the finished pixels.<br/>
+ * The file is a header (magic number, nX, nY and a fingerprint of the render settings) followed by append-only
+ * region records:
+ * col0, row0, col1, row1 and the RGB doubles of the region's pixels row by row.
+ * Records are appended by a background writer thread, so rendering threads only queue them.
+ * A truncated last record (the JVM died while writing it) is dropped when the checkpoint is loaded, and a file
+ * of another render (different resolution or fingerprint) is discarded
+ */
+class Checkpoint implements AutoCloseable {
+    private static final int MAGIC = 0x52544332;
+    private static final int HEADER_SIZE = 3 * Integer.BYTES + Long.BYTES;
+    private static final int RECORD_HEADER_SIZE = 4 * Integer.BYTES;
+
+    /**
+     * finished region of the view plane with the colors of its pixels
+     */
+    private record Region(TileScheduler.Tile tile, double[] colors) {
+    }
+
+    /**
+     * record marking the end of the rendering for the writer thread
+     */
+    private static final Region END = new Region(null, null);
+
+    private final Path path;
+    private final ImageWriter imageWriter;
+    private final int nX;
+    /**
+     * fingerprint of the render settings
+     */
+    private final long fingerprint;
+    /**
+     * pixels loaded from the checkpoint file (not changed while rendering)
+     */
+    private final BitSet done;
+    private final FileChannel channel;
+    private final BlockingQueue<Region> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    /**
+     * error of the writer thread, null if there was no error
+     */
+    private volatile IOException error = null;
+
+    private Logger logger = Logger.getLogger("Checkpoint");
+
+    /**
+     * constructor - loads the finished regions of the checkpoint file (if it exists) into the image writer
+     * and starts the writer thread appending the regions of this render
+     *
+     * @param path        checkpoint file
+     * @param imageWriter image writer of the render
+     * @param fingerprint fingerprint of the render settings, a file of another fingerprint is discarded
+     */
+    Checkpoint(Path path, ImageWriter imageWriter, long fingerprint) {
+        this.path = path;
+        this.imageWriter = imageWriter;
+        this.fingerprint = fingerprint;
+        nX = imageWriter.getNx();
+        done = new BitSet(nX * imageWriter.getNy());
+        try {
+            long size = Files.exists(path) ? load() : 0;
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // drop a truncated record (or a checkpoint of another image) and continue after the last full record
+            channel.truncate(size);
+            channel.position(size);
+            if (size == 0)
+                writeFully(ByteBuffer.allocate(HEADER_SIZE)
+                        .putInt(MAGIC).putInt(nX).putInt(imageWriter.getNy()).putLong(fingerprint).flip());
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - checkpoint " + path, e);
+        }
+
+        writer = new Thread(this::writeRegions, "checkpoint writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * load the full records of the checkpoint file
+     *
+     * @return size of the valid part of the file, 0 if the file is not a checkpoint of the render
+     * @throws IOException if reading the file fails
+     */
+    private long load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != nX || in.readInt() != imageWriter.getNy()
+                    || in.readLong() != fingerprint) {
+                logger.warning("checkpoint " + path + " of another render is discarded");
+                return 0;
+            }
+            long size = HEADER_SIZE;
+            List<Region> regions = new ArrayList<>();
+            try {
+                while (true) {
+                    TileScheduler.Tile tile = new TileScheduler.Tile(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+                    double[] colors = new double[3 * tile.size()];
+                    for (int k = 0; k < colors.length; ++k)
+                        colors[k] = in.readDouble();
+                    regions.add(new Region(tile, colors));
+                    size += RECORD_HEADER_SIZE + (long) Double.BYTES * colors.length;
+                }
+            } catch (EOFException e) {
+                // end of the file, possibly in the middle of the last record
+            }
+
+            for (Region region : regions) {
+                TileScheduler.Tile tile = region.tile();
+                int k = 0;
+                for (int row = tile.row0; row < tile.row1; ++row)
+                    for (int col = tile.col0; col < tile.col1; ++col, k += 3) {
+                        imageWriter.writePixel(col, row, new Color(region.colors()[k], region.colors()[k + 1], region.colors()[k + 2]));
+                        done.set(row * nX + col);
+                    }
+            }
+            return size;
+        } catch (EOFException e) {
+            // the header is incomplete
+            return 0;
+        }
+    }
+
+    /**
+     * check whether a pixel was loaded from the checkpoint file
+     *
+     * @param col column index of pixel
+     * @param row row index of pixel
+     * @return true if the pixel is finished
+     */
+    boolean isDone(int col, int row) {
+        return done.get(row * nX + col);
+    }
+
+    /**
+     * queue a finished region to be appended to the checkpoint file - does not block
+     *
+     * @param tile finished region of the view plane
+     */
+    void regionDone(TileScheduler.Tile tile) {
+        double[] colors = new double[3 * tile.size()];
+        int k = 0;
+        for (int row = tile.row0; row < tile.row1; ++row)
+            for (int col = tile.col0; col < tile.col1; ++col) {
+                Color color = imageWriter.getPixel(col, row);
+                colors[k++] = color.getRed();
+                colors[k++] = color.getGreen();
+                colors[k++] = color.getBlue();
+            }
+        queue.add(new Region(tile, colors));
+    }
+
+    /**
+     * writer thread - append the queued regions to the file until the end of the rendering
+     */
+    private void writeRegions() {
+        List<Region> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                for (Region region : batch) {
+                    if (region == END)
+                        return;
+                    TileScheduler.Tile tile = region.tile();
+                    ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + Double.BYTES * region.colors().length)
+                            .putInt(tile.col0).putInt(tile.row0).putInt(tile.col1).putInt(tile.row1);
+                    buffer.asDoubleBuffer().put(region.colors());
+                    writeFully(buffer.position(0));
+                }
+                batch.clear();
+            }
+        } catch (IOException e) {
+            error = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * write a whole buffer at the end of the checkpoint file
+     *
+     * @param buffer buffer to write
+     * @throws IOException if writing fails
+     */
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    /**
+     * wait for the writer thread to append all the queued regions and close the file
+     */
+    @Override
+    public void close() {
+        queue.add(END);
+        try {
+            writer.join();
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            error = e;
+        }
+        if (error != null) {
+            logger.log(Level.SEVERE, "I/O error", error);
+            throw new IllegalStateException("I/O error - checkpoint " + path, error);
+        }
+    }
+
+    /**
+     * close the checkpoint of a completed render and delete its file
+     */
+    void complete() {
+        close();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - checkpoint " + path, e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package renderer;
+
+import primitives.Color;
+import primitives.Ray;
+
+import java.util.function.Function;
+
+/**
+ * pixel sampler with Corners Anti-Aliasing - cast four rays to the four corners of the pixel
+ * besides the ray towards the center
+ */
+public class CornersSampler implements PixelSampler {
+
+    @Override
+    public Color samplePixel(Camera camera, int Nx, int Ny, int j, int i, Function<Ray, Color> tracer) {
+        // construct ray through pixel
+        Ray ray = camera.constructRay(Nx, Ny, j, i);
+        // construct the four rays to the corners
+        var rayBeam = camera.constructRayCorners(Nx, Ny, ray, 2);
+
+        // calculate  color of pixel - add all the rays colors
+        // ray towards center color
+        Color color = tracer.apply(ray);
+        // corner colors
+        for (var r : rayBeam) {
+            color = color.add(tracer.apply(r));
+        }
+        // reduce the final result by five to get mean value of pixel's color
+        return color.reduce(5);
+    }
+}
@@ -0,0 +1,61 @@
+package renderer;
+
+import primitives.Color;
+import primitives.Ray;
+
+import java.util.function.Function;
+
+/**
+ * pixel sampler adding depth of field to another sampler - every ray the wrapped sampler casts
+ * is replaced by a beam of n*m rays through a grid in the camera's aperture, all focused on the
+ * point of the ray at the focal distance
+ */
+public class DepthOfFieldSampler implements PixelSampler {
+    /**
+     * sampler choosing the rays through the pixel
+     */
+    private final PixelSampler sampler;
+    /**
+     * number of rows in the grid of the aperture
+     */
+    private final int n;
+    /**
+     * number of columns in the grid of the aperture
+     */
+    private final int m;
+
+    /**
+     * constructor
+     *
+     * @param sampler sampler choosing the rays through the pixel (e.g. {@link CenterSampler} or an Anti-Aliasing sampler)
+     * @param n       first parameter to set number of  rays to cast from aperture
+     * @param m       second parameter to set number of rays to cast from aperture
+     */
+    public DepthOfFieldSampler(PixelSampler sampler, int n, int m) {
+        this.sampler = sampler;
+        this.n = n;
+        this.m = m;
+    }
+
+    @Override
+    public Color samplePixel(Camera camera, int Nx, int Ny, int j, int i, Function<Ray, Color> tracer) {
+        return sampler.samplePixel(camera, Nx, Ny, j, i, ray -> {
+            // construct n*m rays through the aperture focused as the ray
+            var apertureBeam = camera.constructGridRaysFromAperture(n, m, ray);
+            apertureBeam.add(ray);
+
+            // calculate color of the ray using the average from all the rays in beam
+            Color color = Color.BLACK;
+            for (var r : apertureBeam) {
+                color = color.add(tracer.apply(r));
+            }
+            // reduce final color by total number of rays to get mean value of color
+            return color.reduce(apertureBeam.size());
+        });
+    }
+
+    @Override
+    public void startTile() {
+        sampler.startTile();
+    }
+}
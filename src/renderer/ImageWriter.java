@@ -2,6 +2,7 @@ package renderer;
 
 import primitives.Color;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
 import java.util.logging.Level;
@@ -13,8 +14,11 @@ import javax.imageio.*;
  * Image writer class combines accumulation of pixel color matrix and finally
  * producing a non-optimized jpeg image from this matrix. The class although is
  * responsible for holding image related parameters of View Plane - pixel matrix
- * size and resolution
- * 
+ * size and resolution<br/>
+ * The pixel colors are kept in a flat high dynamic range framebuffer (RGB triads
+ * of doubles, row by row) with the number of samples accumulated in every pixel.
+ * Tone mapping, clamping and encoding are done in a single pass when the image is written
+ *
  * @author Dan
  */
 public class ImageWriter {
@@ -24,9 +28,18 @@ public class ImageWriter {
 
 	private static final String FOLDER_PATH = System.getProperty("user.dir") + "/images";
 
-	private BufferedImage image;
+	/**
+	 * sums of the colors of the pixels - three channels per pixel, row by row
+	 */
+	private final double[] framebuffer;
+	/**
+	 * number of samples summed in each pixel, 0 for a pixel which was not written
+	 */
+	private final int[] samples;
+	private ToneMapping toneMapping = ToneMapping.CLAMP;
+	private double exposure = 1;
 	private String imageName;
-	
+
 	private Logger logger = Logger.getLogger("ImageWriter");
 
 	// ***************** Constructors ********************** //
@@ -41,13 +54,14 @@ public class ImageWriter {
 		this.nX = nX;
 		this.nY = nY;
 
-		image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+		framebuffer = new double[3 * nX * nY];
+		samples = new int[nX * nY];
 	}
 
 	// ***************** Getters/Setters ********************** //
 	/**
 	 * View Plane Y axis resolution
-	 * 
+	 *
 	 * @return the amount of vertical pixels
 	 */
 	public int getNy() {
@@ -56,13 +70,64 @@ public class ImageWriter {
 
 	/**
 	 * View Plane X axis resolution
-	 * 
+	 *
 	 * @return the amount of horizontal pixels
 	 */
 	public int getNx() {
 		return nX;
 	}
 
+	/**
+	 * setter for the tone mapping operator of the image (clamping by default)
+	 *
+	 * @param toneMapping tone mapping operator
+	 * @return the image writer itself
+	 */
+	public ImageWriter setToneMapping(ToneMapping toneMapping) {
+		this.toneMapping = toneMapping;
+		return this;
+	}
+
+	/**
+	 * setter for the exposure - scale of the colors before tone mapping (1 by default)
+	 *
+	 * @param exposure exposure factor
+	 * @return the image writer itself
+	 */
+	public ImageWriter setExposure(double exposure) {
+		if (exposure <= 0)
+			throw new IllegalArgumentException("exposure must be positive");
+		this.exposure = exposure;
+		return this;
+	}
+
+	/**
+	 * number of samples accumulated in a pixel
+	 *
+	 * @param xIndex X axis index of the pixel
+	 * @param yIndex Y axis index of the pixel
+	 * @return number of samples, 0 if the pixel was not written
+	 */
+	public int getSamples(int xIndex, int yIndex) {
+		return samples[yIndex * nX + xIndex];
+	}
+
+	/**
+	 * high dynamic range color of a pixel - average of its samples
+	 *
+	 * @param xIndex X axis index of the pixel
+	 * @param yIndex Y axis index of the pixel
+	 * @return color of the pixel, black if the pixel was not written
+	 */
+	public Color getPixel(int xIndex, int yIndex) {
+		int index = yIndex * nX + xIndex;
+		int count = samples[index];
+		if (count == 0)
+			return Color.BLACK;
+		index *= 3;
+		return new Color(framebuffer[index] / count, framebuffer[index + 1] / count, framebuffer[index + 2] / count);
+	}
+
 	// ***************** Operations ******************** //
 
 	/**
@@ -72,23 +137,84 @@ public class ImageWriter {
 	public void writeToImage() {
 		try {
 			File file = new File(FOLDER_PATH + '/' + imageName + ".png");
-			ImageIO.write(image, "png", file);
+			ImageIO.write(toImage(), "png", file);
 		} catch (IOException e) {
 			logger.log(Level.SEVERE, "I/O error", e);
 			throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
 		}
 	}
 
+	/**
+	 * produce 8 bit image of the framebuffer - tone map and pack all the pixels in one pass
+	 * directly into the pixels array of the image
+	 *
+	 * @return the image
+	 */
+	BufferedImage toImage() {
+		BufferedImage image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+		int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		for (int index = 0; index < samples.length; ++index) {
+			int count = samples[index];
+			if (count == 0)
+				continue;
+			// the pixel average is scaled by the exposure
+			double scale = exposure / count;
+			int k = 3 * index;
+			data[index] = toneMap(framebuffer[k] * scale) << 16
+					| toneMap(framebuffer[k + 1] * scale) << 8
+					| toneMap(framebuffer[k + 2] * scale);
+		}
+		return image;
+	}
+
+	/**
+	 * map a channel of high dynamic range color to 8 bits
+	 *
+	 * @param value channel value
+	 * @return channel in the range 0..255
+	 */
+	private int toneMap(double value) {
+		if (toneMapping == ToneMapping.REINHARD) {
+			double normalized = value / 255;
+			value = 255 * normalized / (1 + normalized);
+		}
+		int channel = (int) value;
+		return channel > 255 ? 255 : channel;
+	}
+
 	/**
 	 * The function writePixel writes a color of a specific pixel into pixel color
 	 * matrix
-	 * 
+	 *
 	 * @param xIndex X axis index of the pixel
 	 * @param yIndex Y axis index of the pixel
 	 * @param color  final color of the pixel
 	 */
 	public void writePixel(int xIndex, int yIndex, Color color) {
-		image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+		int index = yIndex * nX + xIndex;
+		samples[index] = 1;
+		index *= 3;
+		framebuffer[index] = color.getRed();
+		framebuffer[index + 1] = color.getGreen();
+		framebuffer[index + 2] = color.getBlue();
+	}
+
+	/**
+	 * The function accumulatePixel adds samples to a specific pixel, the color of the pixel
+	 * is the average of all its samples
+	 *
+	 * @param xIndex X axis index of the pixel
+	 * @param yIndex Y axis index of the pixel
+	 * @param sum    sum of the colors of the samples
+	 * @param count  number of the samples
+	 */
+	public void accumulatePixel(int xIndex, int yIndex, Color sum, int count) {
+		int index = yIndex * nX + xIndex;
+		samples[index] += count;
+		index *= 3;
+		framebuffer[index] += sum.getRed();
+		framebuffer[index + 1] += sum.getGreen();
+		framebuffer[index + 2] += sum.getBlue();
 	}
 
 }
@@ -0,0 +1,32 @@
+package renderer;
+
+import primitives.Color;
+import primitives.Ray;
+
+import java.util.function.Function;
+
+/**
+ * strategy for calculating the color of a single pixel of the view plane from the rays cast through it.
+ * the camera's rendering engine calls the sampler for every pixel, whatever threads setting is used
+ */
+public interface PixelSampler {
+    /**
+     * calculate color of pixel (i,j) in view plane
+     *
+     * @param camera camera casting the rays
+     * @param Nx     number of rows in view plane
+     * @param Ny     number of columns in view plane
+     * @param j      column index of pixel
+     * @param i      row index of pixel
+     * @param tracer color of a ray cast from the camera (the ray tracer, or a sampler wrapping it)
+     * @return color of the pixel
+     */
+    Color samplePixel(Camera camera, int Nx, int Ny, int j, int i, Function<Ray, Color> tracer);
+
+    /**
+     * called by a rendering thread before it samples the pixels of a tile - samplers keeping
+     * per thread state between neighbouring pixels reset it here
+     */
+    default void startTile() {
+    }
+}
@@ -0,0 +1,49 @@
+package renderer;
+
+import primitives.Color;
+import primitives.Ray;
+
+import java.util.function.Function;
+
+/**
+ * pixel sampler with Random Anti-Aliasing - cast a beam of n*m random rays within a grid of the pixel
+ * besides the ray towards the center
+ */
+public class RandomSampler implements PixelSampler {
+    /**
+     * number of rows in the grid of the pixel
+     */
+    private final int n;
+    /**
+     * number of columns in the grid of the pixel
+     */
+    private final int m;
+
+    /**
+     * constructor
+     *
+     * @param n first parameter to set number of random rays to cast
+     * @param m second parameter to set number of rays to cast
+     */
+    public RandomSampler(int n, int m) {
+        this.n = n;
+        this.m = m;
+    }
+
+    @Override
+    public Color samplePixel(Camera camera, int Nx, int Ny, int j, int i, Function<Ray, Color> tracer) {
+        // construct ray through pixel
+        Ray ray = camera.constructRay(Nx, Ny, j, i);
+
+        // construct n*m random rays towards the pixel
+        var rayBeam = camera.constructRayBeam(Nx, Ny, n, m, ray);
+
+        // calculate color of the pixel using the average from all the rays in beam
+        Color color = Color.BLACK;
+        for (var r : rayBeam) {
+            color = color.add(tracer.apply(r));
+        }
+        // reduce final color by total number of rays to get mean value of pixel color
+        return color.reduce(rayBeam.size());
+    }
+}
@@ -0,0 +1,120 @@
+package renderer;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Double3;
+import primitives.Ray;
+
+import java.util.Arrays;
+
+/**
+ * stack of the pending secondary rays (reflected and refracted) of the iterative ray tracing,
+ * reused by the rays traced by a thread. every entry holds the intersection point of the ray,
+ * the remaining recursion level, the accumulated attenuation coefficient of the ray and the weight
+ * of the ray's color in the color of the primary ray
+ */
+final class RayStack {
+    private GeoPoint[] points = new GeoPoint[16];
+    private Ray[] rays = new Ray[16];
+    private int[] levels = new int[16];
+    private Double3[] ks = new Double3[16];
+    private Double3[] weights = new Double3[16];
+    private int size = 0;
+
+    /**
+     * number of secondary rays the primary ray may still trace
+     */
+    int budget;
+    /**
+     * number of secondary rays traced for the primary ray
+     */
+    int secondaryRays;
+    /**
+     * number of secondary rays of the primary ray terminated by russian roulette
+     */
+    int rouletteTerminations;
+    /**
+     * number of secondary rays of the primary ray dropped when the budget was exhausted
+     */
+    int budgetTerminations;
+
+    /**
+     * intersection point of the entry popped last
+     */
+    GeoPoint point;
+    /**
+     * ray of the entry popped last
+     */
+    Ray ray;
+    /**
+     * remaining recursion level of the entry popped last
+     */
+    int level;
+    /**
+     * attenuation coefficient of the entry popped last
+     */
+    Double3 k;
+    /**
+     * weight of the color of the entry popped last
+     */
+    Double3 weight;
+
+    /**
+     * start tracing a primary ray - reset the budget and the counters of the primary ray
+     *
+     * @param budget number of secondary rays the primary ray may trace
+     */
+    void start(int budget) {
+        this.budget = budget;
+        secondaryRays = 0;
+        rouletteTerminations = 0;
+        budgetTerminations = 0;
+    }
+
+    /**
+     * push a pending ray
+     *
+     * @param point  intersection point of the ray
+     * @param ray    the ray
+     * @param level  remaining recursion level
+     * @param k      accumulated attenuation coefficient of the ray
+     * @param weight weight of the ray's color in the color of the primary ray
+     */
+    void push(GeoPoint point, Ray ray, int level, Double3 k, Double3 weight) {
+        if (size == points.length) {
+            int length = 2 * size;
+            points = Arrays.copyOf(points, length);
+            rays = Arrays.copyOf(rays, length);
+            levels = Arrays.copyOf(levels, length);
+            ks = Arrays.copyOf(ks, length);
+            weights = Arrays.copyOf(weights, length);
+        }
+        points[size] = point;
+        rays[size] = ray;
+        levels[size] = level;
+        ks[size] = k;
+        weights[size] = weight;
+        ++size;
+    }
+
+    /**
+     * pop the last pushed ray into the fields of the popped entry
+     *
+     * @return false if the stack is empty, otherwise true
+     */
+    boolean pop() {
+        if (size == 0)
+            return false;
+        --size;
+        point = points[size];
+        ray = rays[size];
+        level = levels[size];
+        k = ks[size];
+        weight = weights[size];
+        // release the references of the entry
+        points[size] = null;
+        rays[size] = null;
+        ks[size] = null;
+        weights[size] = null;
+        return true;
+    }
+}
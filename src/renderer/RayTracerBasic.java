@@ -1,12 +1,18 @@
 package renderer;
 
-import geometries.Geometry;
+import geometries.Surface;
 import lighting.LightSource;
 import primitives.*;
 import scene.Scene;
 import geometries.Intersectable.GeoPoint;
 
-import java.util.List;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
 
 import static java.lang.Math.*;
 import static primitives.Util.alignZero;
@@ -36,6 +42,57 @@ public class RayTracerBasic extends RayTracer {
      */
     private boolean softShadow = false;
 
+    /**
+     * determine if soft shadows probe the boundary of the light before sampling the whole light
+     */
+    private boolean adaptiveSoftShadow = false;
+
+    /**
+     * per thread cache of the last opaque geometry which blocked a shadow ray towards each light -
+     * neighbouring points are mostly shaded by the same geometry, so it is tested before the whole scene
+     */
+    private final ThreadLocal<Map<LightSource, Surface>> occluders = ThreadLocal.withInitial(IdentityHashMap::new);
+
+    /**
+     * per thread cell the transparency query reports the opaque geometry blocking a shadow ray into
+     */
+    private final ThreadLocal<Surface[]> blockers = ThreadLocal.withInitial(() -> new Surface[1]);
+
+    /**
+     * per thread stack of the pending reflected and refracted rays
+     */
+    private final ThreadLocal<RayStack> rayStacks = ThreadLocal.withInitial(RayStack::new);
+
+    /**
+     * weight below which secondary rays play russian roulette, 0 for no russian roulette
+     */
+    private double rouletteThreshold = 0;
+    /**
+     * maximal number of secondary rays traced for a primary ray
+     */
+    private int rayBudget = Integer.MAX_VALUE;
+
+    /**
+     * number of primary rays whose color was calculated
+     */
+    private final LongAdder primaryRays = new LongAdder();
+    /**
+     * number of secondary (reflected and refracted) rays traced
+     */
+    private final LongAdder secondaryRays = new LongAdder();
+    /**
+     * number of secondary rays terminated by russian roulette
+     */
+    private final LongAdder rouletteTerminations = new LongAdder();
+    /**
+     * number of secondary rays dropped by exhausted budgets of primary rays
+     */
+    private final LongAdder budgetTerminations = new LongAdder();
+    /**
+     * maximal number of secondary rays traced for a primary ray
+     */
+    private final LongAccumulator maxSecondaryRays = new LongAccumulator(Long::max, 0);
+
     /**
      * constructor
      *
@@ -63,6 +120,104 @@ public class RayTracerBasic extends RayTracer {
         return this;
     }
 
+    /**
+     * setter for adaptive soft shadow field - when set, the shadow of a light is probed by a few
+     * samples on the boundary of the light, and the whole light is sampled only if the probes disagree
+     * (the point is in the penumbra). Points which are fully lit or fully in the umbra take the probes only
+     *
+     * @param adaptiveSoftShadow boolean value to determine if to probe the boundary of the lights first
+     * @return this instance of the ray tracer
+     */
+    public RayTracerBasic setAdaptiveSoftShadow(boolean adaptiveSoftShadow) {
+        this.adaptiveSoftShadow = adaptiveSoftShadow;
+        return this;
+    }
+
+    /**
+     * setter for russian roulette termination of secondary rays - a secondary ray whose weight in the pixel's color
+     * (of the strongest color component) is below the threshold survives with probability weight / threshold,
+     * and the color of a surviving ray is scaled by the inverse of the probability, so the expected color is kept
+     *
+     * @param rouletteThreshold weight below which rays play russian roulette, 0 to turn it off
+     * @return this instance of the ray tracer
+     */
+    public RayTracerBasic setRussianRoulette(double rouletteThreshold) {
+        if (rouletteThreshold < 0 || rouletteThreshold > 1)
+            throw new IllegalArgumentException("russian roulette threshold must be between 0 and 1");
+        this.rouletteThreshold = rouletteThreshold;
+        return this;
+    }
+
+    /**
+     * setter for the ray budget - the maximal number of secondary (reflected and refracted) rays
+     * traced for a primary ray, the rays beyond the budget are dropped
+     *
+     * @param rayBudget maximal number of secondary rays of a primary ray
+     * @return this instance of the ray tracer
+     */
+    public RayTracerBasic setRayBudget(int rayBudget) {
+        if (rayBudget < 0)
+            throw new IllegalArgumentException("ray budget must not be negative");
+        this.rayBudget = rayBudget;
+        return this;
+    }
+
+    /**
+     * getter for the number of primary rays whose color was calculated (rays which hit a geometry)
+     *
+     * @return number of primary rays
+     */
+    public long getPrimaryRays() {
+        return primaryRays.sum();
+    }
+
+    /**
+     * getter for the number of secondary (reflected and refracted) rays traced
+     *
+     * @return number of secondary rays
+     */
+    public long getSecondaryRays() {
+        return secondaryRays.sum();
+    }
+
+    /**
+     * getter for the number of secondary rays terminated by russian roulette
+     *
+     * @return number of terminated rays
+     */
+    public long getRouletteTerminations() {
+        return rouletteTerminations.sum();
+    }
+
+    /**
+     * getter for the number of secondary rays dropped by exhausted ray budgets
+     *
+     * @return number of dropped rays
+     */
+    public long getBudgetTerminations() {
+        return budgetTerminations.sum();
+    }
+
+    /**
+     * getter for the maximal number of secondary rays traced for a single primary ray - the worst case cost of a ray
+     *
+     * @return maximal number of secondary rays of a primary ray
+     */
+    public long getMaxSecondaryRays() {
+        return maxSecondaryRays.get();
+    }
+
+    /**
+     * reset the ray counters
+     */
+    public void resetCounters() {
+        primaryRays.reset();
+        secondaryRays.reset();
+        rouletteTerminations.reset();
+        budgetTerminations.reset();
+        maxSecondaryRays.reset();
+    }
+
     /**
      * calculate a {@link  Color} of a pixel (i,j)
      *
@@ -83,63 +238,60 @@ public class RayTracerBasic extends RayTracer {
     }
 
     /**
-     * calculate the color of a pixel
+     * calculate the color of a pixel - the local effects (phong model) at the point and at the points of the
+     * reflected and refracted rays spawned from it (global effects), up to the maximal recursion level.
+     * the secondary rays are traced iteratively: pending rays are kept with their weight in the pixel's color
+     * on a per thread stack, and rays whose attenuation drops below the minimal value are dropped before
+     * they are intersected
      *
      * @param gp  the {@link GeoPoint} viewed through the pixel to calculate color of
      * @param ray ray of camera through pixel in view plane where the point is located
      * @return color of the pixel
      */
     private Color calcColor(GeoPoint gp, Ray ray) {
-        return calcColor(gp, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K)
-                .add(scene.getAmbientLight().getIntensity());
-
-    }
-
-
-    /**
-     * calculate color of geometric shape at a given point (phong model)
-     *
-     * @param p   {@link GeoPoint} to calculate color at
-     * @param ray {@link  Ray} from camera to the point
-     * @param k     coefficient for transparency and reflectiveness
-     * @param level level of recursion for color calculation
-     * @return {@link Color} of the shape at the point
-     */
-    private Color calcColor(GeoPoint p, Ray ray, int level, Double3 k) {
-        Geometry geometry = p.geometry;
-        // l = vector from light source to the point
-        // n = normal vector to shape at point
-        // r = specular vector to vector from light to point
-        // v = ray from camera to point
-        //Ip  = Ka * Ia + Ie + (Kd * |l.dorProduct(n)|) * Il + (Ks * max(0 ,(-v).dotProduct(r)) ** nShinines) * Il
-
-        // local effects (basic color)
-        Color color =
-                // Ie
-                geometry.getEmission()
-                        // Kd * |l.dorProduct(n)| * +Ks * max(0 ,(-v).dotProduct(r)) ** nShinines * Il
-                        .add(calcLocalEffects(p, ray, k));
-
-        // global effects (reflection and transparency)
-        if (level == 1)
-            return color;
-        else
-            return color.add(calcGlobalEffects(p, ray, level, k));
+        RayStack stack = rayStacks.get();
+        stack.start(rayBudget);
+        Rgb color = new Rgb();
+        stack.push(gp, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K, INITIAL_K);
+        while (stack.pop()) {
+            GeoPoint p = stack.point;
+            Ray pRay = stack.ray;
+            int level = stack.level;
+            Double3 k = stack.k;
+            Double3 weight = stack.weight;
+
+            //Ip  = Ka * Ia + Ie + (Kd * |l.dorProduct(n)|) * Il + (Ks * max(0 ,(-v).dotProduct(r)) ** nShinines) * Il
+            // local effects (basic color) - Ie + Kd * |l.dorProduct(n)| * +Ks * max(0 ,(-v).dotProduct(r)) ** nShinines * Il
+            color.addScaled(p.geometry.getEmission().add(calcLocalEffects(p, pRay, k)), weight);
+            if (level == 1)
+                continue;
+            pushGlobalEffects(stack, p, pRay, level, k, weight);
+        }
 
+        // the counters are updated once for the primary ray
+        primaryRays.increment();
+        if (stack.secondaryRays > 0) {
+            secondaryRays.add(stack.secondaryRays);
+            maxSecondaryRays.accumulate(stack.secondaryRays);
+        }
+        if (stack.rouletteTerminations > 0)
+            rouletteTerminations.add(stack.rouletteTerminations);
+        if (stack.budgetTerminations > 0)
+            budgetTerminations.add(stack.budgetTerminations);
+        return color.toColor().add(scene.getAmbientLight().getIntensity());
     }
 
     /**
-     * calculate the transparency and reflectiveness of a point
+     * push the reflected and refracted rays of a point (global effects) on the stack of pending rays
      *
-     * @param gp    {@link GeoPoint} to calculate effects at
-     * @param ray   light direction ray
-     * @param level level of recursion
-     * @param k     coefficient for transparency and reflectiveness
-     * @return {@link Color} of point with transparency and reflectiveness
+     * @param stack  stack of pending rays
+     * @param gp     {@link GeoPoint} to calculate effects at
+     * @param ray    ray towards the point
+     * @param level  level of recursion of the point
+     * @param k      coefficient for transparency and reflectiveness of the point
+     * @param weight weight of the point's color in the pixel's color
      */
-    private Color calcGlobalEffects(GeoPoint gp, Ray ray, int level, Double3 k) {
-        //initial color
-        Color color = Color.BLACK;
+    private void pushGlobalEffects(RayStack stack, GeoPoint gp, Ray ray, int level, Double3 k, Double3 weight) {
         // normal vector to geometry at the point
         Vector normal = gp.geometry.getNormal(gp.point);
         Material material = gp.geometry.getMaterial();
@@ -148,36 +300,70 @@ public class RayTracerBasic extends RayTracer {
         Vector direction = ray.getDir();
 
         // if material's kR multiplied by coefficient is larger than end condition of recursion
-        // calculate reflectiveness effect.
+        // find the point the reflected ray hits
+        Ray reflectedRay = null;
+        GeoPoint reflectedPoint = null;
+        Double3 reflectedWeight = null;
         Double3 kKr = kR.scale(k);
         if (kKr.greaterThan(MIN_CALC_COLOR_K)) {
-            //construct a ray reflected to light ray
-            Ray reflectedRay = constructReflectedRay(gp.point, normal, direction);
-            // if reflective ray intersects a geometry calculate the new intersection color and add to total
-            // color calculation
-            GeoPoint reflectedPoint = findClosestIntersection(reflectedRay);
-            if (reflectedPoint != null) {
-                color = color.add(calcColor(reflectedPoint, reflectedRay, level - 1, kKr)
-                        .scale(kR));
+            reflectedWeight = survival(stack, weight.product(kR));
+            if (reflectedWeight != null) {
+                //construct a ray reflected to light ray
+                reflectedRay = constructReflectedRay(gp.point, normal, direction);
+                reflectedPoint = findClosestIntersection(reflectedRay);
             }
         }
 
         // if material's kT multiplied by coefficient is larger than end condition of recursion
-        // calculate transparency effect.
+        // find the point the refracted ray hits
+        Ray refractedRay = null;
+        GeoPoint refractedPoint = null;
+        Double3 refractedWeight = null;
         Double3 kKt = kT.scale(k);
         if (kKt.greaterThan(MIN_CALC_COLOR_K)) {
-            //construct a ray refracted to light ray
-            Ray refractedRay = constructRefractedRay(gp.point, normal, direction);
-            // if refractive ray intersects a geometry calculate the new intersection color and add to total
-            // color calculation
-            GeoPoint refractedPoint = findClosestIntersection(refractedRay);
-            if (refractedPoint != null) {
-                color = color.add(calcColor(refractedPoint, refractedRay, level - 1, kKt))
-                        .scale(kT);
+            refractedWeight = survival(stack, weight.product(kT));
+            if (refractedWeight != null) {
+                //construct a ray refracted to light ray
+                refractedRay = constructRefractedRay(gp.point, normal, direction);
+                refractedPoint = findClosestIntersection(refractedRay);
             }
         }
-        //return the color calculated with transparency and reflectiveness effects
-        return color;
+
+        // the reflection color is scaled by kR, and by kT as well when the refracted ray hits a geometry
+        // (the refraction scales the sum of both colors)
+        if (reflectedPoint != null)
+            stack.push(reflectedPoint, reflectedRay, level - 1, kKr,
+                    refractedPoint == null ? reflectedWeight : reflectedWeight.product(kT));
+        if (refractedPoint != null)
+            stack.push(refractedPoint, refractedRay, level - 1, kKt, refractedWeight);
+    }
+
+    /**
+     * decide whether a secondary ray is traced - the ray is dropped if the budget of the primary ray is exhausted,
+     * or if the ray's weight is below the russian roulette threshold and it loses the roulette.
+     * the weight of a ray which survives the roulette is scaled by the inverse of its survival probability
+     *
+     * @param stack  stack of pending rays, with the budget and the counters of the primary ray
+     * @param weight weight of the secondary ray's color in the pixel's color
+     * @return weight of the traced ray, null if the ray is dropped
+     */
+    private Double3 survival(RayStack stack, Double3 weight) {
+        if (stack.budget == 0) {
+            ++stack.budgetTerminations;
+            return null;
+        }
+        double max = weight.max();
+        if (max < rouletteThreshold) {
+            double probability = max / rouletteThreshold;
+            if (ThreadLocalRandom.current().nextDouble() >= probability) {
+                ++stack.rouletteTerminations;
+                return null;
+            }
+            weight = weight.scale(1 / probability);
+        }
+        --stack.budget;
+        ++stack.secondaryRays;
+        return weight;
     }
 
     /**
@@ -240,36 +426,37 @@ public class RayTracerBasic extends RayTracer {
         Double3 kD = intersection.geometry.getMaterial().kD;
         // Ks
         Double3 kS = intersection.geometry.getMaterial().kS;
-        Color color = Color.BLACK;
+        // light contributions are summed in mutable accumulators, without allocating intermediate colors
+        Rgb color = new Rgb();
         // loop through all light sources in scene
 
-        var lights = scene.getLights();
+        // lights whose influence region does not contain the point are culled
+        var lights = scene.getLights(intersection.point);
         if (softShadow) {
+            LightSamples beam = new LightSamples(intersection, n, v, nv, k);
             for (var lightSource : lights) {
-                Color colorBeam = Color.BLACK;
-                var vectors = lightSource.getListL(intersection.point);
-                for (var l:vectors) {
-
-                    // l.dorProduct(n)
-                    double nl = alignZero(n.dotProduct(l));
-                    // check that light direction is towards shape and not behind
-                    if (nl * nv > 0) { // sign(nl) == sing(nv)
-
-                        Double3 ktr = transparency(intersection, lightSource, l, n);
-                        if (ktr.scale(k).greaterThan(MIN_CALC_COLOR_K)) {
-                            Color lightIntensity = lightSource.getIntensity(intersection.point).scale(ktr);
-                            // (Kd * |l.dorProduct(n)|) * Il
-                            colorBeam = colorBeam.add(calcDiffusive(kD, nl, lightIntensity),
-                                    // (Ks * max(0 ,(-v).dotProduct(r)) ** nShinines ) * Il
-                                    calcSpecular(kS, nl, l, n, v, nShininess, lightIntensity));
-                        }
+                if (!lightSource.influences(intersection.point))
+                    continue;
+                // the samples on the light are consumed as they are constructed
+                beam.reset(lightSource);
+                if (adaptiveSoftShadow) {
+                    // probe the boundary of the light - if all the probes are equally shaded,
+                    // the point is not in the penumbra and the probes are the light's contribution
+                    int probes = lightSource.forEachBoundaryL(intersection.point, beam);
+                    if (beam.uniform) {
+                        color.addReduced(beam.color, probes);
+                        continue;
                     }
+                    beam.reset(lightSource);
                 }
-                color=color.add(colorBeam.reduce(vectors.size()));
+                int samples = lightSource.forEachL(intersection.point, beam);
+                color.addReduced(beam.color, samples);
             }
         }
         else {
             for (var lightSource : lights) {
+                if (!lightSource.influences(intersection.point))
+                    continue;
                 // l
                 Vector l = lightSource.getL(intersection.point);
                 // l.dorProduct(n)
@@ -279,64 +466,132 @@ public class RayTracerBasic extends RayTracer {
 
                     Double3 ktr = transparency(intersection, lightSource, l, n);
                     if (ktr.scale(k).greaterThan(MIN_CALC_COLOR_K)) {
-                        Color lightIntensity = lightSource.getIntensity(intersection.point).scale(ktr);
+                        Color intensity = lightSource.getIntensity(intersection.point);
                         // (Kd * |l.dorProduct(n)|) * Il
-                        color = color.add(calcDiffusive(kD, nl, lightIntensity),
+                        color.addScaled(intensity, ktr, kD, abs(nl))
                                 // (Ks * max(0 ,(-v).dotProduct(r)) ** nShinines ) * Il
-                                calcSpecular(kS, nl, l, n, v, nShininess, lightIntensity));
+                                .addScaled(intensity, ktr, kS, calcSpecular(nl, l, n, v, nShininess));
                     }
                 }
             }
         }
-        return color;
+        return color.toColor();
+    }
+
+    /**
+     * accumulator of the contributions of the samples on a light to the color at a point (soft shadows),
+     * tracks whether all the samples are equally shaded
+     */
+    private class LightSamples implements Consumer<Vector> {
+        private final GeoPoint intersection;
+        private final Vector n;
+        private final Vector v;
+        private final double nv;
+        private final Double3 k;
+        private final Double3 kD;
+        private final Double3 kS;
+        private final int nShininess;
+
+        /**
+         * sum of the contributions of the samples
+         */
+        final Rgb color = new Rgb();
+        /**
+         * true if all the samples since the reset have the same transparency
+         */
+        boolean uniform;
+        private LightSource light;
+        private Color intensity;
+        /**
+         * transparency of the first sample since the reset, null if there are no samples
+         */
+        private Double3 firstKtr;
+
+        /**
+         * constructor
+         *
+         * @param intersection {@link GeoPoint} to calculate color at
+         * @param n            normal to shape at point
+         * @param v            ray from camera to point
+         * @param nv           n.dotProduct(v)
+         * @param k            coefficient for transparency and reflectiveness
+         */
+        LightSamples(GeoPoint intersection, Vector n, Vector v, double nv, Double3 k) {
+            this.intersection = intersection;
+            this.n = n;
+            this.v = v;
+            this.nv = nv;
+            this.k = k;
+            Material material = intersection.geometry.getMaterial();
+            kD = material.kD;
+            kS = material.kS;
+            nShininess = material.nShininess;
+        }
+
+        /**
+         * start accumulating the samples of a light
+         *
+         * @param light {@link LightSource} of the samples
+         */
+        void reset(LightSource light) {
+            this.light = light;
+            intensity = light.getIntensity(intersection.point);
+            color.reset();
+            uniform = true;
+            firstKtr = null;
+        }
+
+        @Override
+        public void accept(Vector l) {
+            // l.dorProduct(n)
+            double nl = alignZero(n.dotProduct(l));
+            Double3 ktr = Double3.ZERO;
+            // check that light direction is towards shape and not behind
+            if (nl * nv > 0) { // sign(nl) == sing(nv)
+
+                ktr = transparency(intersection, light, l, n);
+                if (ktr.scale(k).greaterThan(MIN_CALC_COLOR_K)) {
+                    // (Kd * |l.dorProduct(n)|) * Il
+                    color.addScaled(intensity, ktr, kD, abs(nl))
+                            // (Ks * max(0 ,(-v).dotProduct(r)) ** nShinines ) * Il
+                            .addScaled(intensity, ktr, kS, calcSpecular(nl, l, n, v, nShininess));
+                }
+            }
+            if (firstKtr == null)
+                firstKtr = ktr;
+            else if (uniform && !ktr.equals(firstKtr))
+                uniform = false;
+        }
     }
 
     /**
-     * calculate  (Ks * max(0 ,(-v).dotProduct(r)) ** nShinines )* Il
-     * from phong model
+     * calculate  max(0 ,(-v).dotProduct(r)) ** nShinines - the factor of Ks * Il
+     * from phong model. calculated on raw coordinates without allocating vectors
      *
-     * @param kS             attenuation factor of specular light
      * @param nDotL          l.dorProduct(n)
      * @param l              vector from light source to the point
      * @param n              normal vector to shape at point
      * @param v              ray from camera to point
      * @param nShininess     shininess factor of shape
-     * @param lightIntensity Il
-     * @return Il scaled by  factor
+     * @return specular factor
      */
-    private Color calcSpecular(Double3 kS, double nDotL, Vector l, Vector n, Vector v, int nShininess, Color lightIntensity) {
-        // calculating (Ks * max(0 ,(-v).dotProduct(r)) ** nShinines )* Il
-
+    private double calcSpecular(double nDotL, Vector l, Vector n, Vector v, int nShininess) {
         // r = L - (2 *  l.dorProduct(n)) * n
-        Vector r = l.subtract(n.scale(2 * nDotL)).normalize();
-        // -v
-        Vector minusV = v.scale(-1);
+        double scale = 2 * nDotL;
+        double rX = l.getX() - n.getX() * scale;
+        double rY = l.getY() - n.getY() * scale;
+        double rZ = l.getZ() - n.getZ() * scale;
+        // normalize r
+        double length = Math.sqrt(rX * rX + rY * rY + rZ * rZ);
+        rX /= length;
+        rY /= length;
+        rZ /= length;
         // max(0 ,(-v).dotProduct(r))
-        double specular = max(0, minusV.dotProduct(r));
+        double specular = max(0, rX * -v.getX() + rY * -v.getY() + rZ * -v.getZ());
         //** nShinines
         if (specular != 0)
             specular = pow(specular, nShininess);
-        // Il scaled by factor
-        return lightIntensity.scale(kS.scale(specular));
-    }
-
-    /**
-     * calculate  (Kd * |l.dorProduct(n)|) * Il
-     * from phong model
-     *
-     * @param kD             attenuation factor of diffusive light
-     * @param nDotL          l.dorProduct(n)
-     * @param lightIntensity Il
-     * @return Il scaled by factor
-     */
-    private Color calcDiffusive(Double3 kD, double nDotL, Color lightIntensity) {
-        // Kd * |l.dorProduct(n)|
-        if (nDotL == 0)
-            return lightIntensity.scale(0);
-        else
-            nDotL = abs(nDotL);
-        // Il scaled by factor
-        return lightIntensity.scale(kD.scale(nDotL));
+        return specular;
     }
 
 
@@ -358,23 +613,10 @@ public class RayTracerBasic extends RayTracer {
         Ray shadowRay = new Ray(gp.point, n, lightScaled);
         // get distance from the light to the point
         double lightDistance = light.getDistance(shadowRay.getP0());
-        // check if new ray intersect a geometry between point and the light source
-        // further objects behind the light are avoided by distance parameter
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(shadowRay, lightDistance);
-        // no intersections were found - point is not shaded
-        if (intersections == null)
-            return true;
-        //iterate through intersection points: if they are closer to point than the light
-        // and the material of the geometry of intersection is not transparent
-        // point is shaded return false
-        for (var geoPoint : intersections) {
-            if (alignZero(geoPoint.point.distance(gp.point) - lightDistance) <= 0
-                    && geoPoint.geometry.getMaterial().kT.equals(Double3.ZERO)) {
-                return false;
-            }
-        }
-        // all geometries intersected are transparent - point is not shaded - return true
-        return true;
+        // check if new ray intersect an opaque geometry between point and the light source
+        // further objects behind the light are avoided by distance parameter,
+        // the query stops at the first opaque geometry found
+        return scene.getGeometries().findTransparency(shadowRay, lightDistance, 0) != Double3.ZERO;
 
     }
 
@@ -385,11 +627,9 @@ public class RayTracerBasic extends RayTracer {
      * @return closest intersection {@link GeoPoint}
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        // check if ray constructed through the pixel intersects any of geometries
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(ray);
-
-        // return closest point if list is not empty
-        return intersections == null ? null : ray.findClosestGeoPoint(intersections);
+        // find the closest point where the ray intersects any of geometries,
+        // farther geometries are rejected on the way without building lists of intersections
+        return scene.getGeometries().findClosestGeoIntersection(ray);
 
     }
 
@@ -411,22 +651,22 @@ public class RayTracerBasic extends RayTracer {
         Ray shadowRay = new Ray(gp.point, n, lightScaled);
         // get distance from the light to the point
         double lightDistance = light.getDistance(shadowRay.getP0());
+        // the last geometry which blocked a shadow ray towards the light is likely to block this one too
+        Map<LightSource, Surface> cache = occluders.get();
+        Surface occluder = cache.get(light);
+        if (occluder != null && occluder.findTransparency(shadowRay, lightDistance, MIN_CALC_COLOR_K) == Double3.ZERO)
+            return Double3.ZERO;
         // check if new ray intersect a geometry between point and the light source
         // further objects behind the light are avoided by distance parameter
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(shadowRay, lightDistance);
-        // point is not shaded - return transparency level of 1
-        if (intersections == null)
-            return Double3.ONE;
-
-        // point is shaded - iterate through intersection points and add the shade effect from geometry
-        //to transparency level at point
-        Double3 ktr = Double3.ONE;
-        for (var geoPoint : intersections) {
-            ktr = ktr.scale(geoPoint.geometry.getMaterial().kT);
-            if (ktr.lowerThan(MIN_CALC_COLOR_K))
-                return Double3.ZERO;
-        }
-        // return the transparency
+        // the shade effect of every geometry on the way is folded into the transparency level at point,
+        // the query stops as soon as the transparency drops below minimal value
+        // and reports the opaque geometry blocking the ray in the same pass
+        Surface[] blocker = blockers.get();
+        blocker[0] = null;
+        Double3 ktr = scene.getGeometries().findTransparency(shadowRay, lightDistance, MIN_CALC_COLOR_K, blocker);
+        // remember the opaque geometry blocking the ray for the next shadow rays towards the light
+        if (blocker[0] != null)
+            cache.put(light, blocker[0]);
         return ktr;
     }
 
@@ -0,0 +1,248 @@
+package renderer;
+
+import primitives.Color;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Coordinator of a render farm - splits the view plane into tiles and serves them over a socket
+ * to {@link RenderWorker} processes (on the same host or on other nodes), then assembles the
+ * colors they send back in the image writer.<br/>
+ * A tile of a worker which dies, disconnects or stalls (sends nothing within the worker timeout)
+ * before sending the whole tile is handed to another worker.
+ * Workers may connect before or during the render, a render without live workers for longer
+ * than the worker timeout fails
+ */
+public class RenderCoordinator implements AutoCloseable {
+    /**
+     * time in milliseconds a connection handler waits for a tile before checking if the render is over
+     */
+    private static final long POLL_INTERVAL = 100;
+    /**
+     * default time in milliseconds to wait for a worker's reply or for a worker to connect
+     */
+    private static final int DEFAULT_WORKER_TIMEOUT = 60000;
+
+    private final ServerSocket server;
+    private final Thread acceptor;
+
+    /**
+     * tile of a render waiting for a worker
+     *
+     * @param tile        the tile
+     * @param latch       tiles not rendered yet in the render of the tile
+     * @param imageWriter image writer of the render of the tile
+     */
+    private record Job(TileScheduler.Tile tile, CountDownLatch latch, ImageWriter imageWriter) {
+    }
+
+    /**
+     * tiles waiting for a worker
+     */
+    private final BlockingDeque<Job> pending = new LinkedBlockingDeque<>();
+    /**
+     * tiles not rendered yet in the current render, null between renders
+     */
+    private volatile CountDownLatch remaining = null;
+    /**
+     * number of connected workers
+     */
+    private final AtomicInteger liveWorkers = new AtomicInteger(0);
+    /**
+     * time in milliseconds to wait for a worker's reply or for a worker to connect
+     */
+    private volatile int workerTimeout = DEFAULT_WORKER_TIMEOUT;
+
+    private Logger logger = Logger.getLogger("RenderCoordinator");
+
+    /**
+     * constructor - starts accepting workers' connections
+     *
+     * @param port port to listen on, 0 for any free port
+     * @throws IOException if the port cannot be opened
+     */
+    public RenderCoordinator(int port) throws IOException {
+        server = new ServerSocket(port);
+        acceptor = new Thread(this::acceptWorkers, "render coordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * port the coordinator listens on
+     *
+     * @return port number
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * setter for the worker timeout - a worker which sends nothing for this time while rendering a tile
+     * is disconnected and its tile is handed to another worker, and a render fails if no worker
+     * is connected for this time
+     *
+     * @param workerTimeout timeout in milliseconds
+     * @return the coordinator itself
+     * @throws IllegalArgumentException if the timeout is not positive
+     */
+    public RenderCoordinator setWorkerTimeout(int workerTimeout) {
+        if (workerTimeout <= 0)
+            throw new IllegalArgumentException("worker timeout must be positive");
+        this.workerTimeout = workerTimeout;
+        return this;
+    }
+
+    /**
+     * start a worker process on this host, with the class path of this process
+     *
+     * @param factory factory of the worker's camera
+     * @return the worker process
+     * @throws IOException if the process cannot be started
+     */
+    public Process startLocalWorker(Class<? extends CameraFactory> factory) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), RenderWorker.class.getName(),
+                "localhost", String.valueOf(getPort()), factory.getName())
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /**
+     * render the whole view plane by the connected workers - returns when all the tiles are written
+     * to the image writer (one render at a time)
+     *
+     * @param imageWriter image writer of the render
+     * @param tileSize    width and height of a tile in pixels
+     * @throws IllegalStateException if no worker is connected for longer than the worker timeout
+     * @throws CancellationException if the calling thread is interrupted - the image is not complete
+     */
+    public void render(ImageWriter imageWriter, int tileSize) {
+        TileScheduler scheduler = new TileScheduler(imageWriter.getNx(), imageWriter.getNy(), tileSize, TileOrder.SCANLINE, 0);
+        CountDownLatch latch = new CountDownLatch(scheduler.getTilesCount());
+        remaining = latch;
+        for (TileScheduler.Tile tile = scheduler.nextTile(); tile != null; tile = scheduler.nextTile())
+            pending.add(new Job(tile, latch, imageWriter));
+        try {
+            // fail the render if there are no live workers for longer than the timeout
+            long lastAlive = System.nanoTime();
+            while (!latch.await(POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+                if (liveWorkers.get() > 0)
+                    lastAlive = System.nanoTime();
+                else if (System.nanoTime() - lastAlive > TimeUnit.MILLISECONDS.toNanos(workerTimeout))
+                    throw new IllegalStateException("no live workers for " + workerTimeout + " ms - "
+                            + latch.getCount() + " tiles not rendered");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("render interrupted - " + latch.getCount() + " tiles not rendered");
+        } finally {
+            remaining = null;
+            pending.clear();
+        }
+    }
+
+    /**
+     * acceptor thread - start a connection handler thread for every connecting worker
+     */
+    private void acceptWorkers() {
+        try {
+            while (true) {
+                Socket socket = server.accept();
+                Thread handler = new Thread(() -> serveWorker(socket), "render worker " + socket.getRemoteSocketAddress());
+                handler.setDaemon(true);
+                handler.start();
+            }
+        } catch (IOException e) {
+            // the coordinator is closed
+        }
+    }
+
+    /**
+     * connection handler thread - send tiles to the worker and write the colors it sends back, until the
+     * coordinator is closed or the worker fails
+     *
+     * @param socket connection of the worker
+     */
+    private void serveWorker(Socket socket) {
+        Job job = null;
+        liveWorkers.incrementAndGet();
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            // a stalled worker fails the read, and its tile is handed to another worker
+            socket.setSoTimeout(workerTimeout);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            while (!server.isClosed()) {
+                job = pending.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                if (job == null)
+                    continue;
+                // tile left from a failed or interrupted render
+                if (job.latch != remaining) {
+                    job = null;
+                    continue;
+                }
+                TileScheduler.Tile tile = job.tile;
+                ImageWriter writer = job.imageWriter;
+
+                out.writeInt(RenderWorker.TILE);
+                out.writeInt(writer.getNx());
+                out.writeInt(writer.getNy());
+                out.writeInt(tile.col0);
+                out.writeInt(tile.row0);
+                out.writeInt(tile.col1);
+                out.writeInt(tile.row1);
+                out.flush();
+                // read the whole tile before writing it, so a failing worker leaves no partial tile
+                double[] colors = new double[3 * tile.size()];
+                for (int k = 0; k < colors.length; ++k)
+                    colors[k] = in.readDouble();
+                int k = 0;
+                for (int row = tile.row0; row < tile.row1; ++row)
+                    for (int col = tile.col0; col < tile.col1; ++col, k += 3)
+                        writer.writePixel(col, row, new Color(colors[k], colors[k + 1], colors[k + 2]));
+                job.latch.countDown();
+                job = null;
+            }
+            out.writeInt(RenderWorker.END);
+            out.flush();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "worker failed " + socket.getRemoteSocketAddress(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            liveWorkers.decrementAndGet();
+            // hand the tile of a failed worker to another worker, unless its render is over
+            if (job != null && job.latch == remaining)
+                pending.addFirst(job);
+        }
+    }
+
+    /**
+     * stop accepting workers and end the connected workers
+     */
+    @Override
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+        }
+    }
+}
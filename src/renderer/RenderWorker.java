@@ -0,0 +1,85 @@
+package renderer;
+
+import primitives.Color;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * Worker process of a render farm - connects to a {@link RenderCoordinator}, builds the camera with a
+ * {@link CameraFactory} and renders the tiles the coordinator sends until it is told to stop.<br/>
+ * Usage: {@code java renderer.RenderWorker host port factoryClassName}
+ */
+public class RenderWorker {
+    /**
+     * message of the coordinator: render a tile
+     */
+    static final int TILE = 1;
+    /**
+     * message of the coordinator: no more tiles
+     */
+    static final int END = 0;
+
+    private final Camera camera;
+
+    /**
+     * constructor
+     *
+     * @param factory factory of the camera rendering the tiles
+     */
+    public RenderWorker(CameraFactory factory) {
+        camera = factory.create();
+        camera.prepareScene();
+    }
+
+    /**
+     * render the tiles sent by a coordinator until it ends the render
+     *
+     * @param host host of the coordinator
+     * @param port port of the coordinator
+     * @throws IOException if the connection fails
+     */
+    public void work(String host, int port) throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            while (in.readInt() == TILE) {
+                // tile message: view plane resolution and tile borders
+                int nX = in.readInt(), nY = in.readInt();
+                int col0 = in.readInt(), row0 = in.readInt(), col1 = in.readInt(), row1 = in.readInt();
+                camera.startTile();
+                // reply with the colors of the tile's pixels row by row
+                for (int row = row0; row < row1; ++row)
+                    for (int col = col0; col < col1; ++col) {
+                        Color color = camera.renderPixel(nX, nY, col, row);
+                        out.writeDouble(color.getRed());
+                        out.writeDouble(color.getGreen());
+                        out.writeDouble(color.getBlue());
+                    }
+                out.flush();
+            }
+        } catch (EOFException e) {
+            // the coordinator closed the connection
+        }
+    }
+
+    /**
+     * worker process entry point
+     *
+     * @param args host and port of the coordinator, and class name of the {@link CameraFactory}
+     * @throws Exception if the factory cannot be created or the connection fails
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3)
+            throw new IllegalArgumentException("usage: RenderWorker host port factoryClassName");
+        var constructor = Class.forName(args[2]).asSubclass(CameraFactory.class).getDeclaredConstructor();
+        constructor.setAccessible(true);
+        new RenderWorker(constructor.newInstance()).work(args[0], Integer.parseInt(args[1]));
+    }
+}
@@ -0,0 +1,22 @@
+package renderer;
+
+/**
+ * orders in which the tiles of the view plane are handed out to the rendering threads
+ */
+public enum TileOrder
+    {
+        /**
+         * tiles are rendered row by row, from the top left corner of the view plane
+         */
+        SCANLINE,
+        /**
+         * tiles are rendered along a Hilbert curve - consecutive tiles are always adjacent,
+         * so threads work on close regions of the scene
+         */
+        HILBERT,
+        /**
+         * tiles are rendered in a spiral starting at the center of the view plane,
+         * so the center of the image is ready first
+         */
+        SPIRAL
+    }
@@ -0,0 +1,481 @@
+package renderer;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+/**
+ * TileScheduler is a helper class for rendering the view plane in rectangular tiles.<br/>
+ * The view plane is split into tiles of tileSize x tileSize pixels, ordered once by a {@link TileOrder}.
+ * Rendering threads take the next tile from a lock-free atomic counter, and progress
+ * is tracked once per finished tile rather than once per pixel.<br/>
+ * Alternatively the view plane is rendered by a {@link ForkJoinPool}, recursively split
+ * into regions down to the tile size so idle workers steal the expensive regions.<br/>
+ * With a {@link Checkpoint} the pixels loaded from it are skipped and every rendered region is recorded in it.
+ */
+class TileScheduler {
+    /**
+     * rendering of a single pixel of the view plane
+     */
+    @FunctionalInterface
+    interface PixelTask {
+        /**
+         * render the pixel (col,row) of the view plane
+         *
+         * @param col column index of pixel
+         * @param row row index of pixel
+         */
+        void render(int col, int row);
+
+        /**
+         * called by the rendering thread before it renders the pixels of a tile
+         */
+        default void startTile() {
+        }
+
+        /**
+         * create pixel rendering with a tile start action
+         *
+         * @param task      rendering of a single pixel
+         * @param startTile action before rendering the pixels of a tile
+         * @return the pixel rendering
+         */
+        static PixelTask of(PixelTask task, Runnable startTile) {
+            return new PixelTask() {
+                @Override
+                public void render(int col, int row) {
+                    task.render(col, row);
+                }
+
+                @Override
+                public void startTile() {
+                    startTile.run();
+                }
+            };
+        }
+    }
+
+    /**
+     * rectangular region of the view plane
+     */
+    static final class Tile {
+        /**
+         * first column and first row of the tile
+         */
+        final int col0, row0;
+        /**
+         * column and row following the last column and last row of the tile
+         */
+        final int col1, row1;
+
+        /**
+         * constructor
+         *
+         * @param col0 first column of the tile
+         * @param row0 first row of the tile
+         * @param col1 column following the last column of the tile
+         * @param row1 row following the last row of the tile
+         */
+        Tile(int col0, int row0, int col1, int row1) {
+            this.col0 = col0;
+            this.row0 = row0;
+            this.col1 = col1;
+            this.row1 = row1;
+        }
+
+        /**
+         * get number of pixels in the tile
+         *
+         * @return tile area in pixels
+         */
+        int size() {
+            return (col1 - col0) * (row1 - row0);
+        }
+    }
+
+    /**
+     * format of the progress percentage - every print overwrites the previous one on the same line
+     */
+    private static final String PRINT_FORMAT = "%5.1f%%\r";
+
+    /**
+     * tiles of the view plane in rendering order
+     */
+    private final Tile[] tiles;
+    /**
+     * index of the next tile to hand out
+     */
+    private final AtomicInteger next = new AtomicInteger(0);
+    /**
+     * number of finished pixels (updated once per tile)
+     */
+    private final AtomicLong pixels = new AtomicLong(0);
+    /**
+     * first failure of a rendering thread, null if there was no failure
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    /**
+     * last printed progress in tenths of percent
+     */
+    private final AtomicInteger lastPrinted = new AtomicInteger(-1);
+    private final int nX, nY, tileSize;
+    private final long totalPixels;
+    private final long printInterval;
+    private final boolean print;
+    /**
+     * checkpoint of the render, null if it is not used
+     */
+    private Checkpoint checkpoint = null;
+
+    /**
+     * constructor - splits the view plane into tiles
+     *
+     * @param nX       number of pixel columns
+     * @param nY       number of pixel rows
+     * @param tileSize width and height of a tile in pixels
+     * @param order    order of the tiles
+     * @param interval print time interval in seconds, 0 if printing is not required
+     */
+    TileScheduler(int nX, int nY, int tileSize, TileOrder order, double interval) {
+        if (tileSize <= 0)
+            throw new IllegalArgumentException("tile size must be positive");
+        this.nX = nX;
+        this.nY = nY;
+        this.tileSize = tileSize;
+        totalPixels = (long) nX * nY;
+        printInterval = (long) (interval * 1000);
+        print = printInterval != 0;
+
+        int tilesX = (nX + tileSize - 1) / tileSize;
+        int tilesY = (nY + tileSize - 1) / tileSize;
+        int[] ordered = switch (order) {
+            case SCANLINE -> scanlineOrder(tilesX, tilesY);
+            case HILBERT -> hilbertOrder(tilesX, tilesY);
+            case SPIRAL -> spiralOrder(tilesX, tilesY);
+        };
+
+        tiles = new Tile[ordered.length];
+        for (int k = 0; k < ordered.length; ++k) {
+            int col0 = (ordered[k] % tilesX) * tileSize;
+            int row0 = (ordered[k] / tilesX) * tileSize;
+            tiles[k] = new Tile(col0, row0, Math.min(col0 + tileSize, nX), Math.min(row0 + tileSize, nY));
+        }
+    }
+
+    /**
+     * set checkpoint of the render - pixels finished in it are not rendered, and rendered regions are recorded in it
+     *
+     * @param checkpoint checkpoint of the render, null if it is not used
+     * @return the scheduler itself
+     */
+    TileScheduler setCheckpoint(Checkpoint checkpoint) {
+        this.checkpoint = checkpoint;
+        return this;
+    }
+
+    /**
+     * get number of tiles
+     *
+     * @return number of tiles in the view plane
+     */
+    int getTilesCount() {
+        return tiles.length;
+    }
+
+    /**
+     * get tile by its position in rendering order
+     *
+     * @param index position of the tile
+     * @return the tile
+     */
+    Tile getTile(int index) {
+        return tiles[index];
+    }
+
+    /**
+     * provide the next tile to render - thread safe without locking
+     *
+     * @return next tile, null if there are no more tiles
+     */
+    Tile nextTile() {
+        int index = next.getAndIncrement();
+        return index < tiles.length ? tiles[index] : null;
+    }
+
+    /**
+     * render all the pixels of a tile and record its progress
+     *
+     * @param tile tile to render
+     * @param task rendering of a single pixel
+     */
+    void renderTile(Tile tile, PixelTask task) {
+        task.startTile();
+        if (checkpoint == null) {
+            for (int row = tile.row0; row < tile.row1; ++row)
+                for (int col = tile.col0; col < tile.col1; ++col)
+                    task.render(col, row);
+        } else {
+            boolean rendered = false;
+            for (int row = tile.row0; row < tile.row1; ++row)
+                for (int col = tile.col0; col < tile.col1; ++col)
+                    if (!checkpoint.isDone(col, row)) {
+                        task.render(col, row);
+                        rendered = true;
+                    }
+            if (rendered)
+                checkpoint.regionDone(tile);
+        }
+        pixels.addAndGet(tile.size());
+    }
+
+    /**
+     * check whether all the tiles of the view plane were rendered
+     *
+     * @return true if every tile was rendered
+     */
+    boolean isFinished() {
+        return pixels.get() == totalPixels;
+    }
+
+    /**
+     * render the whole view plane. a failure of a rendering thread stops handing out tiles
+     * and is thrown by this method after all the rendering threads finished
+     *
+     * @param threads number of threads: 0 - render in the calling thread,
+     *                -1 - use parallel streams, otherwise number of rendering threads
+     * @param task    rendering of a single pixel
+     * @throws CancellationException if the calling thread is interrupted while waiting for the rendering threads
+     */
+    void render(int threads, PixelTask task) {
+        if (threads == 0) {
+            for (Tile tile = nextTile(); tile != null; tile = nextTile()) {
+                renderTile(tile, task);
+                printProgress();
+            }
+            endProgress();
+        } else if (threads == -1) {
+            IntStream.range(0, tiles.length).parallel().forEach(k -> {
+                renderTile(tiles[k], task);
+                printProgress();
+            });
+            endProgress();
+        } else {
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; ++t) {
+                workers[t] = new Thread(() -> {
+                    for (Tile tile = nextTile(); tile != null; tile = nextTile())
+                        renderTile(tile, task);
+                });
+                workers[t].setUncaughtExceptionHandler((worker, e) -> fail(e));
+                workers[t].start();
+            }
+            waitToFinish(workers);
+
+            Throwable e = failure.get();
+            if (e instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            if (e instanceof Error error)
+                throw error;
+            if (e != null)
+                throw new IllegalStateException("rendering thread failed", e);
+        }
+    }
+
+    /**
+     * record the first failure of the rendering and stop handing out tiles
+     *
+     * @param e the failure
+     */
+    private void fail(Throwable e) {
+        failure.compareAndSet(null, e);
+        next.set(tiles.length);
+    }
+
+    /**
+     * render the whole view plane by recursive splitting in a fork join pool
+     * (the tiles order is not used - the regions are rendered as the pool's workers steal them)
+     *
+     * @param pool pool executing the rendering, may be shared between renders
+     * @param task rendering of a single pixel
+     */
+    void render(ForkJoinPool pool, PixelTask task) {
+        pool.invoke(new RegionAction(new Tile(0, 0, nX, nY), task));
+        endProgress();
+    }
+
+    /**
+     * rendering of a region of the view plane - splits the region in two halves along its longer side
+     * until it is not larger than a tile
+     */
+    private class RegionAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Tile region;
+        private final PixelTask task;
+
+        /**
+         * constructor
+         *
+         * @param region region of the view plane to render
+         * @param task   rendering of a single pixel
+         */
+        RegionAction(Tile region, PixelTask task) {
+            this.region = region;
+            this.task = task;
+        }
+
+        @Override
+        protected void compute() {
+            int width = region.col1 - region.col0;
+            int height = region.row1 - region.row0;
+            if (width <= tileSize && height <= tileSize) {
+                renderTile(region, task);
+                printProgress();
+            } else if (width >= height) {
+                int middle = region.col0 + width / 2;
+                invokeAll(new RegionAction(new Tile(region.col0, region.row0, middle, region.row1), task),
+                        new RegionAction(new Tile(middle, region.row0, region.col1, region.row1), task));
+            } else {
+                int middle = region.row0 + height / 2;
+                invokeAll(new RegionAction(new Tile(region.col0, region.row0, region.col1, middle), task),
+                        new RegionAction(new Tile(region.col0, middle, region.col1, region.row1), task));
+            }
+        }
+    }
+
+    /**
+     * wait for all rendering threads to finish and print the progress percentage - must be
+     * run from the main thread. an interrupt stops handing out tiles, and the rendering threads
+     * finish their current tiles before the render fails
+     *
+     * @param workers rendering threads
+     */
+    private void waitToFinish(Thread[] workers) {
+        if (print)
+            System.out.printf(PRINT_FORMAT, 0d);
+        boolean interrupted = false;
+        for (Thread worker : workers) {
+            while (worker.isAlive()) {
+                try {
+                    worker.join(print ? printInterval : 0);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    fail(new CancellationException("rendering interrupted"));
+                }
+                printProgress();
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        printProgress();
+        endProgress();
+    }
+
+    /**
+     * end the line of the progress percentage so the last print is kept
+     */
+    private void endProgress() {
+        if (print)
+            System.out.println();
+    }
+
+    /**
+     * print progress percentage if it changed since the last print
+     */
+    void printProgress() {
+        if (!print)
+            return;
+        int percentage = (int) (1000L * pixels.get() / totalPixels);
+        int last = lastPrinted.get();
+        if (last != percentage && lastPrinted.compareAndSet(last, percentage))
+            System.out.printf(PRINT_FORMAT, percentage / 10d);
+    }
+
+    /**
+     * tiles ordered row by row
+     *
+     * @param tilesX number of tile columns
+     * @param tilesY number of tile rows
+     * @return tile indices in rendering order
+     */
+    private static int[] scanlineOrder(int tilesX, int tilesY) {
+        return IntStream.range(0, tilesX * tilesY).toArray();
+    }
+
+    /**
+     * tiles ordered along a Hilbert curve covering the smallest power of two square containing the tile grid,
+     * curve cells outside the grid are skipped
+     *
+     * @param tilesX number of tile columns
+     * @param tilesY number of tile rows
+     * @return tile indices in rendering order
+     */
+    private static int[] hilbertOrder(int tilesX, int tilesY) {
+        int side = 1;
+        while (side < tilesX || side < tilesY)
+            side <<= 1;
+
+        int[] result = new int[tilesX * tilesY];
+        int count = 0;
+        for (long d = 0; d < (long) side * side && count < result.length; ++d) {
+            // convert distance along the curve to cell coordinates
+            int x = 0, y = 0;
+            long t = d;
+            for (int s = 1; s < side; s <<= 1) {
+                int rx = (int) (1 & (t / 2));
+                int ry = (int) (1 & (t ^ rx));
+                // rotate the quadrant
+                if (ry == 0) {
+                    if (rx == 1) {
+                        x = s - 1 - x;
+                        y = s - 1 - y;
+                    }
+                    int tmp = x;
+                    x = y;
+                    y = tmp;
+                }
+                x += s * rx;
+                y += s * ry;
+                t /= 4;
+            }
+            if (x < tilesX && y < tilesY)
+                result[count++] = y * tilesX + x;
+        }
+        return result;
+    }
+
+    /**
+     * tiles ordered in a square spiral starting at the central tile,
+     * spiral cells outside the grid are skipped
+     *
+     * @param tilesX number of tile columns
+     * @param tilesY number of tile rows
+     * @return tile indices in rendering order
+     */
+    private static int[] spiralOrder(int tilesX, int tilesY) {
+        int[] result = new int[tilesX * tilesY];
+        int x = (tilesX - 1) / 2, y = (tilesY - 1) / 2;
+        // directions: right, down, left, up
+        int[] dx = {1, 0, -1, 0};
+        int[] dy = {0, 1, 0, -1};
+        int count = 0, dir = 0, leg = 1;
+        result[count++] = y * tilesX + x;
+        while (count < result.length) {
+            // every leg length is walked twice before growing
+            for (int twice = 0; twice < 2 && count < result.length; ++twice, dir = (dir + 1) % 4) {
+                for (int step = 0; step < leg && count < result.length; ++step) {
+                    x += dx[dir];
+                    y += dy[dir];
+                    if (x >= 0 && x < tilesX && y >= 0 && y < tilesY)
+                        result[count++] = y * tilesX + x;
+                }
+            }
+            ++leg;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,17 @@
+package renderer;
+
+/**
+ * operators mapping the high dynamic range colors of the framebuffer to the 8 bit channels of the image
+ */
+public enum ToneMapping
+    {
+        /**
+         * channels are truncated and clamped to 255 - colors brighter than white are lost
+         */
+        CLAMP,
+        /**
+         * Reinhard operator c/(1+c) on channels normalized to 255 - bright colors are compressed
+         * smoothly instead of being clamped
+         */
+        REINHARD
+    }
@@ -0,0 +1,153 @@
+package renderer;
+
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * pixel sampler with variance driven Random Anti-Aliasing - random rays within the cells of an n*m grid
+ * of the pixel are cast in a stratified order (every prefix of the order is spread over the whole pixel),
+ * the running mean and variance of the colors are tracked (Welford's algorithm), and the sampling stops
+ * when the confidence interval of the mean is narrower than a threshold or the whole grid is sampled.
+ * Uniform pixels (background, flat walls) take a small batch of rays instead of the full beam
+ */
+public class VarianceSampler implements PixelSampler {
+    /**
+     * z value of the 95% confidence interval
+     */
+    private static final double Z = 1.96;
+    /**
+     * number of rays of the first batch besides the ray towards the center
+     */
+    private static final int FIRST_BATCH = 4;
+
+    /**
+     * number of rows in the grid of the pixel
+     */
+    private final int n;
+    /**
+     * number of columns in the grid of the pixel
+     */
+    private final int m;
+    /**
+     * maximal half width of the confidence interval of each color component
+     */
+    private final double threshold;
+    /**
+     * cells of the grid (row and column indices as in {@link Camera#constructRayBeam(int, int, int, int, Ray)})
+     * in stratified order
+     */
+    private final int[][] cells;
+
+    /**
+     * constructor
+     *
+     * @param n         first parameter to set number of random rays to cast
+     * @param m         second parameter to set number of rays to cast
+     * @param threshold maximal half width of the 95% confidence interval of the pixel color components
+     */
+    public VarianceSampler(int n, int m, double threshold) {
+        if (threshold <= 0)
+            throw new IllegalArgumentException("threshold must be positive");
+        this.n = n;
+        this.m = m;
+        this.threshold = threshold;
+
+        // same cells as the beam of the camera
+        int rows = n / 2 * 2, columns = m / 2 * 2;
+        cells = new int[rows * columns][];
+        for (int i = 0; i < rows; i++)
+            for (int j = 0; j < columns; j++)
+                cells[i * columns + j] = new int[]{i, j};
+        // order by the interleaved bits of the reversed indices - the first 4^k cells are spread evenly
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(Math.max(rows, columns) - 1, 1));
+        Arrays.sort(cells, Comparator.comparingLong(c -> interleave(reverse(c[0], bits), reverse(c[1], bits))));
+        for (int[] cell : cells) {
+            cell[0] -= n / 2;
+            cell[1] -= m / 2;
+        }
+    }
+
+    /**
+     * reverse the lower bits of an index
+     *
+     * @param index index to reverse
+     * @param bits  number of bits
+     * @return reversed index
+     */
+    private static int reverse(int index, int bits) {
+        return Integer.reverse(index) >>> (32 - bits);
+    }
+
+    /**
+     * interleave the bits of two indices
+     *
+     * @param row    first index (odd bits)
+     * @param column second index (even bits)
+     * @return the interleaved index
+     */
+    private static long interleave(int row, int column) {
+        long result = 0;
+        for (int bit = 0; bit < 31; ++bit)
+            result |= ((long) (row >> bit & 1) << (2 * bit + 1)) | ((long) (column >> bit & 1) << (2 * bit));
+        return result;
+    }
+
+    @Override
+    public Color samplePixel(Camera camera, int Nx, int Ny, int j, int i, Function<Ray, Color> tracer) {
+        // construct ray through pixel
+        Ray ray = camera.constructRay(Nx, Ny, j, i);
+        Point Pij = ray.getPoint(camera.getDistance());
+
+        // running mean and sum of squared differences from the mean of the components
+        double[] mean = new double[3];
+        double[] m2 = new double[3];
+        int count = add(tracer.apply(ray), 0, mean, m2);
+        for (int[] cell : cells) {
+            count = add(tracer.apply(camera.constructRandomRay(Nx, Ny, Pij, cell[0], cell[1], n, m)), count, mean, m2);
+            if (count > FIRST_BATCH && converged(count, m2))
+                break;
+        }
+        return new Color(mean[0], mean[1], mean[2]);
+    }
+
+    /**
+     * add a sample to the running mean and variance (Welford's algorithm)
+     *
+     * @param color sample color
+     * @param count number of samples before the sample
+     * @param mean  running mean of the components
+     * @param m2    running sums of squared differences from the mean
+     * @return number of samples including the sample
+     */
+    private static int add(Color color, int count, double[] mean, double[] m2) {
+        double[] sample = {color.getRed(), color.getGreen(), color.getBlue()};
+        ++count;
+        for (int c = 0; c < 3; ++c) {
+            double delta = sample[c] - mean[c];
+            mean[c] += delta / count;
+            m2[c] += delta * (sample[c] - mean[c]);
+        }
+        return count;
+    }
+
+    /**
+     * check whether the confidence interval of the mean of every component is narrower than the threshold
+     *
+     * @param count number of samples
+     * @param m2    running sums of squared differences from the mean
+     * @return true if sampling can stop
+     */
+    private boolean converged(int count, double[] m2) {
+        for (int c = 0; c < 3; ++c) {
+            double variance = m2[c] / (count - 1);
+            if (Z * Math.sqrt(variance / count) > threshold)
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,135 @@
+package scene;
+
+import geometries.BoundingBox;
+import lighting.LightSource;
+import primitives.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * spatial index of the light sources of a scene - a uniform grid over the influence boxes of the bounded lights.
+ * every cell of the grid holds the lights whose influence box overlaps the cell and the unbounded lights,
+ * in the order of the scene's list of lights (so the lights' contributions are summed in the same order)
+ */
+class LightIndex {
+    /**
+     * maximal number of cells of the grid on each axis
+     */
+    private static final int MAX_RESOLUTION = 32;
+
+    /**
+     * lights which influence every point (directional lights, lights without attenuation)
+     */
+    private final List<LightSource> unbounded;
+    /**
+     * lights of the cells of the grid, null if there are no bounded lights
+     */
+    private final List<List<LightSource>> cells;
+    /**
+     * number of cells on each axis
+     */
+    private final int nX, nY, nZ;
+    /**
+     * lower corner of the grid
+     */
+    private final double minX, minY, minZ;
+    /**
+     * size of a cell on each axis
+     */
+    private final double sizeX, sizeY, sizeZ;
+
+    /**
+     * constructor - build the grid over the influence boxes of the lights
+     *
+     * @param lights light sources of the scene
+     */
+    LightIndex(List<LightSource> lights) {
+        List<LightSource> unboundedLights = new ArrayList<>();
+        BoundingBox bounds = BoundingBox.EMPTY;
+        int boundedCount = 0;
+        for (LightSource light : lights) {
+            BoundingBox box = light.getInfluenceBox();
+            if (box.isBounded()) {
+                bounds = bounds.union(box);
+                ++boundedCount;
+            } else
+                unboundedLights.add(light);
+        }
+        unbounded = List.copyOf(unboundedLights);
+
+        if (boundedCount == 0) {
+            cells = null;
+            nX = nY = nZ = 0;
+            minX = minY = minZ = sizeX = sizeY = sizeZ = 0;
+            return;
+        }
+
+        // about 8 cells per bounded light
+        int resolution = Math.min(MAX_RESOLUTION, (int) Math.ceil(Math.cbrt(8d * boundedCount)));
+        Point min = bounds.getMin(), max = bounds.getMax();
+        minX = min.getX();
+        minY = min.getY();
+        minZ = min.getZ();
+        nX = max.getX() > minX ? resolution : 1;
+        nY = max.getY() > minY ? resolution : 1;
+        nZ = max.getZ() > minZ ? resolution : 1;
+        sizeX = (max.getX() - minX) / nX;
+        sizeY = (max.getY() - minY) / nY;
+        sizeZ = (max.getZ() - minZ) / nZ;
+
+        int count = nX * nY * nZ;
+        List<List<LightSource>> lists = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i)
+            lists.add(new ArrayList<>());
+        for (LightSource light : lights) {
+            BoundingBox box = light.getInfluenceBox();
+            if (!box.isBounded()) {
+                for (List<LightSource> list : lists)
+                    list.add(light);
+                continue;
+            }
+            Point boxMin = box.getMin(), boxMax = box.getMax();
+            int x0 = cell(boxMin.getX(), minX, sizeX, nX), x1 = cell(boxMax.getX(), minX, sizeX, nX);
+            int y0 = cell(boxMin.getY(), minY, sizeY, nY), y1 = cell(boxMax.getY(), minY, sizeY, nY);
+            int z0 = cell(boxMin.getZ(), minZ, sizeZ, nZ), z1 = cell(boxMax.getZ(), minZ, sizeZ, nZ);
+            for (int x = x0; x <= x1; ++x)
+                for (int y = y0; y <= y1; ++y)
+                    for (int z = z0; z <= z1; ++z)
+                        lists.get((x * nY + y) * nZ + z).add(light);
+        }
+        cells = lists.stream().map(List::copyOf).toList();
+    }
+
+    /**
+     * get the index of the cell containing a coordinate on an axis, clamped to the grid
+     *
+     * @param value coordinate
+     * @param min   lower boundary of the grid on the axis
+     * @param size  size of a cell on the axis
+     * @param n     number of cells on the axis
+     * @return index of the cell
+     */
+    private static int cell(double value, double min, double size, int n) {
+        if (size == 0)
+            return 0;
+        return Math.max(0, Math.min(n - 1, (int) ((value - min) / size)));
+    }
+
+    /**
+     * get the lights which may influence a point - the lights of the cell containing the point,
+     * or the unbounded lights only if the point is out of the grid
+     *
+     * @param p point to get the lights of
+     * @return lights which may influence the point
+     */
+    List<LightSource> getLights(Point p) {
+        if (cells == null)
+            return unbounded;
+        double x = p.getX() - minX, y = p.getY() - minY, z = p.getZ() - minZ;
+        if (x < 0 || y < 0 || z < 0 || x > sizeX * nX || y > sizeY * nY || z > sizeZ * nZ)
+            return unbounded;
+        return cells.get((cell(p.getX(), minX, sizeX, nX) * nY + cell(p.getY(), minY, sizeY, nY)) * nZ
+                + cell(p.getZ(), minZ, sizeZ, nZ));
+    }
+}
@@ -4,6 +4,7 @@ import lighting.AmbientLight;
 import geometries.Geometries;
 import lighting.LightSource;
 import primitives.Color;
+import primitives.Point;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -38,6 +39,11 @@ public class Scene {
      */
     private final List<LightSource> lights;
 
+    /**
+     * spatial index of the light sources, null until it is built
+     */
+    private volatile LightIndex lightIndex = null;
+
     /**
      * constructor (uses builder pattern)
      * @param builder {@link SceneBuilder} inner class instance
@@ -89,6 +95,26 @@ public class Scene {
         return lights;
     }
 
+    /**
+     * get the light sources which may contribute at a point - lights whose influence region does not
+     * contain the point are culled by the spatial index of the lights.
+     * all the lights are returned if the index is not built
+     * @param p {@link Point} to get the lights of
+     * @return collection of {@link LightSource} which may light the point, in the order of {@link #getLights()}
+     */
+    public List<LightSource> getLights(Point p) {
+        LightIndex index = lightIndex;
+        return index == null ? lights : index.getLights(p);
+    }
+
+    /**
+     * build the spatial index of the light sources by their influence regions,
+     * the index must be rebuilt after the light sources are changed
+     */
+    public void buildLightIndex() {
+        lightIndex = new LightIndex(lights);
+    }
+
     /**
      * inner class, responsible to create new instances of Scene objects
      * implements builder pattern
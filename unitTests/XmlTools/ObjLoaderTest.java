@@ -0,0 +1,116 @@
+package XmlTools;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.TriangleMesh;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * test for {@link ObjLoader} class functionalities
+ */
+class ObjLoaderTest {
+
+    /**
+     * Test method for {@link ObjLoader#load(Path)}
+     */
+    @Test
+    void testLoad(@TempDir Path dir) throws IOException {
+        Files.writeString(dir.resolve("box.mtl"), """
+                # materials
+                newmtl red
+                Kd 0.5 0.25 0.125
+                Ks 0.3 0.3 0.3
+                Ns 20
+                Ke 1 0 0
+                newmtl glass
+                d 0.25
+                """);
+        Files.writeString(dir.resolve("box.obj"), """
+                # two squares on the plane y = 0
+                mtllib box.mtl
+                o squares
+                v 0 0 0
+                v 1.0 0 0
+                v 1 0 1e0
+                v 0 0 1
+                vn 0 1 0
+                vt 0.5 0.5
+                usemtl red
+                f 1/1/1 2/1/1 3/1/1 4/1/1
+                v 2 0 0\r
+                v 3 0 0\r
+                v 3 0 1\r
+                v 2 0 1\r
+                usemtl glass
+                f -4//1 -3//1 -2//1 -1//1
+                """);
+        TriangleMesh mesh = ObjLoader.load(dir.resolve("box.obj"));
+
+        // TC01: vertices and triangles of the file
+        assertEquals(8, mesh.getVerticesCount(), "TC01 wrong number of vertices");
+        assertEquals(4, mesh.getTrianglesCount(), "TC01 wrong number of triangles");
+
+        // TC02: polygon split to triangles with the material of the first usemtl
+        GeoPoint gp = mesh.findClosestGeoIntersection(new Ray(new Point(0.25, -1, 0.75), new Vector(0, 1, 0)));
+        assertEquals(new Point(0.25, 0, 0.75), gp.point, "TC02 wrong point");
+        Material red = gp.geometry.getMaterial();
+        assertEquals(new Double3(0.5, 0.25, 0.125), red.kD, "TC02 wrong kD");
+        assertEquals(new Double3(0.3), red.kS, "TC02 wrong kS");
+        assertEquals(20, red.nShininess, "TC02 wrong shininess");
+        assertEquals(new Color(255, 0, 0), gp.geometry.getEmission(), "TC02 wrong emission");
+
+        // TC03: negative indices, windows line ends and the material of the second usemtl
+        gp = mesh.findClosestGeoIntersection(new Ray(new Point(2.75, -1, 0.25), new Vector(0, 1, 0)));
+        assertEquals(new Point(2.75, 0, 0.25), gp.point, "TC03 wrong point");
+        assertEquals(new Double3(0.75), gp.geometry.getMaterial().kT, "TC03 wrong kT");
+        assertEquals(Color.BLACK, gp.geometry.getEmission(), "TC03 wrong emission");
+    }
+
+    /**
+     * Test method for {@link ObjLoader#load(Path)} with malformed files
+     */
+    @Test
+    void testLoadErrors(@TempDir Path dir) throws IOException {
+        // TC01: face of a vertex not read yet
+        Files.writeString(dir.resolve("index.obj"), "v 0 0 0\nv 1 0 0\nv 1 1 0\nf 1 2 4\n");
+        IOException e = assertThrows(IOException.class, () -> ObjLoader.load(dir.resolve("index.obj")),
+                "TC01 index out of range");
+        assertTrue(e.getMessage().contains(":4:"), "TC01 error must point to the line");
+
+        // TC02: bad coordinate
+        Files.writeString(dir.resolve("number.obj"), "v 0 0 0\nv 1 x 0\n");
+        assertThrows(IOException.class, () -> ObjLoader.load(dir.resolve("number.obj")), "TC02 bad number");
+
+        // TC03: face with two vertices
+        Files.writeString(dir.resolve("face.obj"), "v 0 0 0\nv 1 0 0\nf 1 2\n");
+        assertThrows(IOException.class, () -> ObjLoader.load(dir.resolve("face.obj")), "TC03 bad face");
+    }
+
+    /**
+     * Test method for {@link ObjLoader#parseDouble(byte[], int, int)} -
+     * the numbers must be parsed exactly as {@link Double#parseDouble(String)} does
+     */
+    @Test
+    void testParseDouble() {
+        String[] numbers = {"0", "-0", "1", "+2.5", "-0.000001234", ".5", "5.", "3.14159265358979323846",
+                "1e10", "1.5E-7", "-2.75e+3", "123456789012345678901234", "0.1", "0.30000000000000004",
+                "1e-320", "1e308", "9007199254740993", "0000012.5000000"};
+        for (String number : numbers) {
+            byte[] bytes = ("#" + number + "#").getBytes(StandardCharsets.US_ASCII);
+            assertEquals(Double.parseDouble(number), ObjLoader.parseDouble(bytes, 1, number.length()),
+                    "wrong value of " + number);
+        }
+        assertThrows(NumberFormatException.class, () -> ObjLoader.parseDouble("1.2.3".getBytes(), 0, 5),
+                "bad number");
+        assertThrows(NumberFormatException.class, () -> ObjLoader.parseDouble("e5".getBytes(), 0, 2),
+                "bad number");
+    }
+}
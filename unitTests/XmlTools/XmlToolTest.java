@@ -0,0 +1,167 @@
+package XmlTools;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.TriangleMesh;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.*;
+import scene.Scene;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * test for {@link XmlTool} class functionalities
+ */
+class XmlToolTest {
+
+    /**
+     * stream of an XML document
+     *
+     * @param xml the document
+     * @return stream of the document
+     */
+    private static InputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * find the closest geometry of a scene along the negative z axis from a point
+     *
+     * @param scene the scene
+     * @param x     x of the point
+     * @param y     y of the point
+     * @return closest intersection, null if there is none
+     */
+    private static GeoPoint closest(Scene scene, double x, double y) {
+        return scene.getGeometries().findClosestGeoIntersection(new Ray(new Point(x, y, 100), new Vector(0, 0, -1)));
+    }
+
+    /**
+     * Test method for {@link XmlTool#createSceneFromXml(InputStream, String)}
+     */
+    @Test
+    void testCreateSceneFromStream() throws IOException {
+        Scene scene = XmlTool.createSceneFromXml(stream("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <scene background-color="75 127 190">
+                    <ambient-light color="255 191 191" k="0.1"/>
+                    <geometries>
+                        <sphere center="0 0 -100" radius="10" emission="100 0 0">
+                            <material kd="0.5" ks="0.2 0.3 0.4" kt="0.1" kr="0.2" shininess="30"/>
+                        </sphere>
+                        <triangle p0="20 0 -50" p1="30 0 -50" p2="20 10 -50"/>
+                        <polygon vertices="40 0 -50  50 0 -50  50 10 -50  40 10 -50" emission="0 100 0"/>
+                        <plane point="0 0 -500" normal="0 0 1"/>
+                        <tube origin="-40 -50 -100" direction="0 1 0" radius="5"/>
+                        <cylinder origin="-20 0 -100" direction="0 1 0" radius="5" height="10"/>
+                    </geometries>
+                    <lights>
+                        <directional-light intensity="100 100 100" direction="0 0 -1"/>
+                        <point-light intensity="500 300 0" position="0 50 0" kl="0.001" kq="0.0002"/>
+                        <spot-light intensity="400 400 400" position="0 0 50" direction="0 0 -1" radius="5"/>
+                    </lights>
+                </scene>
+                """), "stream");
+
+        // TC01: scene attributes and ambient light
+        assertEquals("stream", scene.getName(), "TC01 wrong name");
+        assertEquals(new Color(75, 127, 190), scene.getBackground(), "TC01 wrong background");
+        assertEquals(new Color(25.5, 19.1, 19.1), scene.getAmbientLight().getIntensity(), "TC01 wrong ambient light");
+
+        // TC02: geometries with their emission and material
+        GeoPoint gp = closest(scene, 0, 0);
+        assertEquals(new Point(0, 0, -90), gp.point, "TC02 wrong sphere");
+        assertEquals(new Color(100, 0, 0), gp.geometry.getEmission(), "TC02 wrong emission");
+        Material material = gp.geometry.getMaterial();
+        assertEquals(new Double3(0.5), material.kD, "TC02 wrong kD");
+        assertEquals(new Double3(0.2, 0.3, 0.4), material.kS, "TC02 wrong kS");
+        assertEquals(new Double3(0.1), material.kT, "TC02 wrong kT");
+        assertEquals(new Double3(0.2), material.kR, "TC02 wrong kR");
+        assertEquals(30, material.nShininess, "TC02 wrong shininess");
+        assertEquals(new Point(22, 2, -50), closest(scene, 22, 2).point, "TC02 wrong triangle");
+        gp = closest(scene, 45, 5);
+        assertEquals(new Point(45, 5, -50), gp.point, "TC02 wrong polygon");
+        assertEquals(new Color(0, 100, 0), gp.geometry.getEmission(), "TC02 wrong polygon emission");
+        assertEquals(new Point(100, 100, -500), closest(scene, 100, 100).point, "TC02 wrong plane");
+        assertEquals(new Point(-40, 0, -95), closest(scene, -40, 0).point, "TC02 wrong tube");
+        assertEquals(new Point(-20, 5, -95), closest(scene, -20, 5).point, "TC02 wrong cylinder");
+        assertEquals(new Point(-20, 15, -500), closest(scene, -20, 15).point, "TC02 cylinder must end at its height");
+
+        // TC03: lights in the order of the file
+        List<LightSource> lights = scene.getLights();
+        assertEquals(3, lights.size(), "TC03 wrong number of lights");
+        assertInstanceOf(DirectionalLight.class, lights.get(0), "TC03 wrong directional light");
+        assertInstanceOf(PointLight.class, lights.get(1), "TC03 wrong point light");
+        assertInstanceOf(SpotLight.class, lights.get(2), "TC03 wrong spot light");
+        assertEquals(new Point(0, 50, 0), ((PointLight) lights.get(1)).getPosition(), "TC03 wrong position");
+        assertEquals(new Color(500, 300, 0).reduce(1 + 0.001 * 50 + 0.0002 * 2500),
+                lights.get(1).getIntensity(Point.ZERO), "TC03 wrong attenuation");
+    }
+
+    /**
+     * Test method for {@link XmlTool#createSceneFromXml(Path, String)} - the scene file of the render tests
+     * and a mesh file relative to the scene file
+     */
+    @Test
+    void testCreateSceneFromPath(@TempDir Path dir) throws IOException {
+        // TC01: the file of the render tests
+        Scene scene = XmlTool.createSceneFromXml(Path.of("src/XmlTools/basicRenderTestTwoColors.xml"), "file");
+        assertEquals(new Color(75, 127, 190), scene.getBackground(), "TC01 wrong background");
+        assertEquals(new Point(0, 0, -50), closest(scene, 0, 0).point, "TC01 wrong sphere");
+        assertEquals(new Point(-90, 50, -100), closest(scene, -90, 50).point, "TC01 wrong triangle");
+
+        // TC02: mesh file with one material for all its triangles
+        Files.writeString(dir.resolve("square.obj"), "v 0 0 0\nv 1 0 0\nv 1 1 0\nv 0 1 0\nf 1 2 3 4\n");
+        Files.writeString(dir.resolve("scene.xml"), """
+                <scene>
+                    <geometries>
+                        <mesh file="square.obj" emission="0 0 100"><material kd="0.7"/></mesh>
+                    </geometries>
+                </scene>
+                """);
+        scene = XmlTool.createSceneFromXml(dir.resolve("scene.xml"), "mesh");
+        GeoPoint gp = closest(scene, 0.5, 0.25);
+        assertInstanceOf(TriangleMesh.Face.class, gp.geometry, "TC02 wrong mesh");
+        assertEquals(new Color(0, 0, 100), gp.geometry.getEmission(), "TC02 wrong emission");
+        assertEquals(new Double3(0.7), gp.geometry.getMaterial().kD, "TC02 wrong material");
+    }
+
+    /**
+     * Test method for {@link XmlTool#createSceneFromXml(InputStream, String)} with malformed documents
+     */
+    @Test
+    void testCreateSceneErrors() {
+        // TC01: missing attribute
+        IOException e = assertThrows(IOException.class, () -> XmlTool.createSceneFromXml(
+                        stream("<scene>\n<geometries>\n<sphere radius=\"1\"/>\n</geometries>\n</scene>"), "error"),
+                "TC01 missing attribute");
+        assertTrue(e.getMessage().contains("line 3"), "TC01 error must point to the line");
+        // TC02: wrong number of coordinates
+        assertThrows(IOException.class, () -> XmlTool.createSceneFromXml(
+                stream("<scene><geometries><sphere center=\"0 0\" radius=\"1\"/></geometries></scene>"), "error"),
+                "TC02 wrong number of coordinates");
+        // TC03: bad number
+        assertThrows(IOException.class, () -> XmlTool.createSceneFromXml(
+                stream("<scene><geometries><sphere center=\"0 0 x\" radius=\"1\"/></geometries></scene>"), "error"),
+                "TC03 bad number");
+        // TC04: invalid geometry
+        assertThrows(IOException.class, () -> XmlTool.createSceneFromXml(
+                stream("<scene><geometries><polygon vertices=\"0 0 0 1 0 0\"/></geometries></scene>"), "error"),
+                "TC04 invalid polygon");
+        // TC05: malformed document
+        assertThrows(IOException.class, () -> XmlTool.createSceneFromXml(stream("<scene><geometries>"), "error"),
+                "TC05 malformed document");
+    }
+}
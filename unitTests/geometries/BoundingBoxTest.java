@@ -0,0 +1,111 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * test for {@link BoundingBox} class functionalities
+ */
+class BoundingBoxTest {
+
+    BoundingBox box = new BoundingBox(0, 0, 0, 2, 2, 2);
+
+    /**
+     * Test method for {@link BoundingBox#intersects(Ray, double)}
+     */
+    @Test
+    void testIntersectsEP() {
+        // TC01: ray passes through the box
+        assertTrue(box.intersects(new Ray(new Point(-1, 1, 1), new Vector(1, 0.2, 0.1)), Double.POSITIVE_INFINITY),
+                "TC01 ray through the box");
+        // TC02: ray misses the box
+        assertFalse(box.intersects(new Ray(new Point(-1, 3, 1), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "TC02 ray beside the box");
+        // TC03: box is behind the ray
+        assertFalse(box.intersects(new Ray(new Point(-1, 1, 1), new Vector(-1, 0, 0)), Double.POSITIVE_INFINITY),
+                "TC03 box behind the ray");
+        // TC04: ray starts inside the box
+        assertTrue(box.intersects(new Ray(new Point(1, 1, 1), new Vector(1, 1, 1)), Double.POSITIVE_INFINITY),
+                "TC04 ray starts inside the box");
+        // TC05: box is farther than the distance boundary
+        assertFalse(box.intersects(new Ray(new Point(-5, 1, 1), new Vector(1, 0, 0)), 4),
+                "TC05 box beyond max distance");
+    }
+
+    /**
+     * Test method for {@link BoundingBox#intersects(Ray, double)}
+     */
+    @Test
+    void testIntersectsBVA() {
+        // TC10: ray parallel to an axis, on the face of the box
+        assertTrue(box.intersects(new Ray(new Point(-1, 2, 1), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "TC10 ray on the face of the box");
+        // TC11: flat box (polygon on a plane orthogonal to Z axis)
+        BoundingBox flat = new BoundingBox(0, 0, 0, 2, 2, 0);
+        assertTrue(flat.intersects(new Ray(new Point(1, 1, 5), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY),
+                "TC11 ray through flat box");
+        // TC12: distance boundary exactly at the box
+        assertTrue(box.intersects(new Ray(new Point(-4, 1, 1), new Vector(1, 0, 0)), 4),
+                "TC12 box at max distance");
+        // TC13: empty box
+        assertFalse(BoundingBox.EMPTY.intersects(new Ray(new Point(1, 1, 1), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "TC13 empty box");
+        // TC14: infinite box
+        assertTrue(BoundingBox.INFINITE.intersects(new Ray(new Point(1, 1, 1), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "TC14 infinite box");
+        // TC15: ray parallel to an axis, starting exactly on a slab plane of the (slightly enlarged) box
+        assertTrue(box.intersects(new Ray(new Point(-1, -1e-7, 1), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "TC15 ray on the slab plane");
+        assertTrue(box.intersects(new Ray(new Point(-1, 1, 2 + 1e-7), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "TC15 ray on the slab plane");
+        // TC16: ray parallel to an axis, beside the box
+        assertFalse(box.intersects(new Ray(new Point(1, -1e-6, -1), new Vector(0, 0, 1)), Double.POSITIVE_INFINITY),
+                "TC16 ray beside the box");
+    }
+
+    /**
+     * Test method for {@link Intersectable#getBoundingBox()}
+     */
+    @Test
+    void testGeometryBoxes() {
+        // TC01: sphere
+        BoundingBox sphereBox = new Sphere(new Point(1, 2, 3), 2).getBoundingBox();
+        assertEquals(new Point(-1, 0, 1), sphereBox.getMin(), "TC01 wrong sphere box");
+        assertEquals(new Point(3, 4, 5), sphereBox.getMax(), "TC01 wrong sphere box");
+
+        // TC02: polygon
+        BoundingBox polygonBox = new Polygon(new Point(0, 0, 1), new Point(2, 0, 1), new Point(2, 3, 1), new Point(0, 3, 1))
+                .getBoundingBox();
+        assertEquals(new Point(0, 0, 1), polygonBox.getMin(), "TC02 wrong polygon box");
+        assertEquals(new Point(2, 3, 1), polygonBox.getMax(), "TC02 wrong polygon box");
+
+        // TC03: cylinder along Y axis
+        BoundingBox cylinderBox = new Cylinder(new Ray(new Point(0, 0, 0), new Vector(0, 1, 0)), 1, 5).getBoundingBox();
+        assertEquals(new Point(-1, 0, -1), cylinderBox.getMin(), "TC03 wrong cylinder box");
+        assertEquals(new Point(1, 5, 1), cylinderBox.getMax(), "TC03 wrong cylinder box");
+
+        // TC04: plane orthogonal to an axis is flat on that axis, otherwise infinite
+        BoundingBox planeBox = new Plane(new Point(0, -50, 0), Vector.Y_AXIS).getBoundingBox();
+        assertFalse(planeBox.isBounded(), "TC04 plane must not be bounded");
+        assertFalse(planeBox.intersects(new Ray(new Point(0, 0, 0), new Vector(0, 1, 0)), Double.POSITIVE_INFINITY),
+                "TC04 ray away from axis aligned plane");
+        assertSame(BoundingBox.INFINITE, new Plane(new Point(0, 0, 0), new Vector(1, 1, 0)).getBoundingBox(),
+                "TC04 plane must be infinite");
+
+        // TC05: tube
+        assertSame(BoundingBox.INFINITE, new Tube(new Ray(Point.ZERO, new Vector(1, 1, 1)), 1).getBoundingBox(),
+                "TC05 tube must be infinite");
+
+        // TC06: collection wraps its geometries, empty collection is empty
+        Geometries geometries = new Geometries(new Sphere(new Point(1, 2, 3), 2), new Sphere(new Point(10, 0, 0), 1));
+        assertEquals(new Point(-1, -1, -1), geometries.getBoundingBox().getMin(), "TC06 wrong collection box");
+        assertEquals(new Point(11, 4, 5), geometries.getBoundingBox().getMax(), "TC06 wrong collection box");
+        assertTrue(new Geometries().getBoundingBox().isEmpty(), "TC06 empty collection box");
+
+        // TC07: adding to a collection updates its box
+        geometries.add(new Sphere(new Point(0, 20, 0), 1));
+        assertEquals(new Point(11, 21, 5), geometries.getBoundingBox().getMax(), "TC07 box not updated");
+    }
+}
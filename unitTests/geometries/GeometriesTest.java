@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import primitives.*;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -112,4 +113,172 @@ class GeometriesTest {
     }
 
 
-}
\ No newline at end of file
+    // tests for intersections with a collection organized as a bounding volume hierarchy
+
+    /**
+     * build a collection of a plane and a grid of small spheres, part of them in a nested collection
+     * @return the collection
+     */
+    private Geometries sphereGrid() {
+        Geometries nested = new Geometries();
+        Geometries result = new Geometries(new Plane(new Point(0, 0, -10), new Vector(0, 0, 1)), nested);
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j) {
+                Sphere sphere = new Sphere(new Point(i * 3, j * 3, 0), 1);
+                if ((i + j) % 2 == 0)
+                    result.add(sphere);
+                else
+                    nested.add(sphere);
+            }
+        return result;
+    }
+
+    /**
+     * Test method for {@link Geometries#buildBVH()}
+     */
+    @Test
+    void testBVHSameIntersections() {
+        Geometries linear = sphereGrid();
+        Geometries bvh = sphereGrid().setBVH(true);
+        bvh.buildBVH();
+
+        // TC01 - rays towards each of the spheres, between the spheres and parallel to the plane
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j) {
+                Ray ray = new Ray(new Point(i * 3 + 0.5, j * 3 - 0.5, 5), new Vector(0.05, 0.1, -1));
+                assertEquals(Set.copyOf(linear.findIntersections(ray)), Set.copyOf(bvh.findIntersections(ray)),
+                        "TC01 BVH intersections differ from the linear intersections");
+            }
+
+        // TC02 - ray between spheres hits only the plane
+        Ray between = new Ray(new Point(1.5, 1.5, 5), new Vector(0, 0, -1));
+        assertEquals(List.of(new Point(1.5, 1.5, -10)), bvh.findIntersections(between),
+                "TC02 ray between spheres should intersect only the plane");
+
+        // TC03 - ray misses all geometries
+        Ray miss = new Ray(new Point(1.5, 1.5, 5), new Vector(0, 0, 1));
+        assertNull(bvh.findIntersections(miss), "TC03 ray should not intersect any geometry");
+    }
+
+    /**
+     * Test method for {@link Geometries#add(Intersectable...)} of a nested collection
+     */
+    @Test
+    void testAddNested() {
+        Geometries nested = new Geometries(new Sphere(new Point(0, 0, 0), 1d));
+        Geometries outer = new Geometries(nested);
+        Ray ray = new Ray(new Point(10, 0, 5), new Vector(0, 0, -1));
+        // the boxes of both collections are cached
+        assertNull(outer.findIntersections(ray), "ray must miss the sphere");
+
+        // TC01: geometry added to the nested collection is not culled by the cached box of the outer collection
+        nested.add(new Sphere(new Point(10, 0, 0), 1d));
+        assertEquals(2, outer.findIntersections(ray).size(), "TC01 ray must hit the added sphere");
+
+        // TC02: nested collection flattened into a built BVH can not be added to
+        Geometries bvh = new Geometries(nested).setBVH(true);
+        bvh.buildBVH();
+        assertThrows(IllegalStateException.class, () -> nested.add(new Sphere(new Point(20, 0, 0), 1d)),
+                "TC02 flattened collection must not be changed");
+        // TC03: the collection of the BVH itself can be added to, the hierarchy is rebuilt
+        bvh.add(new Sphere(new Point(20, 0, 0), 1d));
+        bvh.buildBVH();
+        assertEquals(2, bvh.findIntersections(new Ray(new Point(20, 0, 5), new Vector(0, 0, -1))).size(),
+                "TC03 ray must hit the added sphere");
+    }
+
+    /**
+     * Test method for {@link Geometries#buildBVH()} with distance boundary
+     */
+    @Test
+    void testBVHMaxDistance() {
+        Geometries bvh = sphereGrid().setBVH(true);
+        bvh.buildBVH();
+        Ray ray = new Ray(new Point(0, 0, 5), new Vector(0, 0, -1));
+
+        // TC01 - only the closer point of the sphere is within the boundary
+        assertEquals(List.of(new Point(0, 0, 1)),
+                bvh.findGeoIntersections(ray, 4.5).stream().map(gp -> gp.point).toList(),
+                "TC01 wrong intersections within distance");
+
+        // TC02 - boundary before the sphere
+        assertNull(bvh.findGeoIntersections(ray, 3), "TC02 no intersections within distance");
+    }
+
+    /**
+     * Test method for {@link Intersectable#findTransparency(Ray, double, double)}
+     */
+    @Test
+    void testFindTransparency() {
+        Sphere glass = new Sphere(new Point(2, 0, 0), 1d);
+        glass.setMaterial(new Material().setkT(0.5));
+        Triangle wall = new Triangle(new Point(4, -2, -1), new Point(4, 2, -1), new Point(4, 0, 1));
+        Geometries scene = new Geometries(glass, wall);
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(1, 0, 0));
+
+        // TC01: ray passes through transparent sphere twice, opaque triangle is beyond the distance boundary
+        assertEquals(new Double3(0.25), scene.findTransparency(ray, 3.5, 0.001),
+                "TC01 wrong transparency through sphere");
+        // TC02: opaque triangle blocks the ray
+        assertSame(Double3.ZERO, scene.findTransparency(ray, 10, 0.001), "TC02 ray must be blocked");
+        // TC03: nothing on the way
+        assertEquals(Double3.ONE, scene.findTransparency(ray, 0.5, 0.001), "TC03 nothing should block the ray");
+        // TC04: accumulated transparency is below the minimal value
+        assertSame(Double3.ZERO, scene.findTransparency(ray, 3.5, 0.3), "TC04 ray must be considered blocked");
+        // TC05: transparency of a single intersection, ray starts inside the sphere
+        assertEquals(new Double3(0.5), glass.findTransparency(new Ray(new Point(2, 0, 0), new Vector(1, 0, 0)), 3, 0.001),
+                "TC05 wrong transparency from inside sphere");
+    }
+
+    /**
+     * Test method for {@link Intersectable#findTransparency(Ray, double, double, Surface[])}
+     */
+    @Test
+    void testFindTransparencyOccluder() {
+        Sphere glass = new Sphere(new Point(2, 0, 0), 1d);
+        glass.setMaterial(new Material().setkT(0.5));
+        Triangle wall = new Triangle(new Point(4, -2, -1), new Point(4, 2, -1), new Point(4, 0, 1));
+        Geometries scene = new Geometries(glass, new Geometries(wall));
+        scene.buildBVH();
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(1, 0, 0));
+
+        // TC01: opaque triangle blocks the ray and is reported in the same query
+        Surface[] occluder = new Surface[1];
+        assertSame(Double3.ZERO, scene.findTransparency(ray, 10, 0.001, occluder), "TC01 ray must be blocked");
+        assertSame(wall, occluder[0], "TC01 wrong occluder");
+        // TC02: ray blocked only by accumulated transparency below the minimal value - no occluder
+        occluder[0] = null;
+        assertSame(Double3.ZERO, scene.findTransparency(ray, 3.5, 0.3, occluder), "TC02 ray must be blocked");
+        assertNull(occluder[0], "TC02 transparent geometry must not be an occluder");
+        // TC03: ray not blocked - no occluder
+        assertEquals(new Double3(0.25), scene.findTransparency(ray, 3.5, 0.001, occluder), "TC03 wrong transparency");
+        assertNull(occluder[0], "TC03 nothing should block the ray");
+    }
+
+    /**
+     * Test method for {@link Intersectable#findClosestGeoIntersection(Ray)}
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        // TC01: closest of all the geometries (sphere front)
+        Ray ray = new Ray(new Point(0.5, 0, 0), new Vector(1, 0, 0));
+        assertEquals(new Intersectable.GeoPoint(sphere, new Point(1, 0, 0)), geometries.findClosestGeoIntersection(ray),
+                "TC01 wrong closest intersection");
+        // TC02: ray starts inside the sphere
+        ray = new Ray(new Point(2.5, 0, 0), new Vector(1, 0, 0));
+        assertEquals(new Intersectable.GeoPoint(sphere, new Point(3, 0, 0)), geometries.findClosestGeoIntersection(ray),
+                "TC02 wrong closest intersection");
+        // TC03: closest point beyond the distance boundary
+        assertNull(geometries.findClosestGeoIntersection(ray, 0.4), "TC03 intersection beyond max distance");
+        // TC04: no intersections
+        assertNull(geometries.findClosestGeoIntersection(new Ray(new Point(0, 5, 0), new Vector(0, 1, 0))),
+                "TC04 no intersections");
+        // TC05: same closest point with bounding volume hierarchy
+        Geometries grid = sphereGrid();
+        Geometries gridBVH = sphereGrid().setBVH(true);
+        gridBVH.buildBVH();
+        ray = new Ray(new Point(-5, -4.8, 0.1), new Vector(1, 1, 0));
+        assertEquals(ray.findClosestGeoPoint(grid.findGeoIntersections(ray)).point,
+                gridBVH.findClosestGeoIntersection(ray).point, "TC05 wrong closest intersection with BVH");
+    }
+}
@@ -0,0 +1,144 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * test for {@link TriangleMesh} class functionalities
+ */
+class TriangleMeshTest {
+
+    /**
+     * unit square on the plane y = 0 made of two triangles sharing the diagonal from (0,0,0) to (1,0,1)
+     */
+    private TriangleMesh square() {
+        return new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 1, 0, 1, 0, 0, 1}, new int[]{0, 1, 2, 0, 2, 3});
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#TriangleMesh(double[], int[])}
+     */
+    @Test
+    void testConstructor() {
+        // TC01: vertices not made of triples
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(new double[]{0, 0, 0, 1}, new int[]{}),
+                "TC01 vertices must be triples");
+        // TC02: vertex index out of range
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 1, 1, 0}, new int[]{0, 1, 3}),
+                "TC02 index out of range");
+        // TC03: material id out of range
+        assertThrows(IllegalArgumentException.class,
+                () -> square().setMaterials(new int[]{0, 1}, new Material[]{new Material()}, new Color[]{Color.BLACK}),
+                "TC03 material id out of range");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findGeoIntersections(Ray)}
+     */
+    @Test
+    void testFindGeoIntersections() {
+        Material red = new Material().setkD(0.5);
+        TriangleMesh mesh = square().setMaterials(new int[]{0, 1}, new Material[]{new Material(), red},
+                new Color[]{Color.BLACK, new Color(200, 0, 0)});
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray crosses the second triangle
+        List<GeoPoint> result = mesh.findGeoIntersections(new Ray(new Point(0.25, -1, 0.75), new Vector(0, 1, 0)));
+        assertEquals(1, result.size(), "TC01 ray crosses the mesh once");
+        GeoPoint gp = result.get(0);
+        assertEquals(new Point(0.25, 0, 0.75), gp.point, "TC01 wrong point");
+        assertEquals(1, ((TriangleMesh.Face) gp.geometry).getIndex(), "TC01 wrong triangle");
+        assertSame(red, gp.geometry.getMaterial(), "TC01 wrong material");
+        assertEquals(new Color(200, 0, 0), gp.geometry.getEmission(), "TC01 wrong emission");
+        assertEquals(new Vector(0, -1, 0), gp.geometry.getNormal(gp.point), "TC01 wrong normal");
+
+        // TC02: ray misses the mesh
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(2, -1, 0.5), new Vector(0, 1, 0))),
+                "TC02 ray misses the mesh");
+
+        // TC03: mesh beyond the distance boundary
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(0.25, -1, 0.75), new Vector(0, 1, 0)), 0.5),
+                "TC03 mesh beyond the distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: ray through the shared edge hits the mesh (no crack between the triangles)
+        assertNotNull(mesh.findClosestGeoIntersection(new Ray(new Point(0.5, -1, 0.5), new Vector(0, 1, 0))),
+                "TC11 ray through the shared edge");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findClosestGeoIntersection(Ray)} -
+     * a random mesh must find the same closest points as its triangles one by one
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Random random = new Random(7);
+        int count = 500;
+        double[] vertices = new double[9 * count];
+        int[] indices = new int[3 * count];
+        for (int i = 0; i < count; ++i) {
+            double x = random.nextDouble() * 100, y = random.nextDouble() * 100, z = random.nextDouble() * 100;
+            for (int k = 0; k < 3; ++k) {
+                vertices[9 * i + 3 * k] = x + random.nextDouble() * 10;
+                vertices[9 * i + 3 * k + 1] = y + random.nextDouble() * 10;
+                vertices[9 * i + 3 * k + 2] = z + random.nextDouble() * 10;
+                indices[3 * i + k] = 3 * i + k;
+            }
+        }
+        TriangleMesh mesh = new TriangleMesh(vertices, indices);
+        Geometries triangles = new Geometries();
+        for (int i = 0; i < count; ++i)
+            triangles.add(new Triangle(new Point(vertices[9 * i], vertices[9 * i + 1], vertices[9 * i + 2]),
+                    new Point(vertices[9 * i + 3], vertices[9 * i + 4], vertices[9 * i + 5]),
+                    new Point(vertices[9 * i + 6], vertices[9 * i + 7], vertices[9 * i + 8])));
+
+        int hits = 0;
+        for (int i = 0; i < 1000; ++i) {
+            Ray ray = new Ray(new Point(-20, random.nextDouble() * 100, random.nextDouble() * 100),
+                    new Vector(1, random.nextDouble() - 0.5, random.nextDouble() - 0.5));
+            GeoPoint expected = triangles.findClosestGeoIntersection(ray);
+            GeoPoint actual = mesh.findClosestGeoIntersection(ray);
+            if (expected == null) {
+                assertNull(actual, "TC01 ray " + i + " must miss the mesh");
+                continue;
+            }
+            ++hits;
+            assertNotNull(actual, "TC01 ray " + i + " must hit the mesh");
+            assertEquals(0, expected.point.distance(actual.point), 1e-9, "TC01 wrong closest point of ray " + i);
+            List<GeoPoint> all = mesh.findGeoIntersections(ray);
+            assertEquals(triangles.findGeoIntersections(ray).size(), all.size(), "TC02 wrong intersections of ray " + i);
+        }
+        assertTrue(hits > 100, "the rays must hit the mesh");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findTransparency(Ray, double, double, Surface[])}
+     */
+    @Test
+    void testFindTransparency() {
+        // two parallel squares - a transparent one at y = 0 and an opaque one at y = 1
+        TriangleMesh mesh = new TriangleMesh(
+                new double[]{0, 0, 0, 1, 0, 0, 1, 0, 1, 0, 0, 1, 0, 1, 0, 1, 1, 0, 1, 1, 1, 0, 1, 1},
+                new int[]{0, 1, 2, 0, 2, 3, 4, 5, 6, 4, 6, 7})
+                .setMaterials(new int[]{0, 0, 1, 1}, new Material[]{new Material().setkT(0.5), new Material()},
+                        new Color[]{Color.BLACK, Color.BLACK});
+        Ray ray = new Ray(new Point(0.25, -1, 0.75), new Vector(0, 1, 0));
+
+        // TC01: ray through the transparent square only
+        Surface[] occluder = new Surface[1];
+        assertEquals(new Double3(0.5), mesh.findTransparency(ray, 1.5, 0.001, occluder), "TC01 wrong transparency");
+        assertNull(occluder[0], "TC01 transparent square is not an occluder");
+
+        // TC02: ray through both squares is blocked by the opaque one
+        assertSame(Double3.ZERO, mesh.findTransparency(ray, 3, 0.001, occluder), "TC02 ray must be blocked");
+        assertEquals(3, ((TriangleMesh.Face) occluder[0]).getIndex(), "TC02 wrong occluder");
+        assertSame(Double3.ZERO, occluder[0].findTransparency(ray, 3, 0.001), "TC02 occluder must block the ray");
+    }
+}
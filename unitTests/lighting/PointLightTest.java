@@ -0,0 +1,119 @@
+package lighting;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * test for {@link PointLight} area light sampling
+ */
+class PointLightTest {
+
+    /**
+     * Test method for {@link PointLight#forEachL(Point, java.util.function.Consumer)}
+     */
+    @Test
+    void testForEachL() {
+        Point p = new Point(10, 0, 0);
+
+        // TC01: light without radius passes the single direction to the point
+        PointLight light = new PointLight(new Color(100, 100, 100), Point.ZERO);
+        List<Vector> vectors = new ArrayList<>();
+        assertEquals(1, light.forEachL(p, vectors::add), "TC01 wrong number of samples");
+        assertEquals(List.of(light.getL(p)), vectors, "TC01 wrong direction");
+
+        // TC02: light with radius passes the configured number of samples, on a disk facing the point
+        light.setRadius(1d).setSamples(50);
+        vectors.clear();
+        assertEquals(50, light.forEachL(p, vectors::add), "TC02 wrong number of samples");
+        assertEquals(50, vectors.size(), "TC02 wrong number of directions");
+        double maxY = 0, maxZ = 0;
+        for (Vector l : vectors) {
+            assertTrue(l.dotProduct(Vector.X_AXIS) >= Math.cos(Math.atan(0.1)) - 1e-9, "TC02 direction out of the disk");
+            maxY = Math.max(maxY, Math.abs(l.getY()));
+            maxZ = Math.max(maxZ, Math.abs(l.getZ()));
+        }
+        // the disk is seen face on from the point - spread in both axes perpendicular to the light direction
+        assertTrue(maxY > 0.05 && maxZ > 0.05, "TC02 disk must face the point");
+
+        // TC03: sample sequence positions are repeated for the same point
+        light.setSampleSequence(SampleSequence.HALTON).setSamples(16);
+        List<Vector> first = light.getListL(p);
+        assertEquals(16, first.size(), "TC03 wrong number of samples");
+        assertEquals(first, light.getListL(p), "TC03 samples must be repeated");
+    }
+
+    /**
+     * Test method for {@link PointLight#forEachL(Point, java.util.function.Consumer)} with a number of samples
+     * which is not a square - the stratified samples are centered on the light
+     */
+    @Test
+    void testForEachLNotSquare() {
+        Point p = new Point(10, 0, 0);
+        PointLight light = new PointLight(new Color(100, 100, 100), Point.ZERO, 1d).setSamples(10);
+        double[] sum = {0, 0};
+        final int count = 2000;
+        for (int i = 0; i < count; ++i)
+            assertEquals(10, light.forEachL(p, l -> {
+                sum[0] += l.getY();
+                sum[1] += l.getZ();
+            }), "wrong number of samples");
+        assertEquals(0, sum[0] / (10 * count), 0.002, "samples must not be biased to a side of the disk");
+        assertEquals(0, sum[1] / (10 * count), 0.002, "samples must not be biased to a side of the disk");
+    }
+
+    /**
+     * Test method for {@link PointLight#forEachBoundaryL(Point, java.util.function.Consumer)}
+     */
+    @Test
+    void testForEachBoundaryL() {
+        Point p = new Point(0, 0, -10);
+
+        // TC01: light without radius passes the single direction to the point
+        PointLight light = new PointLight(new Color(100, 100, 100), Point.ZERO);
+        List<Vector> vectors = new ArrayList<>();
+        assertEquals(1, light.forEachBoundaryL(p, vectors::add), "TC01 wrong number of samples");
+        assertEquals(List.of(light.getL(p)), vectors, "TC01 wrong direction");
+
+        // TC02: light with radius passes its center and 8 samples on the rim of the disk facing the point
+        light.setRadius(1d);
+        vectors.clear();
+        assertEquals(9, light.forEachBoundaryL(p, vectors::add), "TC02 wrong number of samples");
+        assertEquals(light.getL(p), vectors.remove(0), "TC02 first sample must be the center");
+        double x = 0, y = 0;
+        for (Vector l : vectors) {
+            assertEquals(Math.cos(Math.atan(0.1)), -l.getZ(), 1e-9, "TC02 sample must be on the rim");
+            x += l.getX();
+            y += l.getY();
+        }
+        assertEquals(0, x, 1e-9, "TC02 samples must surround the center");
+        assertEquals(0, y, 1e-9, "TC02 samples must surround the center");
+    }
+
+    /**
+     * Test method for {@link PointLight#influences(Point)} and {@link SpotLight#influences(Point)}
+     */
+    @Test
+    void testInfluences() {
+        // TC01: light without attenuation by distance influences every point
+        PointLight light = new PointLight(new Color(100, 50, 0), Point.ZERO);
+        assertEquals(Double.POSITIVE_INFINITY, light.getInfluenceRadius(), "TC01 wrong influence radius");
+        assertFalse(light.getInfluenceBox().isBounded(), "TC01 influence box must be infinite");
+
+        // TC02: intensity at the influence radius is negligible (the strongest component is 0.1)
+        light.setkL(0.01).setkQ(0.001);
+        double radius = light.getInfluenceRadius();
+        assertEquals(0.1, light.getIntensity(new Point(radius, 0, 0)).getRed(), 1e-9, "TC02 wrong influence radius");
+        assertTrue(light.influences(new Point(0, radius - 1, 0)), "TC02 point inside the radius");
+        assertFalse(light.influences(new Point(0, 0, radius + 1)), "TC02 point outside the radius");
+
+        // TC03: spotlight influences only the points in front of it
+        SpotLight spot = new SpotLight(new Color(100, 50, 0), Point.ZERO, new Vector(0, 0, -1));
+        assertTrue(spot.influences(new Point(5, 5, -1)), "TC03 point in front of the spotlight");
+        assertFalse(spot.influences(new Point(5, 5, 1)), "TC03 point behind the spotlight");
+    }
+}
@@ -0,0 +1,47 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * tests for {@link Rgb} class functionalities
+ */
+class RgbTest {
+    Color color = new Color(30, 60, 90);
+    Double3 k = new Double3(0.5, 0.25, 1);
+
+    /**
+     * testing method {@link primitives.Rgb#addScaled(Color, Double3, Double3, double)}
+     */
+    @Test
+    void testAddScaled() {
+        Double3 factor = new Double3(0.3, 0.7, 0.9);
+        Color expected = color.scale(k).scale(factor.scale(0.37)).add(color.scale(k).scale(factor.scale(1.3)));
+        Color result = new Rgb().addScaled(color, k, factor, 0.37).addScaled(color, k, factor, 1.3).toColor();
+        assertEquals(expected.toString(), result.toString(), "addScaled does not match Color operations");
+    }
+
+    /**
+     * testing method {@link primitives.Rgb#addScaled(Color, Double3)}
+     */
+    @Test
+    void testAddScaledTriad() {
+        Color expected = color.scale(k).add(new Color(1, 2, 3).scale(k));
+        Color result = new Rgb().addScaled(color, k).addScaled(new Color(1, 2, 3), k).toColor();
+        assertEquals(expected.toString(), result.toString(), "addScaled does not match Color operations");
+    }
+
+    /**
+     * testing methods {@link primitives.Rgb#add(Color)}, {@link primitives.Rgb#addReduced(Rgb, double)}
+     * and {@link primitives.Rgb#reset()}
+     */
+    @Test
+    void testAccumulate() {
+        Rgb beam = new Rgb().add(color).add(new Color(1, 2, 3));
+        Color expected = Color.BLACK.add(color.add(new Color(1, 2, 3)).reduce(7));
+        assertEquals(expected.toString(), new Rgb().addReduced(beam, 7).toColor().toString(),
+                "addReduced does not match Color operations");
+        assertEquals(Color.BLACK.toString(), beam.reset().toColor().toString(), "reset does not set black");
+    }
+}
@@ -0,0 +1,56 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * test for {@link SampleSequence} implementations
+ */
+class SampleSequenceTest {
+
+    /**
+     * Test method for {@link HaltonSequence#sample(long, int, int)}
+     */
+    @Test
+    void testHalton() {
+        SampleSequence halton = SampleSequence.HALTON;
+        long scramble = SampleSequence.scramble(new Point(1, 2, 3));
+
+        // TC01: every prefix of 2^k samples has one sample in each interval of 1/2^k (base 2)
+        boolean[] quarters = new boolean[4];
+        for (int k = 0; k < 4; ++k)
+            quarters[(int) (halton.sample(scramble, k, 0) * 4)] = true;
+        for (boolean quarter : quarters)
+            assertTrue(quarter, "TC01 quarter without sample");
+
+        // TC02: every prefix of 3^k samples has one sample in each interval of 1/3^k (base 3)
+        boolean[] ninths = new boolean[9];
+        for (int k = 0; k < 9; ++k)
+            ninths[(int) (halton.sample(scramble, k, 1) * 9)] = true;
+        for (boolean ninth : ninths)
+            assertTrue(ninth, "TC02 ninth without sample");
+
+        // TC03: the sequence is deterministic for a seed, and scrambled by other seeds
+        assertEquals(halton.sample(scramble, 5, 0), halton.sample(scramble, 5, 0), "TC03 sample must be repeated");
+        assertNotEquals(halton.sample(scramble, 5, 0),
+                halton.sample(SampleSequence.scramble(new Point(1, 2, 4)), 5, 0), "TC03 sample must be scrambled");
+
+        // TC04: radical inverse without scrambling
+        assertEquals(0.375, HaltonSequence.radicalInverse(6, 2), 1e-12, "TC04 wrong radical inverse");
+        assertEquals(7d / 9, HaltonSequence.radicalInverse(5, 3), 1e-12, "TC04 wrong radical inverse");
+    }
+
+    /**
+     * Test method for {@link RandomSequence#sample(long, int, int)}
+     */
+    @Test
+    void testRandom() {
+        // TC01: samples are in the unit interval, and the sequence is not used as low discrepancy
+        for (int k = 0; k < 100; ++k) {
+            double sample = SampleSequence.RANDOM.sample(0, k, 0);
+            assertTrue(sample >= 0 && sample < 1, "TC01 sample out of range");
+        }
+        assertFalse(SampleSequence.RANDOM.isLowDiscrepancy(), "TC01 random sequence is not low discrepancy");
+    }
+}
@@ -1,7 +1,9 @@
 package renderer;
 
 import org.junit.jupiter.api.Test;
+import geometries.Sphere;
 import primitives.*;
+import scene.Scene;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -103,4 +105,51 @@ class CameraTest {
                 camera1.constructRay(4, 4, 1, 0), badRay);
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for
+     * {@link Camera#renderProgressive()}.
+     */
+    @Test
+    void testRenderProgressive() {
+        Scene scene = new Scene.SceneBuilder("progressive").setBackground(new Color(0, 0, 255)).build();
+        scene.getGeometries().add(new Sphere(new Point(0, 0, -100), 50).setEmission(new Color(255, 0, 0)));
+
+        // TC01: passes of 1, 2x2 and 4x4 rays besides the center ray are accumulated in every pixel
+        ImageWriter full = new ImageWriter("progressive", 8, 8);
+        new Camera.CameraBuilder(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100).setVPSize(200, 200).setN(4).setM(4)
+                .setImageWriter(full).setRayTracer(new RayTracerBasic(scene))
+                .build().renderProgressive();
+        assertEquals(1 + 5 + 17, full.getSamples(0, 0), "TC01 wrong number of samples");
+        assertEquals(new Color(255, 0, 0), full.getPixel(4, 4), "TC01 wrong color in the sphere");
+        assertEquals(new Color(0, 0, 255), full.getPixel(0, 0), "TC01 wrong color of the background");
+
+        // TC02: time budget is over after the first pass
+        ImageWriter budget = new ImageWriter("progressive", 8, 8);
+        new Camera.CameraBuilder(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100).setVPSize(200, 200).setN(4).setM(4).setTimeBudget(1e-9)
+                .setImageWriter(budget).setRayTracer(new RayTracerBasic(scene))
+                .build().renderProgressive();
+        assertEquals(1, budget.getSamples(7, 7), "TC02 wrong number of samples");
+    }
+
+    /**
+     * Test method for
+     * {@link Camera#constructRayBeam(int, int, int, int, Ray)} with a low discrepancy sequence.
+     */
+    @Test
+    void testConstructRayBeamHalton() {
+        Camera camera = new Camera.CameraBuilder(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(10).setVPSize(8, 8).setSampleSequence(SampleSequence.HALTON)
+                .build();
+        Ray center = camera.constructRay(4, 4, 1, 1);
+        var beam = camera.constructRayBeam(4, 4, 4, 4, center);
+        // TC01: 4x4 rays besides the ray to the center, all through the pixel
+        assertEquals(17, beam.size(), "TC01 wrong number of rays");
+        for (Ray ray : beam) {
+            Point p = ray.getPoint(-10 / ray.getDir().getZ());
+            assertTrue(p.getX() >= -2 && p.getX() <= 0 && p.getY() >= 0 && p.getY() <= 2, "TC01 ray out of the pixel");
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package renderer;
+
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * test {@link Checkpoint} of a render
+ */
+class CheckpointTest {
+
+    Scene scene = new Scene.SceneBuilder("checkpoint").setBackground(new Color(0, 0, 255)).build();
+
+    /**
+     * camera of a 16x16 image of a sphere in tiles of 4x4 pixels
+     *
+     * @param imageWriter image writer of the render
+     * @param sampler     pixel sampler of the render
+     * @param checkpoint  checkpoint file, null for a render without checkpoint
+     * @return the camera
+     */
+    private Camera camera(ImageWriter imageWriter, PixelSampler sampler, Path checkpoint) {
+        return new Camera.CameraBuilder(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100).setVPSize(200, 200).setTileSize(4)
+                .setImageWriter(imageWriter).setRayTracer(new RayTracerBasic(scene))
+                .setPixelSampler(sampler).setCheckpoint(checkpoint)
+                .build();
+    }
+
+    /**
+     * Test method for {@link Camera.CameraBuilder#setCheckpoint(Path)}
+     */
+    @Test
+    void testResume() throws IOException {
+        scene.getGeometries().add(new Sphere(new Point(0, 0, -100), 50).setEmission(new Color(255, 0, 0)));
+        ImageWriter reference = new ImageWriter("checkpoint", 16, 16);
+        camera(reference, new CenterSampler(), null).renderImage();
+
+        Path file = Files.createTempFile("render", ".checkpoint");
+        Files.delete(file);
+        try {
+            // TC01: render dies in the middle of the seventh tile - the six finished tiles are in the checkpoint
+            AtomicInteger pixels = new AtomicInteger();
+            PixelSampler dying = (camera, nX, nY, j, i, tracer) -> {
+                if (pixels.incrementAndGet() > 100)
+                    throw new IllegalStateException("render died");
+                return new CenterSampler().samplePixel(camera, nX, nY, j, i, tracer);
+            };
+            assertThrows(IllegalStateException.class,
+                    () -> camera(new ImageWriter("checkpoint", 16, 16), dying, file).renderImage(), "TC01 render must die");
+            assertTrue(Files.exists(file), "TC01 checkpoint must be kept");
+
+            // TC02: resume skips the finished tiles, and a truncated last record is dropped
+            Files.write(file, new byte[]{1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+            AtomicInteger resumed = new AtomicInteger();
+            PixelSampler counting = (camera, nX, nY, j, i, tracer) -> {
+                resumed.incrementAndGet();
+                return new CenterSampler().samplePixel(camera, nX, nY, j, i, tracer);
+            };
+            ImageWriter imageWriter = new ImageWriter("checkpoint", 16, 16);
+            camera(imageWriter, counting, file).renderImage();
+            assertEquals(256 - 6 * 16, resumed.get(), "TC02 wrong number of rendered pixels");
+            for (int i = 0; i < 16; ++i)
+                for (int j = 0; j < 16; ++j)
+                    assertEquals(reference.getPixel(j, i).getColor(), imageWriter.getPixel(j, i).getColor(),
+                            "TC02 wrong pixel (" + j + "," + i + ")");
+
+            // TC03: checkpoint of a completed render is deleted
+            assertFalse(Files.exists(file), "TC03 checkpoint must be deleted");
+
+            // TC04: a rendering thread dies - the failure is thrown and the checkpoint is kept
+            pixels.set(0);
+            Camera threads = new Camera.CameraBuilder(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setVPDistance(100).setVPSize(200, 200).setTileSize(4)
+                    .setImageWriter(new ImageWriter("checkpoint", 16, 16)).setRayTracer(new RayTracerBasic(scene))
+                    .setPixelSampler(dying).setCheckpoint(file).setMultithreading(3)
+                    .build();
+            assertThrows(IllegalStateException.class, threads::renderImage, "TC04 render must die");
+            assertTrue(Files.exists(file), "TC04 checkpoint must be kept");
+
+            // TC05: checkpoint of a render of another camera with the same resolution is discarded
+            resumed.set(0);
+            new Camera.CameraBuilder(new Point(0, 0, 10), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setVPDistance(100).setVPSize(200, 200).setTileSize(4)
+                    .setImageWriter(new ImageWriter("checkpoint", 16, 16)).setRayTracer(new RayTracerBasic(scene))
+                    .setPixelSampler(counting).setCheckpoint(file)
+                    .build().renderImage();
+            assertEquals(256, resumed.get(), "TC05 all the pixels must be rendered");
+            assertFalse(Files.exists(file), "TC05 checkpoint must be deleted");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
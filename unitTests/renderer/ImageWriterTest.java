@@ -30,4 +30,46 @@ class ImageWriterTest {
         }
         imageWriter.writeToImage();
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link ImageWriter#accumulatePixel(int, int, Color, int)}
+     */
+    @Test
+    void testAccumulatePixel() {
+        ImageWriter imageWriter = new ImageWriter("accumulate", 3, 2);
+        // TC01: pixel which was not written is black without samples
+        assertEquals(0, imageWriter.getSamples(2, 1), "TC01 wrong samples count");
+        assertEquals(0, imageWriter.toImage().getRGB(2, 1) & 0xFFFFFF, "TC01 pixel must be black");
+
+        // TC02: accumulated pixel is the average of its samples
+        imageWriter.accumulatePixel(1, 0, new Color(100, 0, 50), 1);
+        imageWriter.accumulatePixel(1, 0, new Color(200, 300, 250), 3);
+        assertEquals(4, imageWriter.getSamples(1, 0), "TC02 wrong samples count");
+        assertEquals(new java.awt.Color(75, 75, 75).getRGB(), imageWriter.toImage().getRGB(1, 0), "TC02 wrong average");
+
+        // TC03: written pixel replaces the accumulated samples
+        imageWriter.writePixel(1, 0, new Color(10, 20, 30));
+        assertEquals(1, imageWriter.getSamples(1, 0), "TC03 wrong samples count");
+        assertEquals(new java.awt.Color(10, 20, 30).getRGB(), imageWriter.toImage().getRGB(1, 0), "TC03 wrong color");
+    }
+
+    /**
+     * Test method for {@link ImageWriter#setToneMapping(ToneMapping)}
+     */
+    @Test
+    void testToneMapping() {
+        ImageWriter imageWriter = new ImageWriter("toneMapping", 1, 1);
+        imageWriter.writePixel(0, 0, new Color(255, 765, 0));
+        // TC01: clamping keeps the high dynamic range color in the framebuffer
+        assertEquals(new java.awt.Color(255, 255, 0).getRGB(), imageWriter.toImage().getRGB(0, 0), "TC01 wrong clamping");
+        assertEquals(765, imageWriter.getPixel(0, 0).getGreen(), 0.00001, "TC01 framebuffer must not be clamped");
+
+        // TC02: Reinhard operator compresses bright colors
+        imageWriter.setToneMapping(ToneMapping.REINHARD);
+        assertEquals(new java.awt.Color(127, 191, 0).getRGB(), imageWriter.toImage().getRGB(0, 0), "TC02 wrong tone mapping");
+
+        // TC03: exposure scales the colors before tone mapping
+        imageWriter.setExposure(3);
+        assertEquals(new java.awt.Color(191, 229, 0).getRGB(), imageWriter.toImage().getRGB(0, 0), "TC03 wrong exposure");
+    }
+}
@@ -0,0 +1,143 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * test {@link PixelSampler} implementations
+ */
+class PixelSamplerTest {
+
+    Camera camera = new Camera.CameraBuilder(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+            .setVPDistance(10).setVPSize(8, 8).setApertureRadius(1).setDof(20)
+            .build();
+
+    Color gray = new Color(100, 100, 100);
+
+    /**
+     * sample pixel (1,1) of a 4x4 view plane with a tracer returning the same color for every ray
+     *
+     * @param sampler sampler to check
+     * @return number of rays traced
+     */
+    private int countRays(PixelSampler sampler) {
+        return countRays(sampler, 1);
+    }
+
+    /**
+     * sample pixel (j,1) of a 4x4 view plane with a tracer returning the same color for every ray
+     *
+     * @param sampler sampler to check
+     * @param j       column index of pixel
+     * @return number of rays traced
+     */
+    private int countRays(PixelSampler sampler, int j) {
+        AtomicInteger rays = new AtomicInteger();
+        Function<Ray, Color> tracer = ray -> {
+            rays.incrementAndGet();
+            return gray;
+        };
+        assertEquals(gray, sampler.samplePixel(camera, 4, 4, j, 1, tracer), "sampler must average the colors");
+        return rays.get();
+    }
+
+    /**
+     * Test method for {@link PixelSampler#samplePixel(Camera, int, int, int, int, Function)}
+     */
+    @Test
+    void testSamplePixel() {
+        // TC01: single ray to the center of the pixel
+        assertEquals(1, countRays(new CenterSampler()), "TC01 wrong number of rays");
+        // TC02: center and four corners
+        assertEquals(5, countRays(new CornersSampler()), "TC02 wrong number of rays");
+        // TC03: adaptive - at least the center and four corners
+        assertTrue(countRays(new AdaptiveSampler(8)) >= 5, "TC03 wrong number of rays");
+        // TC04: random grid of 4x4 rays besides the center
+        assertEquals(17, countRays(new RandomSampler(4, 4)), "TC04 wrong number of rays");
+    }
+
+    /**
+     * Test method for {@link DepthOfFieldSampler#samplePixel(Camera, int, int, int, int, Function)}
+     */
+    @Test
+    void testDepthOfFieldComposition() {
+        // TC01: 3x3 aperture grid besides the ray through the pixel
+        assertEquals(10, countRays(new DepthOfFieldSampler(new CenterSampler(), 3, 3)), "TC01 wrong number of rays");
+        // TC02: every Anti-Aliasing ray is cast through the aperture
+        assertEquals(50, countRays(new DepthOfFieldSampler(new CornersSampler(), 3, 3)), "TC02 wrong number of rays");
+        assertEquals(10 * countRays(new AdaptiveSampler(8)),
+                countRays(new DepthOfFieldSampler(new AdaptiveSampler(8), 3, 3)), "TC02 wrong number of rays");
+    }
+
+    /**
+     * Test method for {@link Camera.CameraBuilder#setApertureSamples(int, int)} - the sampler of the camera
+     */
+    @Test
+    void testCameraDepthOfField() {
+        Camera.CameraBuilder builder = new Camera.CameraBuilder(new Point(0, 0, 0), new Vector(0, 0, -1),
+                new Vector(0, 1, 0)).setVPDistance(10).setVPSize(8, 8).setApertureRadius(1).setDof(20).setUseDOF(true)
+                .setAntiAliasing(AntiAliasing.RANDOM).setN(4).setM(4);
+        // TC01: DOF without aperture samples replaces the Anti-Aliasing method - 4x4 aperture grid besides the ray
+        assertEquals(17, countRays(builder.build().getPixelSampler()), "TC01 wrong number of rays");
+        // TC02: every Anti-Aliasing ray is cast through a 2x2 aperture grid
+        assertEquals(85, countRays(builder.setApertureSamples(2, 2).build().getPixelSampler()),
+                "TC02 wrong number of rays");
+        // TC03: aperture grid without rays
+        assertThrows(IllegalArgumentException.class, () -> builder.setApertureSamples(0, 2), "TC03 empty aperture grid");
+    }
+
+    /**
+     * Test method for {@link AdaptiveSampler#startTile()}
+     */
+    @Test
+    void testAdaptiveCornerCache() {
+        AdaptiveSampler sampler = new AdaptiveSampler(2);
+        sampler.startTile();
+        // TC01: the corners of the deepest division are not traced again
+        assertEquals(5, countRays(sampler, 1), "TC01 wrong number of rays");
+        // TC02: the two corners shared with the neighbouring pixel are not traced again
+        assertEquals(3, countRays(sampler, 2), "TC02 wrong number of rays");
+        // TC03: the cache is cleared for a new tile
+        sampler.startTile();
+        assertEquals(5, countRays(sampler, 2), "TC03 wrong number of rays");
+    }
+
+    /**
+     * Test method for {@link VarianceSampler#samplePixel(Camera, int, int, int, int, Function)}
+     */
+    @Test
+    void testVarianceSampler() {
+        // TC01: uniform pixel - only the first batch besides the center ray
+        assertEquals(5, countRays(new VarianceSampler(8, 8, 2)), "TC01 wrong number of rays");
+
+        // TC02: noisy pixel - the whole beam
+        AtomicInteger rays = new AtomicInteger();
+        Color color = new VarianceSampler(8, 8, 2).samplePixel(camera, 4, 4, 1, 1,
+                ray -> rays.incrementAndGet() % 2 == 0 ? Color.BLACK : new Color(200, 200, 200));
+        assertEquals(65, rays.get(), "TC02 wrong number of rays");
+        assertEquals(new Color(100, 100, 100), color, "TC02 wrong average color");
+
+        // TC03: the first batch of rays is spread over the halves of the grid (cells of 0.25 in a pixel of 2x2)
+        double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        rays.set(0);
+        new VarianceSampler(8, 8, 2).samplePixel(camera, 4, 4, 1, 1, ray -> {
+            if (rays.incrementAndGet() > 1) {
+                // point of the ray on the view plane
+                Vector dir = ray.getDir();
+                Point p = ray.getPoint(-10 / dir.getZ());
+                min[0] = Math.min(min[0], p.getX());
+                max[0] = Math.max(max[0], p.getX());
+                min[1] = Math.min(min[1], p.getY());
+                max[1] = Math.max(max[1], p.getY());
+            }
+            return gray;
+        });
+        assertTrue(max[0] - min[0] > 0.5 && max[1] - min[1] > 0.5, "TC03 first batch not spread over the pixel");
+    }
+}
@@ -15,8 +15,13 @@ import static java.awt.Color.*;
 public class ProjectTest {
 
 
-    @Test
-    public void imageTest() {
+    /**
+     * build the room scene of {@link #imageTest()} - walls, window, table and chairs lit by two spot lights.
+     * the scene is also used by the benchmarks module
+     *
+     * @return the room scene
+     */
+    public static Scene roomScene() {
 
         List<LightSource> lights = new LinkedList<>();
         lights.add(new SpotLight(new Color(255, 197, 143), new Point(145, 300, 150), new Vector(-1, -2, 0)).setkL(0.0004).setkQ(0.0000006));
@@ -64,7 +69,7 @@ public class ProjectTest {
         Sphere centerLight = (Sphere) new Sphere(new Point(-8, 230, 625), 45).setEmission(new Color(GRAY)).setMaterial(new Material().setkT(1).setnShininess(50));
 
 
-        Scene scene = new Scene.SceneBuilder("Test Scene")
+        return new Scene.SceneBuilder("Test Scene")
                 .setAmbientLight(new AmbientLight(new Color(229, 204, 255), new Double3(.15)))
                 .setGeometries(new Geometries(rightWall,
                         leftWall,
@@ -81,17 +86,31 @@ public class ProjectTest {
                         frontChair.getGeometries(),
                         backChair.getGeometries(),
                         table.getGeometries(),
-                        centerLight))
+                        centerLight).setBVH(true))
                 .setLights(lights)
                 .setBackground(new Color(0, 102d, 102d))
                 .build();
+    }
 
-
+    /**
+     * camera builder looking into the room scene of {@link #imageTest()}
+     *
+     * @return camera builder with position and view plane of the room camera
+     */
+    public static Camera.CameraBuilder roomCamera() {
         // interesting fact when camera is set to position(0,0,1000) an exception is thrown
-        ImageWriter imageWriter = new ImageWriter("ProjectTest", 600, 600);
-        Camera camera = new Camera.CameraBuilder(new Point(0, 120, 1300), new Vector(0, -0.15, -1), new Vector(0, (double) 20 / 3, -1)) //
+        return new Camera.CameraBuilder(new Point(0, 120, 1300), new Vector(0, -0.15, -1), new Vector(0, (double) 20 / 3, -1)) //
                 .setVPSize(600, 600)
-                .setVPDistance(1000)
+                .setVPDistance(1000);
+    }
+
+    @Test
+    public void imageTest() {
+
+        Scene scene = roomScene();
+
+        ImageWriter imageWriter = new ImageWriter("ProjectTest", 600, 600);
+        Camera camera = roomCamera()
                 .setImageWriter(imageWriter) //
                 .setRayTracer(new RayTracerBasic(scene))
                 .setAntiAliasing(AntiAliasing.NONE)
@@ -224,7 +243,7 @@ public class ProjectTest {
                         orange3,
                    backChair.getGeometries(),
                         table.getGeometries()
-                ))
+                ).setBVH(true))
                 .setLights(lights)
                 .setBackground(new Color(0, 102d, 102d))
                 .build();
@@ -0,0 +1,43 @@
+package renderer;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * test for {@link RayStack}
+ */
+class RayStackTest {
+
+    /**
+     * Test method for {@link RayStack#push(GeoPoint, Ray, int, Double3, Double3)} and {@link RayStack#pop()}
+     */
+    @Test
+    void testPushPop() {
+        RayStack stack = new RayStack();
+        Sphere sphere = new Sphere(Point.ZERO, 1);
+        Ray ray = new Ray(new Point(0, 0, 5), new Vector(0, 0, -1));
+
+        // TC01: empty stack
+        assertFalse(stack.pop(), "TC01 stack must be empty");
+
+        // TC02: entries are popped in reverse order, beyond the initial capacity of the stack
+        for (int i = 0; i < 40; ++i)
+            stack.push(new GeoPoint(sphere, new Point(0, 0, i)), ray, i, new Double3(i), new Double3(2 * i));
+        for (int i = 39; i >= 0; --i) {
+            assertTrue(stack.pop(), "TC02 stack must not be empty");
+            assertEquals(new Point(0, 0, i), stack.point.point, "TC02 wrong point");
+            assertSame(ray, stack.ray, "TC02 wrong ray");
+            assertEquals(i, stack.level, "TC02 wrong level");
+            assertEquals(new Double3(i), stack.k, "TC02 wrong coefficient");
+            assertEquals(new Double3(2 * i), stack.weight, "TC02 wrong weight");
+        }
+        assertFalse(stack.pop(), "TC02 stack must be empty");
+    }
+}
@@ -0,0 +1,139 @@
+package renderer;
+
+import geometries.Geometries;
+import geometries.Plane;
+import geometries.Polygon;
+import lighting.LightSource;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * test for {@link RayTracerBasic}
+ */
+class RayTracerBasicTest {
+    /**
+     * ray bouncing between two facing mirrors
+     */
+    private final Ray ray = new Ray(Point.ZERO, new Vector(0, 0, -1));
+
+    /**
+     * scene of two facing emissive mirrors (kR = 0.8), without lights
+     *
+     * @return the scene
+     */
+    private static Scene mirrors() {
+        Material mirror = new Material().setkR(0.8);
+        return new Scene.SceneBuilder("mirrors").setGeometries(new Geometries(
+                        new Plane(new Point(0, 0, -10), new Vector(0, 0, 1)).setEmission(new Color(10, 20, 30)).setMaterial(mirror),
+                        new Plane(new Point(0, 0, 10), new Vector(0, 0, -1)).setEmission(new Color(10, 20, 30)).setMaterial(mirror)))
+                .build();
+    }
+
+    /**
+     * Test method for {@link RayTracerBasic#setRayBudget(int)}
+     */
+    @Test
+    void testRayBudget() {
+        // TC01: without budget the ray bounces up to the maximal recursion level
+        RayTracerBasic tracer = new RayTracerBasic(mirrors());
+        Color full = tracer.traceRay(ray);
+        assertEquals(1, tracer.getPrimaryRays(), "TC01 wrong number of primary rays");
+        assertEquals(9, tracer.getSecondaryRays(), "TC01 wrong number of secondary rays");
+        assertEquals(0, tracer.getBudgetTerminations(), "TC01 no ray must be dropped");
+
+        // TC02: the budget limits the secondary rays of every primary ray
+        tracer = new RayTracerBasic(mirrors()).setRayBudget(3);
+        Color limited = tracer.traceRay(ray);
+        tracer.traceRay(ray);
+        assertEquals(6, tracer.getSecondaryRays(), "TC02 wrong number of secondary rays");
+        assertEquals(3, tracer.getMaxSecondaryRays(), "TC02 wrong maximal number of secondary rays");
+        assertEquals(2, tracer.getBudgetTerminations(), "TC02 wrong number of dropped rays");
+        // emission * (1 + 0.8 + 0.8² + 0.8³)
+        assertEquals(29.52, limited.getRed(), 1e-9, "TC02 wrong color");
+        assertEquals(88.56, limited.getBlue(), 1e-9, "TC02 wrong color");
+        assertTrue(full.getRed() > limited.getRed(), "TC02 budget must change the color");
+
+        // TC03: counters are reset
+        tracer.resetCounters();
+        assertEquals(0, tracer.getSecondaryRays() + tracer.getMaxSecondaryRays() + tracer.getPrimaryRays(),
+                "TC03 counters must be reset");
+    }
+
+    /**
+     * Test method for {@link RayTracerBasic#setRussianRoulette(double)}
+     */
+    @Test
+    void testRussianRoulette() {
+        Color expected = new RayTracerBasic(mirrors()).traceRay(ray);
+
+        // TC01: russian roulette terminates rays, and keeps the expected color
+        RayTracerBasic tracer = new RayTracerBasic(mirrors()).setRussianRoulette(1);
+        final int count = 20000;
+        double red = 0, blue = 0;
+        for (int i = 0; i < count; ++i) {
+            Color color = tracer.traceRay(ray);
+            red += color.getRed();
+            blue += color.getBlue();
+        }
+        assertTrue(tracer.getRouletteTerminations() > 0, "TC01 rays must be terminated");
+        assertTrue(tracer.getSecondaryRays() < 9L * count, "TC01 fewer rays must be traced");
+        assertEquals(expected.getRed(), red / count, expected.getRed() * 0.03, "TC01 wrong mean color");
+        assertEquals(expected.getBlue(), blue / count, expected.getBlue() * 0.03, "TC01 wrong mean color");
+
+        // TC02: wrong threshold
+        assertThrows(IllegalArgumentException.class, () -> tracer.setRussianRoulette(2), "TC02 threshold must be checked");
+    }
+
+    /**
+     * scene of a floor (z = 0) shaded by an opaque square (-3..3 on x and y, z = 5) from a light
+     * of radius 2 at (0, 0, 10) - the umbra is within 4 of the origin on x, the penumbra between 4 and 8
+     *
+     * @return the scene
+     */
+    private static Scene shadow() {
+        Material matte = new Material().setkD(0.5).setkS(0.2).setnShininess(20);
+        return new Scene.SceneBuilder("shadow").setGeometries(new Geometries(
+                        new Plane(Point.ZERO, new Vector(0, 0, 1)).setMaterial(matte),
+                        new Polygon(new Point(-3, -3, 5), new Point(3, -3, 5), new Point(3, 3, 5), new Point(-3, 3, 5))
+                                .setMaterial(matte)))
+                .setLights(List.<LightSource>of(new PointLight(new Color(500, 500, 500), new Point(0, 0, 10), 2d)))
+                .build();
+    }
+
+    /**
+     * Test method for {@link RayTracerBasic#setAdaptiveSoftShadow(boolean)}
+     */
+    @Test
+    void testAdaptiveSoftShadow() {
+        RayTracerBasic full = new RayTracerBasic(shadow()).setSoftShadow(true);
+        RayTracerBasic probed = new RayTracerBasic(shadow()).setSoftShadow(true).setAdaptiveSoftShadow(true);
+        Vector down = new Vector(0, 0, -1);
+
+        // TC01: fully lit point - the probes are close to the full sampling of the light
+        Ray lit = new Ray(new Point(20, 0, 1), down);
+        Color expected = full.traceRay(lit);
+        Color color = probed.traceRay(lit);
+        assertTrue(expected.getRed() > 0, "TC01 point must be lit");
+        assertEquals(expected.getRed(), color.getRed(), expected.getRed() * 0.02, "TC01 wrong lit color");
+        assertEquals(expected.getBlue(), color.getBlue(), expected.getBlue() * 0.02, "TC01 wrong lit color");
+
+        // TC02: point in the umbra - no light with both methods
+        Ray umbra = new Ray(new Point(1, 0, 1), down);
+        assertEquals(Color.BLACK, full.traceRay(umbra), "TC02 point must be in the umbra");
+        assertEquals(Color.BLACK, probed.traceRay(umbra), "TC02 wrong umbra color");
+
+        // TC03: point in the penumbra - the probes disagree and the whole light is sampled
+        Ray penumbra = new Ray(new Point(7, 0, 1), down);
+        expected = full.traceRay(penumbra);
+        // the center of the light is not blocked - the hard shadow is fully lit
+        Color hard = new RayTracerBasic(shadow()).traceRay(penumbra);
+        assertTrue(expected.getRed() > 0 && expected.getRed() < hard.getRed() * 0.9, "TC03 point must be in the penumbra");
+        assertEquals(expected, probed.traceRay(penumbra), "TC03 wrong penumbra color");
+    }
+}
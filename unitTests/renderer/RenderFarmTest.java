@@ -0,0 +1,178 @@
+package renderer;
+
+import geometries.Sphere;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.io.DataInputStream;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * test {@link RenderCoordinator} with {@link RenderWorker} processes on this host
+ */
+class RenderFarmTest {
+
+    /**
+     * camera of a sphere lit by a spot light
+     */
+    static class SphereFactory implements CameraFactory {
+        /**
+         * builder of the camera
+         *
+         * @return camera builder without image writer
+         */
+        static Camera.CameraBuilder builder() {
+            Scene scene = new Scene.SceneBuilder("farm").setBackground(new Color(0, 0, 80)).build();
+            scene.getGeometries().add(new Sphere(new Point(0, 0, -100), 50).setEmission(new Color(100, 20, 20))
+                    .setMaterial(new Material().setkD(0.5).setkS(0.5).setnShininess(30)));
+            scene.getLights().add(new SpotLight(new Color(500, 300, 0), new Point(-50, 50, 50), new Vector(1, -1, -2)));
+            return new Camera.CameraBuilder(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setVPDistance(100).setVPSize(200, 200)
+                    .setRayTracer(new RayTracerBasic(scene));
+        }
+
+        @Override
+        public Camera create() {
+            return builder().build();
+        }
+    }
+
+    /**
+     * camera of a worker process which dies on the first pixel it renders
+     */
+    static class DyingFactory implements CameraFactory {
+        @Override
+        public Camera create() {
+            return new Camera.CameraBuilder(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setVPDistance(100).setVPSize(200, 200)
+                    .setRayTracer(new RayTracerBasic(new Scene.SceneBuilder("dying").build()))
+                    .setPixelSampler((camera, nX, nY, j, i, tracer) -> {
+                        Runtime.getRuntime().halt(1);
+                        return Color.BLACK;
+                    })
+                    .build();
+        }
+    }
+
+    /**
+     * Test method for {@link RenderCoordinator#render(ImageWriter, int)}
+     */
+    @Test
+    void testRender() {
+        ImageWriter reference = new ImageWriter("farm", 32, 32);
+        SphereFactory.builder().setImageWriter(reference).build().renderImage();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            Process[] workers;
+            try (RenderCoordinator coordinator = new RenderCoordinator(0)) {
+                // TC01: a worker dies in the middle of its tile, the tile is rendered by the other workers
+                ImageWriter imageWriter = new ImageWriter("farm", 32, 32);
+                CompletableFuture<Void> render = CompletableFuture.runAsync(() -> coordinator.render(imageWriter, 4));
+                Process dying = coordinator.startLocalWorker(DyingFactory.class);
+                assertTrue(dying.waitFor(30, TimeUnit.SECONDS), "TC01 worker must die");
+                assertEquals(1, dying.exitValue(), "TC01 worker must die on its tile");
+                workers = new Process[]{coordinator.startLocalWorker(SphereFactory.class),
+                        coordinator.startLocalWorker(SphereFactory.class)};
+                render.join();
+                for (int i = 0; i < 32; ++i)
+                    for (int j = 0; j < 32; ++j)
+                        assertEquals(reference.getPixel(j, i).getColor(), imageWriter.getPixel(j, i).getColor(),
+                                "TC01 wrong pixel (" + j + "," + i + ")");
+            }
+
+            // TC02: closing the coordinator ends the workers
+            for (Process worker : workers)
+                assertTrue(worker.waitFor(10, TimeUnit.SECONDS), "TC02 worker must end");
+        });
+    }
+
+    /**
+     * Test method for {@link RenderCoordinator#render(ImageWriter, int)} with stalled or missing workers
+     */
+    @Test
+    void testRenderTimeout() {
+        ImageWriter reference = new ImageWriter("farm", 8, 8);
+        SphereFactory.builder().setImageWriter(reference).build().renderImage();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            try (RenderCoordinator coordinator = new RenderCoordinator(0).setWorkerTimeout(1000)) {
+                // TC01: no live workers, the render fails after the timeout
+                assertThrows(IllegalStateException.class, () -> coordinator.render(new ImageWriter("farm", 8, 8), 8),
+                        "TC01 render without workers must fail");
+
+                // TC02: interrupted render is reported to the caller
+                AtomicReference<Throwable> failure = new AtomicReference<>();
+                Thread thread = new Thread(() -> {
+                    try {
+                        coordinator.render(new ImageWriter("farm", 8, 8), 8);
+                    } catch (Throwable e) {
+                        failure.set(e);
+                    }
+                });
+                thread.start();
+                thread.interrupt();
+                thread.join();
+                assertInstanceOf(CancellationException.class, failure.get(), "TC02 interrupt must be reported");
+
+                // TC03: a worker takes a tile and never replies, the tile is rendered by another worker
+                ImageWriter imageWriter = new ImageWriter("farm", 8, 8);
+                CompletableFuture<Void> render = CompletableFuture.runAsync(() -> coordinator.render(imageWriter, 8));
+                try (Socket stalled = new Socket("localhost", coordinator.getPort())) {
+                    DataInputStream in = new DataInputStream(stalled.getInputStream());
+                    assertEquals(RenderWorker.TILE, in.readInt(), "TC03 stalled worker must get the tile");
+                    coordinator.startLocalWorker(SphereFactory.class);
+                    render.join();
+                }
+                for (int i = 0; i < 8; ++i)
+                    for (int j = 0; j < 8; ++j)
+                        assertEquals(reference.getPixel(j, i).getColor(), imageWriter.getPixel(j, i).getColor(),
+                                "TC03 wrong pixel (" + j + "," + i + ")");
+            }
+        });
+    }
+
+    /**
+     * Test method for {@link RenderCoordinator#render(ImageWriter, int)} after an interrupted render
+     * whose worker dies later
+     */
+    @Test
+    void testRenderAfterInterrupt() {
+        ImageWriter reference = new ImageWriter("farm", 4, 4);
+        SphereFactory.builder().setImageWriter(reference).build().renderImage();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            try (RenderCoordinator coordinator = new RenderCoordinator(0)) {
+                // TC01: the render is interrupted while a worker holds its tile
+                Thread thread = new Thread(() -> coordinator.render(new ImageWriter("farm", 8, 8), 8));
+                try (Socket stalled = new Socket("localhost", coordinator.getPort())) {
+                    DataInputStream in = new DataInputStream(stalled.getInputStream());
+                    thread.start();
+                    assertEquals(RenderWorker.TILE, in.readInt(), "TC01 stalled worker must get the tile");
+                    thread.interrupt();
+                    thread.join();
+                }
+                // let the coordinator see the dead worker
+                Thread.sleep(500);
+
+                // TC02: the tile of the interrupted render is not rendered into the next (smaller) image
+                ImageWriter imageWriter = new ImageWriter("farm", 4, 4);
+                CompletableFuture<Void> render = CompletableFuture.runAsync(() -> coordinator.render(imageWriter, 4));
+                coordinator.startLocalWorker(SphereFactory.class);
+                render.join();
+                for (int i = 0; i < 4; ++i)
+                    for (int j = 0; j < 4; ++j)
+                        assertEquals(reference.getPixel(j, i).getColor(), imageWriter.getPixel(j, i).getColor(),
+                                "TC02 wrong pixel (" + j + "," + i + ")");
+            }
+        });
+    }
+}
@@ -7,6 +7,9 @@ import geometries.*;
 import primitives.*;
 import scene.Scene;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 import static java.awt.Color.*;
 
 /**
@@ -86,10 +89,9 @@ public class RenderTests {
 	 * Test for XML based scene - for bonus
 	 */
 	@Test
-	public void basicRenderXml() {
-		Scene scene = new XmlTool().createSceneFromXml("XML Test scene");
-		// enter XML file name and parse from XML file into scene object
-		// ...
+	public void basicRenderXml() throws IOException {
+		// parse from XML file into scene object
+		Scene scene = XmlTool.createSceneFromXml(Path.of("src/XmlTools/basicRenderTestTwoColors.xml"), "XML Test scene");
 
 		Camera camera = new Camera.CameraBuilder(new Point(0,0,0), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
 				.setVPDistance(100) //
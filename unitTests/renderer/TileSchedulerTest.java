@@ -0,0 +1,126 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * test {@link TileScheduler} class functionalities
+ */
+class TileSchedulerTest {
+
+    /**
+     * render a view plane with a scheduler and check every pixel was rendered exactly once
+     *
+     * @param nX       number of pixel columns
+     * @param nY       number of pixel rows
+     * @param tileSize tile size
+     * @param order    order of the tiles
+     * @param threads  threads setting
+     */
+    private void checkAllPixelsOnce(int nX, int nY, int tileSize, TileOrder order, int threads) {
+        AtomicIntegerArray counts = new AtomicIntegerArray(nX * nY);
+        new TileScheduler(nX, nY, tileSize, order, 0).render(threads, (col, row) -> counts.incrementAndGet(row * nX + col));
+        for (int k = 0; k < nX * nY; ++k)
+            assertEquals(1, counts.get(k),
+                    order + " threads " + threads + ": pixel (" + k % nX + "," + k / nX + ") not rendered once");
+    }
+
+    /**
+     * Test method for {@link TileScheduler#render(int, TileScheduler.PixelTask)}
+     */
+    @Test
+    void testRenderAllPixels() {
+        for (TileOrder order : TileOrder.values()) {
+            // TC01: tiles do not divide the view plane
+            checkAllPixelsOnce(37, 23, 8, order, 0);
+            // TC02: parallel streams
+            checkAllPixelsOnce(37, 23, 8, order, -1);
+            // TC03: rendering threads
+            checkAllPixelsOnce(37, 23, 8, order, 4);
+            // TC04: single tile larger than the view plane
+            checkAllPixelsOnce(5, 7, 16, order, 3);
+            // TC05: single pixel tiles
+            checkAllPixelsOnce(6, 4, 1, order, 2);
+        }
+    }
+
+    /**
+     * Test method for {@link TileScheduler#render(int, TileScheduler.PixelTask)} with a failing pixel
+     */
+    @Test
+    void testRenderFailure() {
+        // TC01: a rendering thread fails - the failure is thrown after the threads finish
+        TileScheduler scheduler = new TileScheduler(37, 23, 8, TileOrder.SCANLINE, 0);
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> scheduler.render(4, (col, row) -> {
+            if (col == 20 && row == 10)
+                throw new IllegalStateException("pixel failed");
+        }), "TC01 failure must be thrown");
+        assertEquals("pixel failed", e.getMessage(), "TC01 wrong failure");
+        assertFalse(scheduler.isFinished(), "TC01 render must not be finished");
+
+        // TC02: no failure - every tile is rendered
+        TileScheduler complete = new TileScheduler(37, 23, 8, TileOrder.SCANLINE, 0);
+        complete.render(4, (col, row) -> {
+        });
+        assertTrue(complete.isFinished(), "TC02 render must be finished");
+    }
+
+    /**
+     * Test method for {@link TileScheduler#nextTile()}
+     */
+    @Test
+    void testTileOrder() {
+        // TC01: scan line - first tile at the top left corner, second to its right
+        TileScheduler scanline = new TileScheduler(64, 64, 16, TileOrder.SCANLINE, 0);
+        assertEquals(0, scanline.getTile(0).col0, "TC01 wrong first tile");
+        assertEquals(16, scanline.getTile(1).col0, "TC01 wrong second tile");
+
+        // TC02: spiral - first tile at the center of the view plane
+        TileScheduler spiral = new TileScheduler(80, 80, 16, TileOrder.SPIRAL, 0);
+        assertEquals(32, spiral.getTile(0).col0, "TC02 wrong first tile");
+        assertEquals(32, spiral.getTile(0).row0, "TC02 wrong first tile");
+
+        // TC03: hilbert - consecutive tiles are adjacent
+        TileScheduler hilbert = new TileScheduler(100, 60, 10, TileOrder.HILBERT, 0);
+        assertEquals(60, hilbert.getTilesCount(), "TC03 wrong number of tiles");
+        TileScheduler square = new TileScheduler(64, 64, 8, TileOrder.HILBERT, 0);
+        for (int k = 1; k < square.getTilesCount(); ++k) {
+            TileScheduler.Tile a = square.getTile(k - 1), b = square.getTile(k);
+            assertEquals(8, Math.abs(a.col0 - b.col0) + Math.abs(a.row0 - b.row0), "TC03 tiles not adjacent");
+        }
+
+        // TC04: tiles are handed out once and then the scheduler is exhausted
+        TileScheduler small = new TileScheduler(10, 10, 5, TileOrder.SCANLINE, 0);
+        for (int k = 0; k < 4; ++k)
+            assertNotNull(small.nextTile(), "TC04 missing tile");
+        assertNull(small.nextTile(), "TC04 too many tiles");
+    }
+
+    /**
+     * Test method for {@link TileScheduler#render(ForkJoinPool, TileScheduler.PixelTask)}
+     */
+    @Test
+    void testRenderForkJoin() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // TC01: tiles do not divide the view plane
+            // TC02: single pixel tiles, the pool is shared with the previous render
+            // TC03: single tile larger than the view plane
+            int[][] sizes = {{37, 23, 8}, {6, 4, 1}, {5, 7, 16}};
+            for (int[] size : sizes) {
+                int nX = size[0];
+                AtomicIntegerArray counts = new AtomicIntegerArray(nX * size[1]);
+                new TileScheduler(nX, size[1], size[2], TileOrder.SCANLINE, 0)
+                        .render(pool, (col, row) -> counts.incrementAndGet(row * nX + col));
+                for (int k = 0; k < counts.length(); ++k)
+                    assertEquals(1, counts.get(k), "pixel (" + k % nX + "," + k / nX + ") not rendered once");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package scene;
+
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * test for {@link Scene}
+ */
+class SceneTest {
+
+    /**
+     * Test method for {@link Scene#getLights(Point)}
+     */
+    @Test
+    void testGetLights() {
+        List<LightSource> lights = new ArrayList<>();
+        LightSource sun = new DirectionalLight(new Color(100, 100, 100), new Vector(0, -1, 0));
+        lights.add(sun);
+        // a row of attenuated lights, 100 apart, with influence radius of about 30
+        for (int i = 0; i < 20; ++i)
+            lights.add(new PointLight(new Color(100, 100, 100), new Point(100 * i, 0, 0)).setkQ(1));
+        Scene scene = new Scene.SceneBuilder("lights").setLights(lights).build();
+
+        // TC01: index is not built - all the lights are returned
+        assertSame(lights, scene.getLights(Point.ZERO), "TC01 all the lights must be returned");
+
+        scene.buildLightIndex();
+        // TC02: every light influencing a point is returned, in the order of the scene's lights
+        for (int x = -50; x <= 2000; x += 7) {
+            Point p = new Point(x, 3, -2);
+            List<LightSource> candidates = scene.getLights(p);
+            assertTrue(candidates.size() < lights.size() / 2, "TC02 lights must be culled");
+            int last = -1;
+            for (LightSource light : candidates) {
+                int index = lights.indexOf(light);
+                assertTrue(index > last, "TC02 lights must keep the order of the scene");
+                last = index;
+            }
+            for (LightSource light : lights)
+                if (light.influences(p))
+                    assertTrue(candidates.contains(light), "TC02 missing light at " + p);
+        }
+
+        // TC03: point out of the influence of all the bounded lights gets the unbounded lights
+        assertEquals(List.of(sun), scene.getLights(new Point(0, 500, 0)), "TC03 wrong lights");
+    }
+}